@@ -0,0 +1,289 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.io.font.FontConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Generates the inputs used by the benchmarks, so that they can run without any files on disk or network access.
+ * All the generated data is deterministic, so that results of different runs stay comparable.
+ */
+final class BenchmarkFixtures {
+
+    static final String FONT_RESOURCE = "NotoSerif-Regular.ttf";
+
+    private static final String[] WORDS = {"lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+            "elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates a document with text-only pages, each of them filled with {@code linesPerPage} lines of text.
+     *
+     * @param pages        number of pages
+     * @param linesPerPage number of text lines on every page
+     * @param compress     whether the content streams shall be compressed
+     * @return bytes of the created document
+     */
+    static byte[] createTextDocument(int pages, int linesPerPage, boolean compress) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter writer = new PdfWriter(baos);
+        writer.setCompressionLevel(compress ? CompressionConstants.DEFAULT_COMPRESSION : CompressionConstants.NO_COMPRESSION);
+        PdfDocument pdfDocument = new PdfDocument(writer);
+        PdfFont font = PdfFontFactory.createFont(FontConstants.HELVETICA);
+        Random random = new Random(pages);
+        for (int i = 0; i < pages; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+            canvas.beginText()
+                    .setFontAndSize(font, 10)
+                    .setLeading(12)
+                    .moveText(36, 806);
+            for (int j = 0; j < linesPerPage; j++) {
+                canvas.newlineShowText(createSentence(random, 12));
+            }
+            canvas.endText()
+                    .release();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates a single page document with {@code objects} small indirect objects, which are not referenced
+     * from the page, so that opening of the document is dominated by the cross-reference section.
+     *
+     * @param objects         number of indirect objects
+     * @param fullCompression whether the objects shall be written into object streams
+     * @return bytes of the created document
+     */
+    static byte[] createDocumentWithObjects(int objects, boolean fullCompression) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, new WriterProperties().setFullCompressionMode(fullCompression)));
+        pdfDocument.addNewPage();
+        for (int i = 0; i < objects; i++) {
+            new PdfNumber(i).makeIndirect(pdfDocument).flush();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates a document with {@code objects} small indirect objects, which is then updated incrementally
+     * {@code revisions} times. Every revision adds its share of the objects and a page, and updates the catalog and
+     * the info, so that each of them adds a cross-reference section to the /Prev chain.
+     *
+     * @param objects         number of indirect objects added in every revision
+     * @param revisions       number of incremental updates
+     * @param fullCompression whether cross-reference streams and object streams shall be used
+     * @return bytes of the created document
+     */
+    static byte[] createIncrementallyUpdatedDocument(int objects, int revisions, boolean fullCompression) throws IOException {
+        byte[] document = createDocumentWithObjects(objects, fullCompression);
+        for (int revision = 1; revision <= revisions; revision++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)),
+                    new PdfWriter(baos), new StampingProperties().useAppendMode());
+            pdfDocument.addNewPage();
+            for (int i = 0; i < objects; i++) {
+                new PdfNumber(i).makeIndirect(pdfDocument).flush();
+            }
+            pdfDocument.getCatalog().put(new PdfName("Revision"), new PdfNumber(revision));
+            pdfDocument.getCatalog().setModified();
+            pdfDocument.getDocumentInfo().getPdfObject().setModified();
+            pdfDocument.close();
+            document = baos.toByteArray();
+        }
+        return document;
+    }
+
+    /**
+     * Creates a sentence of pseudo random words.
+     *
+     * @param random the source of randomness
+     * @param words  number of words in the sentence
+     * @return the sentence
+     */
+    static String createSentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates a content stream like sequence of operators and operands of roughly {@code size} bytes.
+     *
+     * @param size the approximate size of the content
+     * @return the content bytes
+     */
+    static byte[] createContentStream(int size) {
+        Random random = new Random(size);
+        StringBuilder sb = new StringBuilder(size + 128);
+        sb.append("BT\n/F1 12 Tf\n");
+        while (sb.length() < size) {
+            sb.append(random.nextInt(600)).append(' ').append(random.nextInt(800)).append(" Td\n")
+                    .append('(').append(createSentence(random, 6)).append(") Tj\n")
+                    .append("[(").append(createSentence(random, 2)).append(") -250 (")
+                    .append(createSentence(random, 2)).append(")] TJ\n")
+                    .append("<< /MCID ").append(random.nextInt(100)).append(" /Alt <FEFF0041> >> BDC EMC\n")
+                    .append(random.nextFloat()).append(' ').append(random.nextFloat()).append(" 0 rg\n");
+        }
+        sb.append("ET\n");
+        return sb.toString().getBytes();
+    }
+
+    /**
+     * Compresses the bytes the same way {@link PdfWriter} compresses stream content.
+     *
+     * @param bytes the bytes to compress
+     * @return the compressed bytes
+     */
+    static byte[] deflate(byte[] bytes) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos);
+        zip.write(bytes);
+        zip.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Reads the TrueType font bundled with the benchmarks.
+     *
+     * @return bytes of the font program
+     */
+    static byte[] loadFont() throws IOException {
+        InputStream is = BenchmarkFixtures.class.getResourceAsStream(FONT_RESOURCE);
+        if (is == null) {
+            throw new IOException(FONT_RESOURCE + " not found");
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                baos.write(buffer, 0, read);
+            }
+            return baos.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Generates an RSA key pair.
+     *
+     * @return the generated key pair
+     */
+    static KeyPair createKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Creates a self-signed certificate for the key pair.
+     *
+     * @param keyPair the key pair of the certificate
+     * @return the self-signed certificate
+     */
+    static X509Certificate createCertificate(KeyPair keyPair) throws GeneralSecurityException {
+        registerBouncyCastle();
+        X500Name name = new X500Name("CN=iText benchmarks, O=iText");
+        long now = System.currentTimeMillis();
+        JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(name, BigInteger.valueOf(now),
+                new Date(now - 24L * 60 * 60 * 1000), new Date(now + 365L * 24 * 60 * 60 * 1000), name, keyPair.getPublic());
+        try {
+            return new JcaX509CertificateConverter().setProvider(BouncyCastleProvider.PROVIDER_NAME)
+                    .getCertificate(builder.build(new JcaContentSignerBuilder("SHA256withRSA")
+                            .setProvider(BouncyCastleProvider.PROVIDER_NAME).build(keyPair.getPrivate())));
+        } catch (OperatorCreationException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    /**
+     * Registers the BouncyCastle provider, unless it is already registered.
+     */
+    static void registerBouncyCastle() {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+}
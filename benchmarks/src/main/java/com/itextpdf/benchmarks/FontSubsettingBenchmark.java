@@ -0,0 +1,147 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of a TrueType font program, measuring of text by its glyph widths and embedding of its subset
+ * into a document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FontSubsettingBenchmark {
+
+    private static final int LINES = 50;
+
+    private byte[] fontBytes;
+
+    private FontProgram fontProgram;
+
+    private PdfFont identityHFont;
+
+    private String[] lines;
+
+    private ByteArrayOutputStream baos;
+
+    @Setup
+    public void setUp() throws IOException {
+        fontBytes = BenchmarkFixtures.loadFont();
+        fontProgram = FontProgramFactory.createFont(null, fontBytes, false);
+        identityHFont = PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, true);
+        Random random = new Random(LINES);
+        lines = new String[LINES];
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = BenchmarkFixtures.createSentence(random, 10);
+        }
+        baos = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public FontProgram parse() throws IOException {
+        return FontProgramFactory.createFont(null, fontBytes, false);
+    }
+
+    @Benchmark
+    public float measureWidths() {
+        float width = 0;
+        for (String line : lines) {
+            width += identityHFont.getWidth(line);
+        }
+        return width;
+    }
+
+    @Benchmark
+    public int subsetIdentityH() throws IOException {
+        return embed(PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, true));
+    }
+
+    @Benchmark
+    public int subsetWinAnsi() throws IOException {
+        return embed(PdfFontFactory.createFont(fontProgram, PdfEncodings.WINANSI, true));
+    }
+
+    private int embed(PdfFont font) {
+        baos.reset();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+        canvas.beginText()
+                .setFontAndSize(font, 10)
+                .setLeading(12)
+                .moveText(36, 806);
+        for (String line : lines) {
+            canvas.newlineShowText(line);
+        }
+        canvas.endText()
+                .release();
+        pdfDocument.close();
+        return baos.size();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.renderer.TableRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures layout of paragraphs added by {@link Document#add} and of large tables laid out by {@link TableRenderer}.
+ * The paragraphs are also added with the content drawn in background, see {@link Document#useDrawingPipeline(int)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+    private static final int PARAGRAPHS = 500;
+
+    private static final int COLUMNS = 5;
+
+    private static final int ROWS = 2000;
+
+    private static final int MAX_PENDING_PAGES = 4;
+
+    private String[] sentences;
+
+    private ByteArrayOutputStream baos;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(PARAGRAPHS);
+        sentences = new String[PARAGRAPHS];
+        for (int i = 0; i < PARAGRAPHS; i++) {
+            sentences[i] = BenchmarkFixtures.createSentence(random, 20 + random.nextInt(60));
+        }
+        baos = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int addParagraphs() {
+        Document document = createDocument();
+        for (String sentence : sentences) {
+            document.add(new Paragraph(sentence));
+        }
+        document.close();
+        return baos.size();
+    }
+
+    @Benchmark
+    public int addParagraphsWithDrawingPipeline() {
+        Document document = createDocument().useDrawingPipeline(MAX_PENDING_PAGES);
+        for (String sentence : sentences) {
+            document.add(new Paragraph(sentence));
+        }
+        document.close();
+        return baos.size();
+    }
+
+    @Benchmark
+    public int addTable() {
+        Document document = createDocument();
+        Table table = new Table(COLUMNS);
+        fillTable(table, ROWS);
+        document.add(table);
+        document.close();
+        return baos.size();
+    }
+
+    @Benchmark
+    public int addLargeTable() {
+        Document document = createDocument();
+        Table table = new Table(COLUMNS, true);
+        document.add(table);
+        for (int i = 0; i < ROWS; i += 100) {
+            fillTable(table, 100);
+            table.flush();
+        }
+        table.complete();
+        document.close();
+        return baos.size();
+    }
+
+    private Document createDocument() {
+        baos.reset();
+        return new Document(new PdfDocument(new PdfWriter(baos)));
+    }
+
+    private void fillTable(Table table, int rows) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < COLUMNS; j++) {
+                table.addCell(sentences[(i * COLUMNS + j) % sentences.length].substring(0, 20));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving of page numbers, as done for link destinations and outlines, in documents with many pages.
+ * The pages are visited in random order, either in a document with all the pages loaded, or in a freshly opened one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageNumberBenchmark {
+
+    @Param({"1000", "10000"})
+    public int pages;
+
+    private byte[] document;
+    private PdfDocument loadedDocument;
+    private PdfDictionary[] pageDictionaries;
+    private PdfPage[] loadedPages;
+    private int lastPageObjectNumber;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        for (int i = 0; i < pages; i++) {
+            pdfDocument.addNewPage();
+        }
+        pdfDocument.close();
+        document = baos.toByteArray();
+
+        loadedDocument = openDocument();
+        List<PdfPage> pageList = new ArrayList<>();
+        for (int i = 1; i <= pages; i++) {
+            pageList.add(loadedDocument.getPage(i));
+        }
+        lastPageObjectNumber = loadedDocument.getLastPage().getPdfObject().getIndirectReference().getObjNumber();
+        Collections.shuffle(pageList, new Random(pages));
+        loadedPages = pageList.toArray(new PdfPage[pages]);
+        pageDictionaries = new PdfDictionary[pages];
+        for (int i = 0; i < pages; i++) {
+            pageDictionaries[i] = loadedPages[i].getPdfObject();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        loadedDocument.close();
+    }
+
+    @Benchmark
+    public int pageNumberOfDictionary() {
+        int sum = 0;
+        for (PdfDictionary pageDictionary : pageDictionaries) {
+            sum += loadedDocument.getPageNumber(pageDictionary);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int pageNumberOfPage() {
+        int sum = 0;
+        for (PdfPage page : loadedPages) {
+            sum += loadedDocument.getPageNumber(page);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int openAndGetLastPageNumber() throws IOException {
+        PdfDocument pdfDocument = openDocument();
+        int pageNumber = pdfDocument.getPageNumber((PdfDictionary) pdfDocument.getPdfObject(lastPageObjectNumber));
+        pdfDocument.close();
+        return pageNumber;
+    }
+
+    private PdfDocument openDocument() throws IOException {
+        return new PdfDocument(new PdfReader(new RandomAccessSourceFactory().createSource(document), new ReaderProperties()));
+    }
+}
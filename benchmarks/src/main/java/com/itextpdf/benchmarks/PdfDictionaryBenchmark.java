@@ -0,0 +1,151 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups in the dictionaries of the typical sizes and reading of all the objects of a document,
+ * which is dominated by building dictionaries. Run with {@code -prof gc} to compare the allocated memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PdfDictionaryBenchmark {
+
+    private static final PdfName[] FONT_KEYS = {PdfName.Type, PdfName.Subtype, PdfName.BaseFont, PdfName.Encoding,
+            PdfName.FirstChar, PdfName.LastChar, PdfName.Widths};
+
+    private PdfDictionary fontDictionary;
+    private PdfDictionary largeDictionary;
+    private PdfName[] largeDictionaryKeys;
+    private byte[] document;
+
+    @Setup
+    public void setUp() throws IOException {
+        fontDictionary = new PdfDictionary();
+        fontDictionary.put(PdfName.Type, PdfName.Font);
+        fontDictionary.put(PdfName.Subtype, PdfName.Type1);
+        fontDictionary.put(PdfName.BaseFont, new PdfName("Helvetica"));
+        fontDictionary.put(PdfName.Encoding, PdfName.WinAnsiEncoding);
+        largeDictionary = new PdfDictionary();
+        largeDictionaryKeys = new PdfName[1000];
+        for (int i = 0; i < largeDictionaryKeys.length; i++) {
+            largeDictionaryKeys[i] = new PdfName("Im" + i);
+            largeDictionary.put(largeDictionaryKeys[i], new PdfNumber(i));
+        }
+        document = BenchmarkFixtures.createTextDocument(200, 40, false);
+    }
+
+    @Benchmark
+    public int smallDictionaryLookup() {
+        int found = 0;
+        for (PdfName key : FONT_KEYS) {
+            if (fontDictionary.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int largeDictionaryLookup() {
+        int found = 0;
+        for (int i = 0; i < largeDictionaryKeys.length; i += 10) {
+            if (largeDictionary.get(largeDictionaryKeys[i]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public PdfDictionary buildSmallDictionary() {
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.Type, PdfName.Page);
+        dictionary.put(PdfName.Parent, PdfName.Pages);
+        dictionary.put(PdfName.MediaBox, PdfName.Pages);
+        dictionary.put(PdfName.Resources, PdfName.Pages);
+        dictionary.put(PdfName.Contents, PdfName.Pages);
+        return dictionary;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int readAllObjects() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new RandomAccessSourceFactory().createSource(document), new ReaderProperties()));
+        int dictionaries = 0;
+        for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDocument.getPdfObject(i);
+            if (object != null && object.isDictionary() && ((PdfDictionary) object).get(PdfName.Type) != null) {
+                dictionaries++;
+            }
+        }
+        pdfDocument.close();
+        return dictionaries;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfBoolean;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfOutputStream;
+import com.itextpdf.kernel.pdf.PdfString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization of direct objects by {@link PdfOutputStream}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PdfOutputStreamBenchmark {
+
+    private static final int ENTRIES = 1000;
+
+    private PdfArray objects;
+
+    private ByteArrayOutputStream baos;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(ENTRIES);
+        objects = new PdfArray();
+        for (int i = 0; i < ENTRIES; i++) {
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.Type, PdfName.Annot);
+            dictionary.put(PdfName.Subtype, PdfName.Link);
+            dictionary.put(PdfName.Rect, new PdfArray(new float[] {random.nextFloat() * 600, random.nextFloat() * 800,
+                    random.nextFloat() * 600, random.nextFloat() * 800}));
+            dictionary.put(PdfName.Border, new PdfArray(new int[] {0, 0, random.nextInt(3)}));
+            dictionary.put(PdfName.F, new PdfNumber(4));
+            dictionary.put(PdfName.T, new PdfString(BenchmarkFixtures.createSentence(random, 4)));
+            dictionary.put(PdfName.Contents, new PdfString(BenchmarkFixtures.createSentence(random, 4), "UnicodeBig"));
+            dictionary.put(PdfName.Open, new PdfBoolean(random.nextBoolean()));
+            PdfDictionary action = new PdfDictionary();
+            action.put(PdfName.S, PdfName.URI);
+            action.put(PdfName.URI, new PdfString("http://itextpdf.com/" + random.nextInt()));
+            dictionary.put(PdfName.A, action);
+            objects.add(dictionary);
+        }
+        baos = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        baos.reset();
+        PdfOutputStream outputStream = new PdfOutputStream(baos);
+        outputStream.write(objects);
+        outputStream.flush();
+        return baos.size();
+    }
+}
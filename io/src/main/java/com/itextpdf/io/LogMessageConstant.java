@@ -122,6 +122,11 @@ public final class LogMessageConstant {
      */
     public static final String INVALID_KEY_VALUE_KEY_0_HAS_NULL_VALUE = "Invalid key value: key {0} has null value.";
 
+    /**
+     * Log message.
+     */
+    public static final String LINEARIZATION_PARAMETERS_ERROR = "Unable to read the linearization parameters. The document is read as not linearized.";
+
     /**
      * Log message.
      */
@@ -145,6 +150,11 @@ public final class LogMessageConstant {
      */
     public static final String ONLY_ONE_OF_ARTBOX_OR_TRIMBOX_CAN_EXIST_IN_THE_PAGE = "Only one of artbox or trimbox can exist on the page. The trimbox will be deleted";
 
+    /**
+     * Log message.
+     */
+    public static final String PENDING_XREF_ERROR = "Error occurred while reading cross reference section of previous revision. Objects of previous revisions may be unavailable.";
+
     /**
      * Log message.
      */
@@ -169,6 +179,11 @@ public final class LogMessageConstant {
      */
     public static final String START_MARKER_MISSING_IN_PFB_FILE = "Start marker is missing in the pfb file";
 
+    /**
+     * Log message.
+     */
+    public static final String UNABLE_TO_CLOSE_STREAM_FILE = "Unable to close the file the stream content has been read from.";
+
     /**
      * Log message.
      */
@@ -189,4 +204,6 @@ public final class LogMessageConstant {
     public static final String WRITER_ENCRYPTION_IS_IGNORED_PRESERVE = "Writer encryption will be ignored, because preservation of encryption is enabled. Document will preserve the original encryption (or will stay unencrypted)";
 
     public static final String XREF_ERROR = "Error occurred while reading cross reference table. Cross reference table will be rebuilt.";
+
+    public static final String XREF_STREAM_ERROR = "Unable to read the cross reference stream. The cross reference table is read instead.";
 }
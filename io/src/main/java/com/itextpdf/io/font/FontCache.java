@@ -61,7 +61,6 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class FontCache {
 
@@ -80,7 +79,7 @@ public class FontCache {
     private static final String W_PROP = "W";
     private static final String W2_PROP = "W2";
 
-    private static Map<String, FontProgram> fontCache = new ConcurrentHashMap<>();
+    private static volatile FontProgramCache fontCache = new FontProgramCache();
 
     static {
         try {
@@ -154,19 +153,35 @@ public class FontCache {
     }
 
     public static FontProgram getFont(String fontName) {
-        String key = getFontCacheKey(fontName);
-        FontProgram font = null;
-        return fontCache.get(key);
+        return fontCache.get(getFontCacheKey(fontName));
     }
 
     public static FontProgram saveFont(FontProgram font, String fontName) {
-        FontProgram fontFound = getFont(fontName);
-        if (fontFound != null) {
-            return fontFound;
+        return fontCache.put(getFontCacheKey(fontName), font);
+    }
+
+    /**
+     * Gets the cache which keeps the font programs created with caching enabled.
+     * @return the font program cache.
+     */
+    public static FontProgramCache getFontProgramCache() {
+        return fontCache;
+    }
+
+    /**
+     * Replaces the cache which keeps the font programs created with caching enabled,
+     * for example with a bounded one. The fonts cached so far are not moved to the new cache.
+     * @param cache the new font program cache.
+     */
+    public static void setFontProgramCache(FontProgramCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("The font program cache must not be null.");
         }
-        String key = getFontCacheKey(fontName);
-        fontCache.put(key, font);
-        return font;
+        fontCache = cache;
+    }
+
+    static FontProgram saveFont(FontProgram font, String fontName, long loadTime) {
+        return fontCache.put(getFontCacheKey(fontName), font, loadTime);
     }
 
     private static void loadRegistry() throws java.io.IOException {
@@ -48,9 +48,13 @@ import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.io.util.FileUtil;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Parsed font data. The same instance, for example the one kept in {@link FontCache}, can be shared
+ * by several documents and threads: the font data is parsed when the font program is created,
+ * and the parts which are read lazily, e.g. the font file or the layout tables, are initialized under a lock.
+ */
 public abstract class FontProgram implements Serializable {
 
     private static final long serialVersionUID = -3488910249070253659L;
@@ -60,8 +64,8 @@ public abstract class FontProgram implements Serializable {
 
     // In case Type1: char code to glyph.
     // In case TrueType: glyph index to glyph.
-    protected Map<Integer, Glyph> codeToGlyph = new HashMap<>();
-    protected Map<Integer, Glyph> unicodeToGlyph = new HashMap<>();
+    protected Map<Integer, Glyph> codeToGlyph = new GlyphMap();
+    protected Map<Integer, Glyph> unicodeToGlyph = new GlyphMap();
     protected boolean isFontSpecific;
 
     protected FontNames fontNames = new FontNames();
@@ -131,12 +135,12 @@ public abstract class FontProgram implements Serializable {
     }
 
     public Glyph getGlyph(int unicode) {
-        return unicodeToGlyph.get(unicode);
+        return getGlyph(unicodeToGlyph, unicode);
     }
 
     // char code in case Type1 or index in case OpenType
     public Glyph getGlyphByCode(int charCode) {
-        return codeToGlyph.get(charCode);
+        return getGlyph(codeToGlyph, charCode);
     }
 
     public boolean hasKernPairs() {
@@ -151,7 +155,7 @@ public abstract class FontProgram implements Serializable {
      * @return the kerning to be applied
      */
     public int getKerning(int first, int second) {
-        return getKerning(unicodeToGlyph.get(first), unicodeToGlyph.get(second));
+        return getKerning(getGlyph(unicodeToGlyph, first), getGlyph(unicodeToGlyph, second));
     }
 
     /**
@@ -291,4 +295,9 @@ public abstract class FontProgram implements Serializable {
             codeToGlyph.put(space.getCode(), space);
         }
     }
+
+    // The maps may be replaced by the subclasses, the key is boxed only if the map is not a GlyphMap.
+    private static Glyph getGlyph(Map<Integer, Glyph> glyphs, int key) {
+        return glyphs instanceof GlyphMap ? ((GlyphMap) glyphs).get(key) : glyphs.get(key);
+    }
 }
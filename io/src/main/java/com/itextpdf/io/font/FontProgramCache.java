@@ -0,0 +1,389 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps parsed {@link FontProgram} instances by name, so that a font is read only once and then shared by all
+ * documents using it. The number of cached fonts and their approximate total size can be bounded, in which case
+ * the least recently or the least frequently used fonts are dropped first. Optionally the fonts can be referenced
+ * weakly, so that a font is kept only while it is in use.
+ * <p/>
+ * The cache is thread safe. The default cache of {@link FontCache} is not bounded, it can be replaced with
+ * {@link FontCache#setFontProgramCache(FontProgramCache)}.
+ */
+public class FontProgramCache {
+
+    /**
+     * Defines which font is dropped first when the cache is full.
+     */
+    public enum EvictionPolicy {
+        /**
+         * The font which has not been requested for the longest time is dropped.
+         */
+        LEAST_RECENTLY_USED,
+        /**
+         * The font which has been requested the least number of times is dropped.
+         * Among equally used fonts the least recently used one is chosen.
+         */
+        LEAST_FREQUENTLY_USED
+    }
+
+    private static final long FONT_SIZE = 1024;
+    private static final long GLYPH_SIZE = 128;
+    private static final long GLYPH_REFERENCE_SIZE = 16;
+
+    private final int maxEntries;
+    private final long maxSize;
+    private final EvictionPolicy evictionPolicy;
+    private final boolean weakValues;
+
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<FontProgram> collectedFonts = new ReferenceQueue<>();
+    private long size;
+
+    private long hitCount;
+    private long missCount;
+    private long loadCount;
+    private long totalLoadTime;
+    private long evictionCount;
+
+    /**
+     * Creates a cache which keeps all fonts.
+     */
+    public FontProgramCache() {
+        this(Integer.MAX_VALUE, Long.MAX_VALUE, EvictionPolicy.LEAST_RECENTLY_USED, false);
+    }
+
+    /**
+     * Creates a bounded cache.
+     *
+     * @param maxEntries     the maximum number of cached fonts
+     * @param maxSize        the maximum approximate size of the cached fonts in bytes, see {@link #estimateSize(FontProgram)}
+     * @param evictionPolicy defines which font is dropped first when one of the limits is exceeded
+     * @param weakValues     if {@code true}, fonts are referenced weakly and dropped as soon as they are not used anymore
+     */
+    public FontProgramCache(int maxEntries, long maxSize, EvictionPolicy evictionPolicy, boolean weakValues) {
+        if (maxEntries < 1 || maxSize < 1) {
+            throw new IllegalArgumentException("The maximum number and size of cached fonts must be greater than zero");
+        }
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException("The eviction policy must not be null");
+        }
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+        this.evictionPolicy = evictionPolicy;
+        this.weakValues = weakValues;
+    }
+
+    /**
+     * Gets the cached font.
+     *
+     * @param name the name the font was cached with
+     * @return the cached font or {@code null} if there is no such font in the cache
+     */
+    public synchronized FontProgram get(String name) {
+        removeCollectedFonts();
+        CacheEntry entry = entries.get(name);
+        FontProgram font = entry != null ? entry.getFont() : null;
+        if (font == null) {
+            missCount++;
+            return null;
+        }
+        entry.useCount++;
+        hitCount++;
+        return font;
+    }
+
+    /**
+     * Adds a font to the cache, unless a font with the same name has already been cached in the meantime.
+     * A font which alone is larger than the maximum size is not cached.
+     *
+     * @param name the name of the font
+     * @param font the font
+     * @return the font which is cached with the given name, that is the given one or the one cached before
+     */
+    public FontProgram put(String name, FontProgram font) {
+        return put(name, font, 0);
+    }
+
+    /**
+     * Adds a font to the cache, unless a font with the same name has already been cached in the meantime.
+     * A font which alone is larger than the maximum size is not cached.
+     *
+     * @param name     the name of the font
+     * @param font     the font
+     * @param loadTime the time it took to read the font in nanoseconds, which is added to {@link #getTotalLoadTime()}
+     * @return the font which is cached with the given name, that is the given one or the one cached before
+     */
+    public synchronized FontProgram put(String name, FontProgram font, long loadTime) {
+        removeCollectedFonts();
+        loadCount++;
+        totalLoadTime += loadTime;
+        CacheEntry entry = entries.get(name);
+        if (entry != null) {
+            FontProgram cachedFont = entry.getFont();
+            if (cachedFont != null) {
+                return cachedFont;
+            }
+            removeEntry(entry);
+            evictionCount++;
+        }
+        entry = new CacheEntry(name, font, estimateSize(font), weakValues ? null : font, collectedFonts);
+        if (entry.size > maxSize) {
+            return font;
+        }
+        entries.put(name, entry);
+        size += entry.size;
+        while (entries.size() > maxEntries || size > maxSize) {
+            removeEntry(findEvictionCandidate(entry));
+            evictionCount++;
+        }
+        return font;
+    }
+
+    /**
+     * Removes the font from the cache.
+     *
+     * @param name the name the font was cached with
+     */
+    public synchronized void remove(String name) {
+        CacheEntry entry = entries.get(name);
+        if (entry != null) {
+            removeEntry(entry);
+        }
+    }
+
+    /**
+     * Removes all fonts from the cache. The statistics are kept.
+     */
+    public synchronized void clear() {
+        for (CacheEntry entry : entries.values()) {
+            entry.removed = true;
+        }
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the number of cached fonts.
+     *
+     * @return the number of cached fonts
+     */
+    public synchronized int size() {
+        removeCollectedFonts();
+        return entries.size();
+    }
+
+    /**
+     * Gets the approximate size of the cached fonts in bytes.
+     *
+     * @return the sum of {@link #estimateSize(FontProgram)} of the cached fonts
+     */
+    public synchronized long getSizeInBytes() {
+        removeCollectedFonts();
+        return size;
+    }
+
+    /**
+     * Gets the number of times {@link #get(String)} found the requested font.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of times {@link #get(String)} did not find the requested font.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of fonts which have been read and passed to the cache.
+     *
+     * @return the number of calls of {@link #put(String, FontProgram, long)}
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Gets the total time spent on reading the fonts passed to the cache.
+     *
+     * @return the total load time in nanoseconds
+     */
+    public synchronized long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Gets the number of fonts dropped because one of the limits was exceeded, or because
+     * they were not used anymore in case of weakly referenced fonts.
+     *
+     * @return the number of evicted fonts
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the maximum number of cached fonts.
+     *
+     * @return the limit of the number of fonts set in the constructor, {@link Integer#MAX_VALUE} if the cache
+     * keeps all fonts
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the maximum approximate size of the cached fonts.
+     *
+     * @return the limit of the total size of the cached fonts in bytes, {@link Long#MAX_VALUE} if the cache
+     * keeps all fonts
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the policy which defines the font dropped first when one of the limits is exceeded.
+     *
+     * @return the eviction policy set in the constructor
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Checks whether the fonts are referenced weakly and dropped as soon as they are not used anymore.
+     *
+     * @return {@code true} if the cached fonts are referenced weakly
+     */
+    public boolean hasWeakValues() {
+        return weakValues;
+    }
+
+    /**
+     * Estimates the memory taken by the font. The estimation is based on the number of glyphs
+     * and, for TrueType and OpenType fonts, on the length of the font file, which stays open
+     * or in memory as long as the font is used.
+     *
+     * @param font the font
+     * @return the approximate size of the font in bytes
+     */
+    protected long estimateSize(FontProgram font) {
+        long fontSize = FONT_SIZE + GLYPH_SIZE * font.codeToGlyph.size() + GLYPH_REFERENCE_SIZE * font.unicodeToGlyph.size();
+        if (font instanceof TrueTypeFont) {
+            try {
+                fontSize += ((TrueTypeFont) font).getFontFileLength();
+            } catch (java.io.IOException ignored) {
+            }
+        }
+        return fontSize;
+    }
+
+    private CacheEntry findEvictionCandidate(CacheEntry newEntry) {
+        // entries are iterated from the least recently used one
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        CacheEntry candidate = iterator.next();
+        if (candidate == newEntry) {
+            candidate = iterator.next();
+        }
+        if (evictionPolicy == EvictionPolicy.LEAST_FREQUENTLY_USED) {
+            while (iterator.hasNext()) {
+                CacheEntry entry = iterator.next();
+                if (entry != newEntry && entry.useCount < candidate.useCount) {
+                    candidate = entry;
+                }
+            }
+        }
+        return candidate;
+    }
+
+    private void removeEntry(CacheEntry entry) {
+        entries.remove(entry.name);
+        size -= entry.size;
+        entry.removed = true;
+    }
+
+    private void removeCollectedFonts() {
+        CacheEntry collected;
+        while ((collected = (CacheEntry) collectedFonts.poll()) != null) {
+            if (!collected.removed) {
+                removeEntry(collected);
+                evictionCount++;
+            }
+        }
+    }
+
+    private static class CacheEntry extends WeakReference<FontProgram> {
+        final String name;
+        final long size;
+        // the strong reference keeps the font in the cache unless the fonts are referenced weakly
+        final FontProgram font;
+        long useCount;
+        boolean removed;
+
+        CacheEntry(String name, FontProgram font, long size, FontProgram strongReference, ReferenceQueue<FontProgram> queue) {
+            super(font, queue);
+            this.name = name;
+            this.size = size;
+            this.font = strongReference;
+        }
+
+        FontProgram getFont() {
+            return get();
+        }
+    }
+}
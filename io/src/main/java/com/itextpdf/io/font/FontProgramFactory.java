@@ -291,6 +291,7 @@ public final class FontProgramFactory {
         }
 
         FontProgram fontBuilt;
+        long loadStart = System.nanoTime();
 
         if (isBuiltinFonts14 || name.toLowerCase().endsWith(".afm") || name.toLowerCase().endsWith(".pfm")) {
             fontBuilt = new Type1Font(name, null, font, null);
@@ -305,7 +306,7 @@ public final class FontProgramFactory {
         } else {
             throw new IOException(IOException.Font1IsNotRecognized).setMessageParams(name);
         }
-        return cached ? FontCache.saveFont(fontBuilt, name) : fontBuilt;
+        return cached ? FontCache.saveFont(fontBuilt, name, System.nanoTime() - loadStart) : fontBuilt;
     }
 
     // todo make comment relevant to type 1 font creation
@@ -365,8 +366,9 @@ public final class FontProgramFactory {
                 return fontProgram;
             }
         }
+        long loadStart = System.nanoTime();
         fontProgram = new Type1Font(name, null, afm, pfb);
-        return cached && name != null ? FontCache.saveFont(fontProgram, name) : fontProgram;
+        return cached && name != null ? FontCache.saveFont(fontProgram, name, System.nanoTime() - loadStart) : fontProgram;
     }
 
     public static FontProgram createType1Font(byte[] afm, byte[] pfb) throws java.io.IOException {
@@ -381,8 +383,9 @@ public final class FontProgramFactory {
                 return fontProgram;
             }
         }
+        long loadStart = System.nanoTime();
         fontProgram = new Type1Font(metricsPath, binaryPath, null, null);
-        return cached && metricsPath != null ? FontCache.saveFont(fontProgram, metricsPath) : fontProgram;
+        return cached && metricsPath != null ? FontCache.saveFont(fontProgram, metricsPath, System.nanoTime() - loadStart) : fontProgram;
     }
 
     public static FontProgram createType1Font(String metricsPath, String binaryPath) throws java.io.IOException {
@@ -436,8 +439,9 @@ public final class FontProgramFactory {
                 return fontFound;
             }
         }
+        long loadStart = System.nanoTime();
         FontProgram fontBuilt = new TrueTypeFont(ttcPath, ttcIndex);
-        return cached ? FontCache.saveFont(fontBuilt, ttcPath + ttcIndex) : fontBuilt;
+        return cached ? FontCache.saveFont(fontBuilt, ttcPath + ttcIndex, System.nanoTime() - loadStart) : fontBuilt;
     }
 
     public static FontProgram createFont(byte[] ttc, int ttcIndex, boolean cached) throws java.io.IOException {
@@ -448,9 +452,10 @@ public final class FontProgramFactory {
                 return fontFound;
             }
         }
+        long loadStart = System.nanoTime();
         FontProgram fontBuilt = new TrueTypeFont(ttc, ttcIndex);
         String ttcNameKey = MessageFormat.format("{0}{1}", ArrayUtil.hashCode(ttc), ttcIndex);
-        return cached ? FontCache.saveFont(fontBuilt, ttcNameKey) : fontBuilt;
+        return cached ? FontCache.saveFont(fontBuilt, ttcNameKey, System.nanoTime() - loadStart) : fontBuilt;
     }
 
     public static FontProgram createRegisteredFont(String fontName, int style, boolean cached) throws java.io.IOException {
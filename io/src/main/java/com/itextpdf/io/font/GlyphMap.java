@@ -0,0 +1,446 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of the glyphs of a {@link FontProgram} by their codes or Unicode values.
+ * <p/>
+ * Glyph codes and most of the Unicode values of a font are small non-negative numbers, so the glyphs are kept in
+ * an array indexed by the key while at least a quarter of the array is used. The other keys, e.g. Unicode values
+ * far from the rest of the font, are kept in an open addressing hash table of primitive keys. Neither needs
+ * a boxed key or an entry object per glyph, and the {@code int} overloads of the {@link Map} methods
+ * don't box the looked up key.
+ * <p/>
+ * As in {@link java.util.HashMap}, {@code null} values are permitted. The keys kept in the array are iterated
+ * in the ascending order, followed by the keys of the hash table.
+ */
+public class GlyphMap extends AbstractMap<Integer, Glyph> implements Serializable {
+
+    private static final long serialVersionUID = 2384614282186386468L;
+
+    private static final int MIN_DENSE_LENGTH = 256;
+    private static final int MIN_SPARSE_CAPACITY = 16;
+
+    private static final Glyph[] EMPTY_GLYPHS = new Glyph[0];
+
+    // Marks a removed entry of the hash table, so that the keys placed after it are still found.
+    private static final Glyph REMOVED = new Glyph(-1, 0, -1);
+    // Stands for a null value, a null element of the array or the hash table marks an absent key.
+    private static final Glyph NULL_VALUE = new Glyph(-1, 0, -1);
+
+    // Glyphs by the keys from 0 to dense.length - 1. These keys are never kept in the hash table.
+    private transient Glyph[] dense;
+    private transient int denseSize;
+    private transient int[] sparseKeys;
+    private transient Glyph[] sparseValues;
+    private transient int sparseSize;
+    // Number of the hash table slots which are not empty, including the removed entries.
+    private transient int sparseUsed;
+    private transient int modCount;
+
+    public GlyphMap() {
+        dense = EMPTY_GLYPHS;
+    }
+
+    @Override
+    public int size() {
+        return denseSize + sparseSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return getStored(key) != null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    public Glyph get(int key) {
+        return unmask(getStored(key));
+    }
+
+    @Override
+    public Glyph get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    public Glyph put(int key, Glyph value) {
+        if (value == null) {
+            value = NULL_VALUE;
+        }
+        if (key >= dense.length && key < 1 << 30) {
+            int length = Math.max(MIN_DENSE_LENGTH, Integer.highestOneBit(key) << 1);
+            if (length <= Math.max(MIN_DENSE_LENGTH, (size() + 1) << 2)) {
+                resizeDense(length);
+            }
+        }
+        if (key >= 0 && key < dense.length) {
+            Glyph oldValue = dense[key];
+            dense[key] = value;
+            if (oldValue == null) {
+                denseSize++;
+                modCount++;
+            }
+            return unmask(oldValue);
+        }
+        return unmask(putSparse(key, value));
+    }
+
+    @Override
+    public Glyph put(Integer key, Glyph value) {
+        return put((int) key, value);
+    }
+
+    public Glyph remove(int key) {
+        Glyph oldValue = null;
+        if (key >= 0 && key < dense.length) {
+            oldValue = dense[key];
+            if (oldValue != null) {
+                dense[key] = null;
+                denseSize--;
+                modCount++;
+            }
+        } else if (sparseSize != 0) {
+            int slot = findSlot(key);
+            if (slot >= 0) {
+                oldValue = sparseValues[slot];
+                sparseValues[slot] = REMOVED;
+                sparseSize--;
+                modCount++;
+            }
+        }
+        return unmask(oldValue);
+    }
+
+    @Override
+    public Glyph remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void clear() {
+        dense = EMPTY_GLYPHS;
+        denseSize = 0;
+        sparseKeys = null;
+        sparseValues = null;
+        sparseSize = 0;
+        sparseUsed = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Glyph>> entrySet() {
+        return new AbstractSet<Map.Entry<Integer, Glyph>>() {
+            @Override
+            public Iterator<Map.Entry<Integer, Glyph>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return GlyphMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                GlyphMap.this.clear();
+            }
+        };
+    }
+
+    private static Glyph unmask(Glyph value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the value kept for the key, {@code NULL_VALUE} for a {@code null} value or {@code null} for an absent key.
+     */
+    private Glyph getStored(int key) {
+        if (key >= 0 && key < dense.length) {
+            return dense[key];
+        }
+        if (sparseSize == 0) {
+            return null;
+        }
+        int slot = findSlot(key);
+        return slot >= 0 ? sparseValues[slot] : null;
+    }
+
+    private int findSlot(int key) {
+        int mask = sparseKeys.length - 1;
+        for (int slot = hash(key) & mask; sparseValues[slot] != null; slot = (slot + 1) & mask) {
+            if (sparseKeys[slot] == key && sparseValues[slot] != REMOVED) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private Glyph putSparse(int key, Glyph value) {
+        if (sparseKeys == null) {
+            sparseKeys = new int[MIN_SPARSE_CAPACITY];
+            sparseValues = new Glyph[MIN_SPARSE_CAPACITY];
+        }
+        int mask = sparseKeys.length - 1;
+        int freeSlot = -1;
+        int slot = hash(key) & mask;
+        for (; sparseValues[slot] != null; slot = (slot + 1) & mask) {
+            if (sparseValues[slot] == REMOVED) {
+                if (freeSlot < 0) {
+                    freeSlot = slot;
+                }
+            } else if (sparseKeys[slot] == key) {
+                Glyph oldValue = sparseValues[slot];
+                sparseValues[slot] = value;
+                return oldValue;
+            }
+        }
+        if (freeSlot < 0) {
+            freeSlot = slot;
+            sparseUsed++;
+        }
+        sparseKeys[freeSlot] = key;
+        sparseValues[freeSlot] = value;
+        sparseSize++;
+        modCount++;
+        // at most half of the slots are used
+        if (sparseUsed << 1 > sparseKeys.length) {
+            rehashSparse();
+        }
+        return null;
+    }
+
+    /**
+     * Changes the length of the array to the given one, moving the keys of the hash table which fit into the array.
+     */
+    private void resizeDense(int length) {
+        Glyph[] newDense = new Glyph[length];
+        System.arraycopy(dense, 0, newDense, 0, dense.length);
+        dense = newDense;
+        if (sparseSize != 0) {
+            for (int slot = 0; slot < sparseKeys.length; slot++) {
+                int key = sparseKeys[slot];
+                Glyph value = sparseValues[slot];
+                if (value != null && value != REMOVED && key >= 0 && key < length) {
+                    dense[key] = value;
+                    denseSize++;
+                    sparseValues[slot] = REMOVED;
+                    sparseSize--;
+                }
+            }
+            rehashSparse();
+        }
+    }
+
+    private void rehashSparse() {
+        int[] oldKeys = sparseKeys;
+        Glyph[] oldValues = sparseValues;
+        int capacity = MIN_SPARSE_CAPACITY;
+        while (capacity < sparseSize << 2) {
+            capacity <<= 1;
+        }
+        sparseKeys = new int[capacity];
+        sparseValues = new Glyph[capacity];
+        sparseUsed = sparseSize;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Glyph value = oldValues[i];
+            if (value != null && value != REMOVED) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (sparseValues[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                sparseKeys[slot] = oldKeys[i];
+                sparseValues[slot] = value;
+            }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (Map.Entry<Integer, Glyph> entry : entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        dense = EMPTY_GLYPHS;
+        for (int count = in.readInt(); count > 0; count--) {
+            put(in.readInt(), (Glyph) in.readObject());
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<Integer, Glyph>> {
+        // positions of the array are followed by the slots of the hash table
+        private int next = -1;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < dense.length + (sparseKeys != null ? sparseKeys.length : 0);
+        }
+
+        @Override
+        public Map.Entry<Integer, Glyph> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            advance();
+            return new Entry(keyAt(last));
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            // removed entries stay in their slots, so the positions of the other entries don't change
+            GlyphMap.this.remove(keyAt(last));
+            expectedModCount = modCount;
+            last = -1;
+        }
+
+        private int keyAt(int position) {
+            return position < dense.length ? position : sparseKeys[position - dense.length];
+        }
+
+        private void advance() {
+            next++;
+            while (next < dense.length && dense[next] == null) {
+                next++;
+            }
+            if (next >= dense.length && sparseKeys != null) {
+                int slot = next - dense.length;
+                while (slot < sparseKeys.length && (sparseValues[slot] == null || sparseValues[slot] == REMOVED)) {
+                    slot++;
+                }
+                next = dense.length + slot;
+            }
+        }
+    }
+
+    private class Entry implements Map.Entry<Integer, Glyph> {
+        private final int key;
+
+        Entry(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Glyph getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Glyph setValue(Glyph value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Glyph value = getValue();
+            return getKey().equals(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Glyph value = getValue();
+            return key ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -161,7 +161,8 @@ class OpenTypeParser {
     /** The file name. */
     protected String fileName;
     /**
-     * The file in use.
+     * The file in use. All views created from it share the same source, which may be buffered,
+     * so the methods reading the font data after parsing are synchronized.
      */
     protected RandomAccessFileOrArray raf;
     /**
@@ -286,7 +287,7 @@ class OpenTypeParser {
         return cff;
     }
 
-    public byte[] getFullFont() throws java.io.IOException {
+    public synchronized byte[] getFullFont() throws java.io.IOException {
         RandomAccessFileOrArray rf2 = null;
         try {
             rf2 = raf.createView();
@@ -310,7 +311,7 @@ class OpenTypeParser {
      *
      * @return a byte array
      */
-    public byte[] readCffFont() throws java.io.IOException {
+    public synchronized byte[] readCffFont() throws java.io.IOException {
         if (!isCff()) {
             return null;
         }
@@ -331,12 +332,18 @@ class OpenTypeParser {
         }
     }
 
-    public byte[] getSubset(Set<Integer> glyphs, boolean subset) throws java.io.IOException {
+    public synchronized byte[] getSubset(Set<Integer> glyphs, boolean subset) throws java.io.IOException {
         TrueTypeFontSubset sb = new TrueTypeFontSubset(fileName,
                 raf.createView(), glyphs, directoryOffset, true, !subset);
         return sb.process();
     }
 
+    public synchronized void writeSubset(Set<Integer> glyphs, boolean subset, java.io.OutputStream out) throws java.io.IOException {
+        TrueTypeFontSubset sb = new TrueTypeFontSubset(fileName,
+                raf.createView(), glyphs, directoryOffset, true, !subset);
+        sb.process(out);
+    }
+
     /**
      * Reads the font data.
      */
@@ -54,7 +54,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.MessageFormat;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -68,9 +67,12 @@ public class TrueTypeFont extends FontProgram {
 
     protected boolean isVertical;
 
+    // OpenType layout tables are read on first access, see getGsubTable() and getGposTable()
     private GlyphSubstitutionTableReader gsubTable;
     private GlyphPositioningTableReader gposTable;
     private OpenTypeGdefTableReader gdefTable;
+    private boolean gsubTableRead;
+    private boolean gposTableRead;
 
     /**
      * The map containing the kerning information. It represents the content of
@@ -132,6 +134,13 @@ public class TrueTypeFont extends FontProgram {
         return fontParser.isCff();
     }
 
+    /**
+     * Gets the length of the font file or of the font data this font was read from.
+     */
+    long getFontFileLength() throws java.io.IOException {
+        return fontParser.raf.length();
+    }
+
     public Map<Integer, int[]> getActiveCmap() {
         OpenTypeParser.CmapTable cmaps = fontParser.getCmapTable();
         if (cmaps.cmapExt != null) {
@@ -147,7 +156,7 @@ public class TrueTypeFont extends FontProgram {
         }
     }
 
-    public byte[] getFontStreamBytes() {
+    public synchronized byte[] getFontStreamBytes() {
         if (fontStreamBytes != null)
             return fontStreamBytes;
         try {
@@ -187,11 +196,42 @@ public class TrueTypeFont extends FontProgram {
         return fontParser.directoryOffset;
     }
 
-    public GlyphSubstitutionTableReader getGsubTable() {
+    /**
+     * Gets the 'GSUB' table of the font. The table is read on the first call.
+     *
+     * @return the glyph substitution table or {@code null} if the font has no such table
+     */
+    public synchronized GlyphSubstitutionTableReader getGsubTable() {
+        if (!gsubTableRead) {
+            // the tables are read with the parser's file, which is shared with the font data readers
+            synchronized (fontParser) {
+                try {
+                    readGsubTable();
+                } catch (java.io.IOException e) {
+                    throw new IOException(IOException.IoException, e);
+                }
+            }
+            gsubTableRead = true;
+        }
         return gsubTable;
     }
 
-    public GlyphPositioningTableReader getGposTable() {
+    /**
+     * Gets the 'GPOS' table of the font. The table is read on the first call.
+     *
+     * @return the glyph positioning table or {@code null} if the font has no such table
+     */
+    public synchronized GlyphPositioningTableReader getGposTable() {
+        if (!gposTableRead) {
+            synchronized (fontParser) {
+                try {
+                    readGposTable();
+                } catch (java.io.IOException e) {
+                    throw new IOException(IOException.IoException, e);
+                }
+            }
+            gposTableRead = true;
+        }
         return gposTable;
     }
 
@@ -203,6 +243,22 @@ public class TrueTypeFont extends FontProgram {
         }
     }
 
+    /**
+     * Writes the subset of the font containing the given glyphs to the stream.
+     * Unlike {@link #getSubset(Set, boolean)}, the subset is not created in memory first.
+     *
+     * @param glyphs the glyphs to be included in the subset, the glyphs used by them are added to this set
+     * @param subset {@code true} if only the tables required for embedding into a PDF document are to be included
+     * @param out    the stream to write the subset to
+     */
+    public void writeSubset(Set<Integer> glyphs, boolean subset, java.io.OutputStream out) {
+        try {
+            fontParser.writeSubset(glyphs, subset, out);
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.IoException, e);
+        }
+    }
+
     protected void readGdefTable() throws java.io.IOException {
         int[] gdef = fontParser.tables.get("GDEF");
         if (gdef != null) {
@@ -215,15 +271,22 @@ public class TrueTypeFont extends FontProgram {
     protected void readGsubTable() throws java.io.IOException {
         int[] gsub = fontParser.tables.get("GSUB");
         if (gsub != null) {
-            gsubTable = new GlyphSubstitutionTableReader(fontParser.raf, gsub[0], gdefTable, codeToGlyph, fontMetrics.getUnitsPerEm());
+            gsubTable = new GlyphSubstitutionTableReader(fontParser.raf, gsub[0], getGdefTable(), codeToGlyph, fontMetrics.getUnitsPerEm());
         }
     }
 
     protected void readGposTable() throws java.io.IOException {
         int[] gpos = fontParser.tables.get("GPOS");
         if (gpos != null) {
-            gposTable = new GlyphPositioningTableReader(fontParser.raf, gpos[0], gdefTable, codeToGlyph,  fontMetrics.getUnitsPerEm());
+            gposTable = new GlyphPositioningTableReader(fontParser.raf, gpos[0], getGdefTable(), codeToGlyph,  fontMetrics.getUnitsPerEm());
+        }
+    }
+
+    private OpenTypeGdefTableReader getGdefTable() throws java.io.IOException {
+        if (gdefTable == null) {
+            readGdefTable();
         }
+        return gdefTable;
     }
 
     private void initializeFontProperties() throws java.io.IOException {
@@ -304,11 +367,12 @@ public class TrueTypeFont extends FontProgram {
 
         Map<Integer, int[]> cmap = getActiveCmap();
         int[] glyphWidths = fontParser.getGlyphWidthsByIndex();
-        unicodeToGlyph = new LinkedHashMap<>(cmap.size());
-        codeToGlyph = new LinkedHashMap<>(glyphWidths.length);
+        unicodeToGlyph = new GlyphMap();
+        codeToGlyph = new GlyphMap();
         avgWidth = 0;
-        for (int charCode : cmap.keySet()) {
-            int index = cmap.get(charCode)[0];
+        for (Map.Entry<Integer, int[]> entry : cmap.entrySet()) {
+            int charCode = (int) entry.getKey();
+            int index = entry.getValue()[0];
             if (index >= glyphWidths.length) {
                 Logger LOGGER = LoggerFactory.getLogger(TrueTypeFont.class);
                 LOGGER.warn(MessageFormat.format(LogMessageConstant.FONT_HAS_INVALID_GLYPH, getFontNames().getFontName(), index));
@@ -333,10 +397,6 @@ public class TrueTypeFont extends FontProgram {
             avgWidth /= codeToGlyph.size();
         }
 
-        readGdefTable();
-        readGsubTable();
-        readGposTable();
-
         isVertical = false;
     }
 
@@ -46,6 +46,8 @@ package com.itextpdf.io.font;
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -76,6 +78,8 @@ class TrueTypeFontSubset {
     static final int WE_HAVE_AN_X_AND_Y_SCALE = 64;
     static final int WE_HAVE_A_TWO_BY_TWO = 128;
 
+    private static final int COPY_BUFFER_SIZE = 8192;
+
 
     /**
      * Contains the location of the several tables. The key is the name of
@@ -97,7 +101,8 @@ class TrueTypeFontSubset {
     protected int tableGlyphOffset;
     protected int[] newLocaTable;
     protected byte[] newLocaTableOut;
-    protected byte[] newGlyfTable;
+    protected int[] activeGlyphs;
+    protected int glyfTableChecksum;
     protected int glyfTableRealSize;
     protected int locaTableRealSize;
     protected byte[] outFont;
@@ -128,14 +133,26 @@ class TrueTypeFontSubset {
      * @return the subset font
      */
     byte[] process() throws java.io.IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        process(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Subsets the font and writes it to the given stream. The sizes and the checksums of the new tables
+     * are calculated first, so the tables are copied from the font file to the stream without
+     * assembling the whole subset in memory.
+     * @param out the stream to write the subset font to
+     * @throws java.io.IOException on error
+     */
+    void process(OutputStream out) throws java.io.IOException {
         try {
             createTableDirectory();
             readLoca();
             flatGlyphs();
             createNewGlyphTables();
             locaToBytes();
-            assembleFont();
-            return outFont;
+            assembleFont(out);
         } finally {
             try {
                 rf.close();
@@ -143,9 +160,8 @@ class TrueTypeFontSubset {
         }
     }
 
-    protected void assembleFont() throws java.io.IOException {
+    protected void assembleFont(OutputStream out) throws java.io.IOException {
         int[] tableLocation;
-        int fullFontSize = 0;
         List<String> tableNames = new ArrayList<>();
         Collections.addAll(tableNames, tableNamesSimple);
         if (includeExtras) {
@@ -163,13 +179,9 @@ class TrueTypeFontSubset {
                 continue;
             }
             tablesUsed++;
-            fullFontSize += tableLocation[TABLE_LENGTH] + 3 & ~3;
         }
-        fullFontSize += newLocaTableOut.length;
-        fullFontSize += newGlyfTable.length;
         int reference = 16 * tablesUsed + 12;
-        fullFontSize += reference;
-        outFont = new byte[fullFontSize];
+        outFont = new byte[reference];
         fontPtr = 0;
         writeFontInt(0x00010000);
         writeFontShort(tablesUsed);
@@ -186,7 +198,7 @@ class TrueTypeFontSubset {
             writeFontString(name);
             switch (name) {
                 case "glyf":
-                    writeFontInt(calculateChecksum(newGlyfTable));
+                    writeFontInt(glyfTableChecksum);
                     len = glyfTableRealSize;
                     break;
                 case "loca":
@@ -202,6 +214,9 @@ class TrueTypeFontSubset {
             writeFontInt(len);
             reference += len + 3 & ~3;
         }
+        out.write(outFont);
+        outFont = null;
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
         for (String name : tableNames) {
             tableLocation = tableDirectory.get(name);
             if (tableLocation == null) {
@@ -209,19 +224,19 @@ class TrueTypeFontSubset {
             }
             switch (name) {
                 case "glyf":
-                    System.arraycopy(newGlyfTable, 0, outFont, fontPtr, newGlyfTable.length);
-                    fontPtr += newGlyfTable.length;
-                    newGlyfTable = null;
+                    for (int glyph : activeGlyphs) {
+                        int start = locaTable[glyph];
+                        copy(tableGlyphOffset + start, locaTable[glyph + 1] - start, buffer, out);
+                    }
+                    writePadding(glyfTableRealSize, out);
                     break;
                 case "loca":
-                    System.arraycopy(newLocaTableOut, 0, outFont, fontPtr, newLocaTableOut.length);
-                    fontPtr += newLocaTableOut.length;
+                    out.write(newLocaTableOut);
                     newLocaTableOut = null;
                     break;
                 default:
-                    rf.seek(tableLocation[TABLE_OFFSET]);
-                    rf.readFully(outFont, fontPtr, tableLocation[TABLE_LENGTH]);
-                    fontPtr += tableLocation[TABLE_LENGTH] + 3 & ~3;
+                    copy(tableLocation[TABLE_OFFSET], tableLocation[TABLE_LENGTH], buffer, out);
+                    writePadding(tableLocation[TABLE_LENGTH], out);
                     break;
             }
         }
@@ -274,36 +289,44 @@ class TrueTypeFontSubset {
         }
     }
 
+    /**
+     * Creates the new 'loca' table and calculates the size and the checksum of the new 'glyf' table,
+     * which is written later by {@link #assembleFont(OutputStream)}.
+     * @throws java.io.IOException the font file could not be read
+     */
     protected void createNewGlyphTables() throws java.io.IOException {
         newLocaTable = new int[locaTable.length];
-        int[] activeGlyphs = new int[glyphsInList.size()];
+        activeGlyphs = new int[glyphsInList.size()];
         for (int k = 0; k < activeGlyphs.length; ++k) {
             activeGlyphs[k] = (int) glyphsInList.get(k);
         }
         Arrays.sort(activeGlyphs);
-        int glyfSize = 0;
-        for (int glyph : activeGlyphs) {
-            glyfSize += locaTable[glyph + 1] - locaTable[glyph];
-        }
-        glyfTableRealSize = glyfSize;
-        glyfSize = glyfSize + 3 & ~3;
-        newGlyfTable = new byte[glyfSize];
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
         int glyfPtr = 0;
+        int checksum = 0;
         int listGlyf = 0;
         for (int k = 0; k < newLocaTable.length; ++k) {
             newLocaTable[k] = glyfPtr;
             if (listGlyf < activeGlyphs.length && activeGlyphs[listGlyf] == k) {
                 ++listGlyf;
-                newLocaTable[k] = glyfPtr;
                 int start = locaTable[k];
                 int len = locaTable[k + 1] - start;
                 if (len > 0) {
                     rf.seek(tableGlyphOffset + start);
-                    rf.readFully(newGlyfTable, glyfPtr, len);
-                    glyfPtr += len;
+                    while (len > 0) {
+                        int n = Math.min(len, buffer.length);
+                        rf.readFully(buffer, 0, n);
+                        for (int i = 0; i < n; ++i) {
+                            // the table is summed as big-endian 32 bit words
+                            checksum += (buffer[i] & 0xff) << (24 - ((glyfPtr++ & 3) << 3));
+                        }
+                        len -= n;
+                    }
                 }
             }
         }
+        glyfTableRealSize = glyfPtr;
+        glyfTableChecksum = checksum;
     }
 
     protected void locaToBytes() {
@@ -379,6 +402,22 @@ class TrueTypeFontSubset {
         }
     }
 
+    private void copy(int offset, int length, byte[] buffer, OutputStream out) throws java.io.IOException {
+        rf.seek(offset);
+        while (length > 0) {
+            int n = Math.min(length, buffer.length);
+            rf.readFully(buffer, 0, n);
+            out.write(buffer, 0, n);
+            length -= n;
+        }
+    }
+
+    private static void writePadding(int length, OutputStream out) throws java.io.IOException {
+        for (int k = length; (k & 3) != 0; ++k) {
+            out.write(0);
+        }
+    }
+
     /**
      * Reads a {@code String} from the font file as bytes using the Cp1252 encoding.
      * @param length the length of bytes to read
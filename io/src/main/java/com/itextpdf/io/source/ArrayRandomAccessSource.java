@@ -48,7 +48,7 @@ import java.io.Serializable;
 /**
  * A RandomAccessSource that is based on an underlying byte array
  */
-class ArrayRandomAccessSource implements IRandomAccessSource, Serializable {
+class ArrayRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
 
     private static final long serialVersionUID = 8497059230517630513L;
 
@@ -78,6 +78,18 @@ class ArrayRandomAccessSource implements IRandomAccessSource, Serializable {
         return len;
     }
 
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) {
+        if (array == null) throw new IllegalStateException("Already closed");
+
+        if (position >= array.length)
+            return null;
+
+        if (position + length > array.length)
+            length = (int)(array.length - position);
+
+        return java.nio.ByteBuffer.wrap(array, (int)position, length).slice().asReadOnlyBuffer();
+    }
+
     public long length() {
         return array.length;
     }
@@ -0,0 +1,139 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+/**
+ * An output stream that collects the written bytes in a direct (off-heap) {@link java.nio.ByteBuffer}.
+ * The buffer grows as needed, the collected bytes are exposed with {@link #getBuffer()} without copying,
+ * e.g. to pass them to a channel of a network connection. The stream is meant to be used by a single thread.
+ */
+public class DirectBufferOutputStream extends java.io.OutputStream {
+
+    private java.nio.ByteBuffer buffer;
+
+    /**
+     * Creates a stream with the initial capacity of 64 KB.
+     */
+    public DirectBufferOutputStream() {
+        this(1 << 16);
+    }
+
+    /**
+     * Creates a stream with the specified initial capacity.
+     *
+     * @param initialCapacity the initial capacity of the buffer
+     */
+    public DirectBufferOutputStream(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity");
+        }
+        buffer = java.nio.ByteBuffer.allocateDirect(initialCapacity);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureRemaining(len);
+        buffer.put(b, off, len);
+    }
+
+    /**
+     * Gets the number of the written bytes.
+     *
+     * @return the number of the written bytes
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Gets a read-only view of the written bytes. The view shares the content with the stream, but it isn't
+     * updated by further writes, which may also move the content to a new buffer.
+     *
+     * @return a buffer positioned at zero with the limit at the number of the written bytes
+     */
+    public java.nio.ByteBuffer getBuffer() {
+        java.nio.ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.flip();
+        return view;
+    }
+
+    /**
+     * Discards the written bytes, so that the buffer can be reused.
+     */
+    public void reset() {
+        buffer.clear();
+    }
+
+    /**
+     * Copies the written bytes to a new array.
+     *
+     * @return the written bytes
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.position()];
+        getBuffer().get(bytes);
+        return bytes;
+    }
+
+    private void ensureRemaining(int len) {
+        if (buffer.remaining() >= len) {
+            return;
+        }
+        long required = (long) buffer.position() + len;
+        if (required > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Required buffer size exceeds 2 GB");
+        }
+        int capacity = (int) Math.min(Math.max((long) buffer.capacity() << 1, required), Integer.MAX_VALUE);
+        java.nio.ByteBuffer newBuffer = java.nio.ByteBuffer.allocateDirect(capacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * An output stream that writes to a {@link FileChannel} through a direct {@link java.nio.ByteBuffer}.
+ * Small writes are collected in the buffer, while a write that doesn't fit into the buffer is passed to the channel
+ * together with the buffered bytes in a single gathering write, without copying it into the buffer first.
+ * The stream is meant to be used by a single thread.
+ */
+public class FileChannelOutputStream extends java.io.OutputStream {
+
+    /**
+     * The default size of the direct buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The channel the bytes are written to
+     */
+    private final FileChannel channel;
+
+    /**
+     * Collects small writes, always in the write mode
+     */
+    private final java.nio.ByteBuffer buffer;
+
+    /**
+     * Whether the channel shall be closed together with the stream
+     */
+    private final boolean closeChannel;
+
+    private final java.nio.ByteBuffer[] gather = new java.nio.ByteBuffer[2];
+
+    private boolean closed;
+
+    /**
+     * Creates a stream writing to the file, the existing content of the file is discarded.
+     *
+     * @param filename the name of the file
+     * @throws FileNotFoundException if the file cannot be opened for writing
+     */
+    public FileChannelOutputStream(String filename) throws FileNotFoundException {
+        this(new File(filename));
+    }
+
+    /**
+     * Creates a stream writing to the file, the existing content of the file is discarded.
+     *
+     * @param file the file to write to
+     * @throws FileNotFoundException if the file cannot be opened for writing
+     */
+    public FileChannelOutputStream(File file) throws FileNotFoundException {
+        this(openChannel(file), DEFAULT_BUFFER_SIZE, true);
+    }
+
+    /**
+     * Creates a stream writing to the channel at its current position. The channel is closed when the stream is closed.
+     *
+     * @param channel the channel to write to
+     */
+    public FileChannelOutputStream(FileChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE, true);
+    }
+
+    /**
+     * Creates a stream writing to the channel at its current position.
+     *
+     * @param channel      the channel to write to
+     * @param bufferSize   the size of the direct buffer collecting small writes
+     * @param closeChannel whether the channel shall be closed when the stream is closed
+     */
+    public FileChannelOutputStream(FileChannel channel, int bufferSize, boolean closeChannel) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize");
+        }
+        this.channel = channel;
+        this.buffer = java.nio.ByteBuffer.allocateDirect(bufferSize);
+        this.closeChannel = closeChannel;
+    }
+
+    /**
+     * Gets the channel the stream writes to.
+     *
+     * @return the channel
+     */
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void write(int b) throws java.io.IOException {
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws java.io.IOException {
+        if (len <= buffer.remaining()) {
+            buffer.put(b, off, len);
+        } else if (len < buffer.capacity() / 2) {
+            flushBuffer();
+            buffer.put(b, off, len);
+        } else {
+            writeWithBuffered(java.nio.ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer, e.g. a memory mapped range of another file. A buffer that doesn't
+     * fit into the direct buffer of the stream is passed to the channel as is, without copying.
+     *
+     * @param src the bytes to write, the position of the buffer is advanced by the number of written bytes
+     * @throws java.io.IOException on error
+     */
+    public void write(java.nio.ByteBuffer src) throws java.io.IOException {
+        if (src.remaining() <= buffer.remaining()) {
+            buffer.put(src);
+        } else {
+            writeWithBuffered(src);
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel. The channel itself is not forced to the storage device.
+     *
+     * @throws java.io.IOException on error
+     */
+    @Override
+    public void flush() throws java.io.IOException {
+        flushBuffer();
+    }
+
+    @Override
+    public void close() throws java.io.IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushBuffer();
+        } finally {
+            if (closeChannel) {
+                channel.close();
+            }
+        }
+    }
+
+    private void writeWithBuffered(java.nio.ByteBuffer src) throws java.io.IOException {
+        buffer.flip();
+        gather[0] = buffer;
+        gather[1] = src;
+        try {
+            while (src.hasRemaining()) {
+                channel.write(gather);
+            }
+        } finally {
+            gather[1] = null;
+            buffer.clear();
+        }
+    }
+
+    private void flushBuffer() throws java.io.IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private static FileChannel openChannel(File file) throws FileNotFoundException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+        } catch (java.io.IOException e) {
+            try {
+                raf.close();
+            } catch (java.io.IOException ignored) {
+            }
+            throw new FileNotFoundException(file.getPath() + ": " + e.getMessage());
+        }
+        return raf.getChannel();
+    }
+}
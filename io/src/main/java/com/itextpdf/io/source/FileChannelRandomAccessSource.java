@@ -50,7 +50,7 @@ import java.nio.channels.FileChannel;
  * A RandomAccessSource that is based on an underlying {@link java.nio.channels.FileChannel}.
  * The entire channel will be mapped into memory for efficient reads.
  */
-public class FileChannelRandomAccessSource implements IRandomAccessSource, Serializable {
+public class FileChannelRandomAccessSource implements IByteBufferRandomAccessSource, Serializable {
 
     private static final long serialVersionUID = -7550288945325499416L;
     /**
@@ -100,6 +100,19 @@ public class FileChannelRandomAccessSource implements IRandomAccessSource, Seria
         return source.get(position, bytes, off, len);
     }
 
+    /**
+     * {@inheritDoc}
+     * The range is mapped separately from the main mapping, so that the view stays valid after this source
+     * is closed and the main mapping is cleaned. The view is unmapped when it is garbage collected.
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        long size = source.length();
+        if (position >= size)
+            return null;
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(length, size - position));
+    }
+
     /**
      * {@inheritDoc}
      */
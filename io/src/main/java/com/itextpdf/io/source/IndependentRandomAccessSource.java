@@ -47,7 +47,7 @@ package com.itextpdf.io.source;
  * A RandomAccessSource that is wraps another RandomAccessSource but does not propagate close().  This is useful when
  * passing a RandomAccessSource to a method that would normally close the source.
  */
-public class IndependentRandomAccessSource implements IRandomAccessSource {
+public class IndependentRandomAccessSource implements IByteBufferRandomAccessSource {
     /**
      * The source
      */
@@ -75,6 +75,16 @@ public class IndependentRandomAccessSource implements IRandomAccessSource {
         return source.get(position, bytes, off, len);
     }
 
+    /**
+     * {@inheritDoc}
+     * Returns null if the underlying source doesn't support views.
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        if (!(source instanceof IByteBufferRandomAccessSource))
+            return null;
+        return ((IByteBufferRandomAccessSource) source).getByteBuffer(position, length);
+    }
+
     /**
      * {@inheritDoc}
      */
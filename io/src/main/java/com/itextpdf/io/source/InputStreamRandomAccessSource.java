@@ -0,0 +1,169 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.InputStream;
+
+/**
+ * A RandomAccessSource that reads an {@link InputStream} sequentially, keeping only a window of its bytes in memory.
+ * Positions are expected to move forward; a position that lies before the window can not be read.
+ * This is useful to tokenize large streams, e.g. decoded page content, without materializing them.
+ */
+public class InputStreamRandomAccessSource implements IRandomAccessSource {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The stream
+     */
+    private InputStream stream;
+
+    /**
+     * The window of the stream bytes
+     */
+    private final byte[] buffer;
+
+    /**
+     * Position of the first byte of the window in the stream
+     */
+    private long bufferStart = 0;
+
+    /**
+     * Number of valid bytes in the window
+     */
+    private int bufferLength = 0;
+
+    /**
+     * Whether the end of the stream was reached
+     */
+    private boolean eof = false;
+
+    /**
+     * Constructs a new InputStreamRandomAccessSource with the default window size
+     * @param stream the stream
+     */
+    public InputStreamRandomAccessSource(InputStream stream) {
+        this(stream, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new InputStreamRandomAccessSource
+     * @param stream the stream
+     * @param bufferSize the size of the window. A quarter of it is kept when the window moves forward,
+     *                   so short backward seeks are supported.
+     */
+    public InputStreamRandomAccessSource(InputStream stream, int bufferSize) {
+        this.stream = stream;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position) throws java.io.IOException {
+        if (!fill(position))
+            return -1;
+        return 0xff & buffer[(int) (position - bufferStart)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int get(long position, byte[] bytes, int off, int len) throws java.io.IOException {
+        int count = 0;
+        while (count < len && fill(position + count)) {
+            int bufPos = (int) (position + count - bufferStart);
+            int n = Math.min(len - count, bufferLength - bufPos);
+            System.arraycopy(buffer, bufPos, bytes, off + count, n);
+            count += n;
+        }
+        return count == 0 && len > 0 ? -1 : count;
+    }
+
+    /**
+     * Gets the length of the stream. The length is unknown until the end of the stream is reached,
+     * so {@link Long#MAX_VALUE} is returned before that.
+     */
+    public long length() {
+        return eof ? bufferStart + bufferLength : Long.MAX_VALUE;
+    }
+
+    /**
+     * Closes the underlying stream
+     */
+    public void close() throws java.io.IOException {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /**
+     * Moves the window forward until it contains the position.
+     * @return false if the position is beyond the end of the stream.
+     */
+    private boolean fill(long position) throws java.io.IOException {
+        if (position < bufferStart)
+            throw new java.io.IOException("Position " + position + " is before the buffered window of the stream");
+        while (position >= bufferStart + bufferLength) {
+            if (eof)
+                return false;
+            if (stream == null)
+                throw new IllegalStateException("Already closed");
+            if (bufferLength == buffer.length) {
+                int keep = buffer.length / 4;
+                System.arraycopy(buffer, bufferLength - keep, buffer, 0, keep);
+                bufferStart += bufferLength - keep;
+                bufferLength = keep;
+            }
+            int count = stream.read(buffer, bufferLength, buffer.length - bufferLength);
+            if (count < 0) {
+                eof = true;
+            } else {
+                bufferLength += count;
+            }
+        }
+        return true;
+    }
+}
@@ -201,6 +201,15 @@ public class PdfTokenizer implements Closeable, Serializable {
         return true;
     }
 
+    /**
+     * Appends the raw content of the current token to the given buffer without creating an intermediate array.
+     *
+     * @param buffer the buffer to append the token bytes to
+     */
+    public void appendTokenValue(ByteBuffer buffer) {
+        buffer.append(outBuf.getInternalBuffer(), 0, outBuf.size());
+    }
+
     public int getObjNr() {
         return reference;
     }
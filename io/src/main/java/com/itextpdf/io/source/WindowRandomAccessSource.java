@@ -47,7 +47,7 @@ package com.itextpdf.io.source;
  * A RandomAccessSource that wraps another RandomAccessSource and provides a window of it at a specific offset and over
  * a specific length.  Position 0 becomes the offset position in the underlying source.
  */
-public class WindowRandomAccessSource implements IRandomAccessSource {
+public class WindowRandomAccessSource implements IByteBufferRandomAccessSource {
     /**
      * The source
      */
@@ -105,6 +105,19 @@ public class WindowRandomAccessSource implements IRandomAccessSource {
         return source.get(offset + position, bytes, off, (int)toRead);
     }
 
+    /**
+     * {@inheritDoc}
+     * Note that the position will be adjusted to read from the corrected location in the underlying source.
+     * Returns null if the underlying source doesn't support views.
+     */
+    public java.nio.ByteBuffer getByteBuffer(long position, int length) throws java.io.IOException {
+        if (position >= this.length || !(source instanceof IByteBufferRandomAccessSource))
+            return null;
+
+        long toRead = Math.min(length, this.length - position);
+        return ((IByteBufferRandomAccessSource) source).getByteBuffer(offset + position, (int)toRead);
+    }
+
     /**
      * {@inheritDoc}
      * Note that the length will be adjusted to read from the corrected location in the underlying source
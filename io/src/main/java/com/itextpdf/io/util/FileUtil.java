@@ -43,6 +43,9 @@
  */
 package com.itextpdf.io.util;
 
+import com.itextpdf.io.source.DirectBufferOutputStream;
+import com.itextpdf.io.source.FileChannelOutputStream;
+
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -121,7 +124,8 @@ public final class FileUtil {
     }
 
     public static java.io.OutputStream wrapWithBufferedOutputStream(OutputStream outputStream) {
-        if (outputStream instanceof ByteArrayOutputStream || (outputStream instanceof BufferedOutputStream)) {
+        if (outputStream instanceof ByteArrayOutputStream || (outputStream instanceof BufferedOutputStream)
+                || outputStream instanceof FileChannelOutputStream || outputStream instanceof DirectBufferOutputStream) {
             return outputStream;
         } else {
             return new BufferedOutputStream(outputStream);
@@ -0,0 +1,119 @@
+package com.itextpdf.io.font;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class FontProgramCacheTest {
+
+    @Test
+    public void leastRecentlyUsedTest() throws IOException {
+        FontProgramCache cache = new FontProgramCache(2, Long.MAX_VALUE, FontProgramCache.EvictionPolicy.LEAST_RECENTLY_USED, false);
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        FontProgram courier = FontProgramFactory.createFont(FontConstants.COURIER, false);
+        FontProgram times = FontProgramFactory.createFont(FontConstants.TIMES_ROMAN, false);
+        Assert.assertSame(helvetica, cache.put("helvetica", helvetica));
+        Assert.assertSame(courier, cache.put("courier", courier));
+        Assert.assertSame(helvetica, cache.get("helvetica"));
+        Assert.assertSame(times, cache.put("times", times));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("courier"));
+        Assert.assertSame(helvetica, cache.get("helvetica"));
+        Assert.assertSame(times, cache.get("times"));
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(3, cache.getLoadCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void leastFrequentlyUsedTest() throws IOException {
+        FontProgramCache cache = new FontProgramCache(2, Long.MAX_VALUE, FontProgramCache.EvictionPolicy.LEAST_FREQUENTLY_USED, false);
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        FontProgram courier = FontProgramFactory.createFont(FontConstants.COURIER, false);
+        FontProgram times = FontProgramFactory.createFont(FontConstants.TIMES_ROMAN, false);
+        cache.put("helvetica", helvetica);
+        cache.put("courier", courier);
+        cache.get("helvetica");
+        cache.get("helvetica");
+        cache.get("courier");
+        cache.put("times", times);
+
+        Assert.assertSame(helvetica, cache.get("helvetica"));
+        Assert.assertNull(cache.get("courier"));
+        Assert.assertSame(times, cache.get("times"));
+    }
+
+    @Test
+    public void maxSizeTest() throws IOException {
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        FontProgram courier = FontProgramFactory.createFont(FontConstants.COURIER, false);
+        FontProgramCache cache = new FontProgramCache();
+        cache.put("helvetica", helvetica);
+        cache.put("courier", courier);
+        long size = cache.getSizeInBytes();
+        Assert.assertTrue(size > 0);
+
+        cache = new FontProgramCache(Integer.MAX_VALUE, size - 1, FontProgramCache.EvictionPolicy.LEAST_RECENTLY_USED, false);
+        cache.put("helvetica", helvetica);
+        cache.put("courier", courier);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertSame(courier, cache.get("courier"));
+        Assert.assertTrue(cache.getSizeInBytes() <= size - 1);
+
+        // a font larger than the whole cache is not kept
+        cache = new FontProgramCache(Integer.MAX_VALUE, 1, FontProgramCache.EvictionPolicy.LEAST_RECENTLY_USED, false);
+        Assert.assertSame(helvetica, cache.put("helvetica", helvetica));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    public void putKeepsCachedFontTest() throws IOException {
+        FontProgramCache cache = new FontProgramCache();
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        FontProgram otherHelvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        cache.put("helvetica", helvetica);
+        Assert.assertSame(helvetica, cache.put("helvetica", otherHelvetica));
+        cache.remove("helvetica");
+        Assert.assertNull(cache.get("helvetica"));
+        Assert.assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    public void weakValuesTest() throws IOException {
+        FontProgramCache cache = new FontProgramCache(Integer.MAX_VALUE, Long.MAX_VALUE, FontProgramCache.EvictionPolicy.LEAST_RECENTLY_USED, true);
+        FontProgram helvetica = FontProgramFactory.createFont(FontConstants.HELVETICA, false);
+        cache.put("helvetica", helvetica);
+        cache.put("courier", FontProgramFactory.createFont(FontConstants.COURIER, false));
+        for (int i = 0; i < 100 && cache.size() > 1; i++) {
+            System.gc();
+        }
+        Assert.assertEquals(1, cache.size());
+        Assert.assertSame(helvetica, cache.get("helvetica"));
+        Assert.assertNull(cache.get("courier"));
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void factoryUsesFontCacheTest() throws IOException {
+        FontProgramCache defaultCache = FontCache.getFontProgramCache();
+        try {
+            FontProgramCache cache = new FontProgramCache();
+            FontCache.setFontProgramCache(cache);
+            FontProgram font = FontProgramFactory.createFont(FontConstants.SYMBOL, true);
+            Assert.assertSame(font, FontProgramFactory.createFont(FontConstants.SYMBOL, true));
+            Assert.assertEquals(1, cache.getHitCount());
+            Assert.assertEquals(1, cache.getMissCount());
+            Assert.assertEquals(1, cache.getLoadCount());
+            Assert.assertTrue(cache.getTotalLoadTime() > 0);
+        } finally {
+            FontCache.setFontProgramCache(defaultCache);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.itextpdf.io.font;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class GlyphMapTest {
+
+    @Test
+    public void sameAsHashMapTest() {
+        Random random = new Random(42);
+        // dense glyph codes, Unicode values of a few ranges and arbitrary keys including negative ones
+        for (int maxKey : new int[] {300, 5000, 0x10FFFF, Integer.MAX_VALUE}) {
+            GlyphMap map = new GlyphMap();
+            Map<Integer, Glyph> expected = new HashMap<>();
+            for (int i = 0; i < 20000; i++) {
+                int key = createKey(random, maxKey);
+                switch (random.nextInt(6)) {
+                    case 0:
+                        Assert.assertEquals(expected.remove(key), map.remove(key));
+                        break;
+                    case 1:
+                        Assert.assertEquals(expected.get(key), map.get(key));
+                        Assert.assertEquals(expected.containsKey(key), map.containsKey((Object) key));
+                        break;
+                    case 2:
+                        Assert.assertEquals(expected.put(key, null), map.put(key, null));
+                        break;
+                    default:
+                        Glyph glyph = new Glyph(key, i, key);
+                        Assert.assertEquals(expected.put(key, glyph), map.put(key, glyph));
+                        break;
+                }
+                Assert.assertEquals(expected.size(), map.size());
+            }
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(map, expected);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+        }
+    }
+
+    @Test
+    public void ascendingDenseKeysTest() {
+        GlyphMap map = new GlyphMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, new Glyph(i, 500, -1));
+        }
+        map.put(0x1F600, new Glyph(1000, 500, 0x1F600));
+        map.put(-1, new Glyph(1001, 500, -1));
+        int expectedKey = 0;
+        for (Map.Entry<Integer, Glyph> entry : map.entrySet()) {
+            if (expectedKey < 1000) {
+                Assert.assertEquals(expectedKey++, (int) entry.getKey());
+            } else {
+                Assert.assertTrue(entry.getKey() == 0x1F600 || entry.getKey() == -1);
+            }
+        }
+        Assert.assertEquals(1002, map.size());
+        Assert.assertNull(map.get("1"));
+        Assert.assertNull(map.get(1000));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        GlyphMap map = new GlyphMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 1000, new Glyph(i, i, -1));
+        }
+        Iterator<Map.Entry<Integer, Glyph>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().getCode() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(50, map.size());
+        for (Map.Entry<Integer, Glyph> entry : map.entrySet()) {
+            Assert.assertEquals(1, entry.getValue().getCode() % 2);
+            entry.setValue(new Glyph(0, 0, -1));
+        }
+        for (Glyph glyph : map.values()) {
+            Assert.assertEquals(0, glyph.getCode());
+        }
+        map.put(1000, null);
+        Assert.assertEquals(50, map.size());
+        Assert.assertTrue(map.containsKey(1000));
+        Assert.assertNull(map.get(1000));
+        Assert.assertTrue(map.containsValue(null));
+        Assert.assertNull(map.remove(1000));
+        Assert.assertEquals(49, map.size());
+        Assert.assertFalse(map.containsKey(1000));
+    }
+
+    @Test
+    public void serializationTest() throws IOException, ClassNotFoundException {
+        GlyphMap map = new GlyphMap();
+        for (int i = 0; i < 300; i++) {
+            map.put(i * 7, new Glyph(i, i, i * 7));
+        }
+        map.put(-5, new Glyph(300, 300, -1));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(baos);
+        out.writeObject(map);
+        out.close();
+        GlyphMap copy = (GlyphMap) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+        Assert.assertEquals(map.size(), copy.size());
+        for (Map.Entry<Integer, Glyph> entry : map.entrySet()) {
+            Assert.assertEquals(entry.getValue().getCode(), copy.get((int) entry.getKey()).getCode());
+        }
+    }
+
+    private static int createKey(Random random, int maxKey) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(256);
+            case 1:
+                return 0x4E00 + random.nextInt(Math.min(maxKey, 0x5000));
+            case 2:
+                return maxKey == Integer.MAX_VALUE ? random.nextInt() : random.nextInt(maxKey);
+            default:
+                return random.nextInt(Math.min(maxKey, 0x3000));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class FileChannelOutputStreamTest {
+
+    @Test
+    public void mixedWritesTest() throws IOException {
+        File file = File.createTempFile("channel", ".bin");
+        try {
+            java.io.ByteArrayOutputStream expected = new java.io.ByteArrayOutputStream();
+            FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            FileChannelOutputStream output = new FileChannelOutputStream(channel, 64, true);
+            // single bytes, writes fitting into the buffer, writes flushing it and writes bypassing it
+            for (int length : new int[] {1, 10, 50, 1, 20, 63, 64, 200, 5, 1000, 31}) {
+                byte[] data = createData(length);
+                if (length == 1) {
+                    output.write(data[0]);
+                } else {
+                    output.write(data, 0, length);
+                }
+                expected.write(data, 0, length);
+            }
+            output.close();
+            Assert.assertFalse(channel.isOpen());
+            Assert.assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file.toPath()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void channelPositionTest() throws IOException {
+        File file = File.createTempFile("channel", ".bin");
+        try {
+            FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            channel.write(java.nio.ByteBuffer.wrap(new byte[] {1, 2, 3}));
+            FileChannelOutputStream output = new FileChannelOutputStream(channel, 16, false);
+            output.write(createData(100));
+            output.write(4);
+            output.close();
+            Assert.assertTrue(channel.isOpen());
+            Assert.assertEquals(104, channel.size());
+            channel.close();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void byteBufferWritesTest() throws IOException {
+        File file = File.createTempFile("channel", ".bin");
+        try {
+            byte[] data = createData(1000);
+            FileChannelOutputStream output = new FileChannelOutputStream(new RandomAccessFile(file, "rw").getChannel(), 64, true);
+            output.write(data, 0, 10);
+            output.write(java.nio.ByteBuffer.wrap(data, 10, 20));
+            java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(970);
+            direct.put(data, 30, 970).flip();
+            output.write(direct);
+            Assert.assertFalse(direct.hasRemaining());
+            output.close();
+            Assert.assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void directBufferTest() {
+        DirectBufferOutputStream output = new DirectBufferOutputStream(16);
+        byte[] data = createData(1000);
+        output.write(data, 0, 10);
+        output.write(data[10]);
+        output.write(data, 11, 989);
+        Assert.assertEquals(1000, output.size());
+        Assert.assertArrayEquals(data, output.toByteArray());
+        java.nio.ByteBuffer buffer = output.getBuffer();
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertTrue(buffer.isReadOnly());
+        Assert.assertEquals(1000, buffer.remaining());
+        output.reset();
+        Assert.assertEquals(0, output.size());
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + length);
+        }
+        return data;
+    }
+}
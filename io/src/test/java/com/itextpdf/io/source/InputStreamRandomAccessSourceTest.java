@@ -0,0 +1,62 @@
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class InputStreamRandomAccessSourceTest {
+
+    @Test
+    public void sequentialReadTest() throws IOException {
+        byte[] data = createData(1000);
+        InputStreamRandomAccessSource source = new InputStreamRandomAccessSource(new ByteArrayInputStream(data), 64);
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(data[i] & 0xff, source.get(i));
+        }
+        Assert.assertEquals(-1, source.get(data.length));
+        Assert.assertEquals(data.length, source.length());
+        source.close();
+    }
+
+    @Test
+    public void bulkReadTest() throws IOException {
+        byte[] data = createData(1000);
+        InputStreamRandomAccessSource source = new InputStreamRandomAccessSource(new ByteArrayInputStream(data), 64);
+        byte[] read = new byte[data.length];
+        Assert.assertEquals(300, source.get(0, read, 0, 300));
+        Assert.assertEquals(700, source.get(300, read, 300, 1000));
+        Assert.assertArrayEquals(data, read);
+        Assert.assertEquals(-1, source.get(data.length, read, 0, 10));
+    }
+
+    @Test
+    public void shortBackwardSeekTest() throws IOException {
+        byte[] data = createData(1000);
+        RandomAccessFileOrArray file = new RandomAccessFileOrArray(new InputStreamRandomAccessSource(new ByteArrayInputStream(data), 64));
+        file.seek(500);
+        Assert.assertEquals(data[500] & 0xff, file.read());
+        file.seek(490);
+        Assert.assertEquals(data[490] & 0xff, file.read());
+    }
+
+    @Test(expected = IOException.class)
+    public void longBackwardSeekTest() throws IOException {
+        byte[] data = createData(1000);
+        InputStreamRandomAccessSource source = new InputStreamRandomAccessSource(new ByteArrayInputStream(data), 64);
+        source.get(500);
+        source.get(10);
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+}
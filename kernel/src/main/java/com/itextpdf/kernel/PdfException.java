@@ -101,6 +101,7 @@ public class PdfException extends RuntimeException {
     public static final String CodabarStartStopCharacterAreOnlyExtremes = "in.codabar.start.stop.characters.are.only.allowed.at.the.extremes";
     public static final String ColorNotFound = "color.not.found";
     public static final String ContentStreamMustNotInvokeOperatorsThatSpecifyColorsOrOtherColorRelatedParameters = "content.stream.must.not.invoke.operators.that.specify.colors.or.other.color.related.parameters.in.the.graphics.state";
+    public static final String CopyOfObjectHasAlreadyBeenFlushed = "copy.of.object.has.already.been.flushed";
     public static final String DecodeParameterType1IsNotSupported = "decode.parameter.type {0} is.not.supported";
     public static final String DefaultcryptfilterNotFoundEncryption = "defaultcryptfilter.not.found.encryption";
     public static final String DictionaryKey1IsNotAName = "dictionary.key {0} is.not.a.name";
@@ -110,6 +111,7 @@ public class PdfException extends RuntimeException {
     public static final String DocumentDoesntContainStructTreeRoot = "document.doesn't.contain.structtreeroot";
     public static final String DocumentHasNoPages = "document.has.no.pages";
     public static final String DocumentHasNoCatalogObject = "document.has.no.catalog.object";
+    public static final String DocumentMustBeOpenedWithConcurrentReading = "document.must.be.opened.with.concurrent.reading";
     public static final String DocumentMustBePreclosed = "document.must.be.preclosed";
     public static final String DocumentToCopyToCannotBeNull = "document.to.copy.to.cannot.be.null";
     public static final String ElementCannotFitAnyArea = "element.cannot.fit.any.area";
@@ -0,0 +1,417 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfStream;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps the embedded font subsets, so that documents using the same font with the same glyphs, for example
+ * documents created from the same template, don't subset and compress the font program over and over again.
+ * A subset is identified by the font program instance, the type of the PDF font, the set of glyphs and
+ * the compression level of the document. The cached subset keeps the compressed content of the font file
+ * and, for composite fonts, the glyph widths array.
+ * <p/>
+ * Font programs are referenced weakly, the subsets of a font program are dropped once the font program
+ * is not used anymore. Since the font program instance is a part of the key, subsets are reused only if
+ * the font programs are shared by the documents, which is the case for the fonts cached by
+ * {@link com.itextpdf.io.font.FontCache}.
+ * <p/>
+ * The number of cached subsets and their total size are bounded, the least recently used subsets are dropped first.
+ * The cache is thread safe and is meant to be shared by several documents,
+ * see {@link com.itextpdf.kernel.pdf.WriterProperties#useFontSubsetCache(FontSubsetCache)}.
+ */
+public class FontSubsetCache {
+
+    private static final long SUBSET_SIZE = 128;
+
+    private final int maxEntries;
+    private final long maxSize;
+
+    private final LinkedHashMap<SubsetKey, FontSubset> subsets = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<FontProgram> collectedFonts = new ReferenceQueue<>();
+    private long size;
+
+    private long hitCount;
+    private long missCount;
+    private long buildCount;
+    private long totalBuildTime;
+    private long evictionCount;
+
+    /**
+     * Creates a cache bounded by the total size of the cached subsets.
+     *
+     * @param maxSize the maximum approximate size of the cached subsets in bytes
+     */
+    public FontSubsetCache(long maxSize) {
+        this(Integer.MAX_VALUE, maxSize);
+    }
+
+    /**
+     * Creates a bounded cache.
+     *
+     * @param maxEntries the maximum number of cached subsets
+     * @param maxSize    the maximum approximate size of the cached subsets in bytes
+     */
+    public FontSubsetCache(int maxEntries, long maxSize) {
+        if (maxEntries < 1 || maxSize < 1) {
+            throw new IllegalArgumentException("The maximum number and size of cached font subsets must be greater than zero");
+        }
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Removes all subsets from the cache. The statistics are kept.
+     */
+    public synchronized void clear() {
+        subsets.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the number of cached subsets.
+     *
+     * @return the number of cached subsets
+     */
+    public synchronized int size() {
+        removeCollectedFonts();
+        return subsets.size();
+    }
+
+    /**
+     * Gets the approximate size of the cached subsets in bytes.
+     *
+     * @return the approximate size of the cached subsets, which is mostly the size of the compressed font files
+     */
+    public synchronized long getSizeInBytes() {
+        removeCollectedFonts();
+        return size;
+    }
+
+    /**
+     * Gets the number of times a font file was taken from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of times a font file was not found in the cache and had to be built.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of subsets which have been built and passed to the cache.
+     *
+     * @return the number of built subsets
+     */
+    public synchronized long getBuildCount() {
+        return buildCount;
+    }
+
+    /**
+     * Gets the total time spent on subsetting and compressing the font files passed to the cache.
+     *
+     * @return the total build time in nanoseconds
+     */
+    public synchronized long getTotalBuildTime() {
+        return totalBuildTime;
+    }
+
+    /**
+     * Gets the number of subsets dropped because one of the limits was exceeded, or because
+     * their font programs were not used anymore.
+     *
+     * @return the number of evicted subsets
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the maximum number of cached subsets.
+     *
+     * @return the limit of the number of subsets set in the constructor, {@link Integer#MAX_VALUE} if only the size
+     * of the cached subsets is bounded
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the maximum approximate size of the cached subsets.
+     *
+     * @return the limit of the total size of the cached subsets in bytes, set in the constructor
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    synchronized FontSubset get(SubsetKey key) {
+        removeCollectedFonts();
+        FontSubset subset = subsets.get(key);
+        if (subset == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return subset;
+    }
+
+    /**
+     * Adds the subset to the cache, unless an equal subset has been cached in the meantime.
+     * A subset which alone is larger than the maximum size is not cached.
+     *
+     * @return the subset which is cached with the given key, that is the given one or the one cached before
+     */
+    synchronized FontSubset put(SubsetKey key, FontSubset subset, long buildTime) {
+        removeCollectedFonts();
+        buildCount++;
+        totalBuildTime += buildTime;
+        FontSubset cachedSubset = subsets.get(key);
+        if (cachedSubset != null) {
+            return cachedSubset;
+        }
+        FontProgram font = key.font.get();
+        if (subset.size > maxSize || font == null) {
+            return subset;
+        }
+        subsets.put(new SubsetKey(key, new FontReference(font, collectedFonts)), subset);
+        size += subset.size;
+        Iterator<FontSubset> iterator = subsets.values().iterator();
+        // subsets are iterated from the least recently used one
+        while (subsets.size() > maxEntries || size > maxSize) {
+            FontSubset evicted = iterator.next();
+            iterator.remove();
+            size -= evicted.size;
+            evictionCount++;
+        }
+        return subset;
+    }
+
+    private void removeCollectedFonts() {
+        FontReference collected;
+        while ((collected = (FontReference) collectedFonts.poll()) != null) {
+            FontSubset subset = subsets.remove(collected.key);
+            if (subset != null) {
+                size -= subset.size;
+                evictionCount++;
+            }
+        }
+    }
+
+    /**
+     * Identifies a font subset. The font program is compared by identity.
+     */
+    static class SubsetKey {
+        private final WeakReference<FontProgram> font;
+        private final PdfName fontType;
+        private final int[] glyphs;
+        private final boolean subset;
+        private final int compressionLevel;
+        private final int hash;
+
+        /**
+         * @param font             the font program
+         * @param fontType         the subtype of the PDF font
+         * @param glyphs           the codes of the glyphs to be included in the subset
+         * @param subset           whether the TrueType font subset contains only the tables required for embedding
+         * @param compressionLevel the compression level of the font file
+         */
+        SubsetKey(FontProgram font, PdfName fontType, Collection<Integer> glyphs, boolean subset, int compressionLevel) {
+            this.font = new WeakReference<>(font);
+            this.fontType = fontType;
+            this.glyphs = new int[glyphs.size()];
+            int i = 0;
+            for (int glyph : glyphs) {
+                this.glyphs[i++] = glyph;
+            }
+            Arrays.sort(this.glyphs);
+            this.subset = subset;
+            this.compressionLevel = compressionLevel;
+            int result = System.identityHashCode(font);
+            result = 31 * result + fontType.hashCode();
+            result = 31 * result + Arrays.hashCode(this.glyphs);
+            result = 31 * result + (subset ? 1 : 0);
+            this.hash = 31 * result + compressionLevel;
+        }
+
+        /**
+         * Creates the key of the cached subset, which is dropped once the font program is collected.
+         */
+        private SubsetKey(SubsetKey key, FontReference font) {
+            this.font = font;
+            this.fontType = key.fontType;
+            this.glyphs = key.glyphs;
+            this.subset = key.subset;
+            this.compressionLevel = key.compressionLevel;
+            this.hash = key.hash;
+            font.key = this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubsetKey)) {
+                return false;
+            }
+            SubsetKey other = (SubsetKey) o;
+            FontProgram fontProgram = font.get();
+            return hash == other.hash && fontProgram != null && fontProgram == other.font.get()
+                    && subset == other.subset && compressionLevel == other.compressionLevel
+                    && fontType.equals(other.fontType) && Arrays.equals(glyphs, other.glyphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The cached font file and widths of a font subset. Immutable, so it can be used by several documents at once.
+     */
+    static class FontSubset {
+        private final byte[] fontFile;
+        private final boolean compressed;
+        private final int length1;
+        private final PdfName subtype;
+        private final String widths;
+        private final long size;
+
+        private FontSubset(byte[] fontFile, boolean compressed, int length1, PdfName subtype, String widths) {
+            this.fontFile = fontFile;
+            this.compressed = compressed;
+            this.length1 = length1;
+            this.subtype = subtype;
+            this.widths = widths;
+            this.size = SUBSET_SIZE + fontFile.length + (widths != null ? 2 * widths.length() : 0);
+        }
+
+        /**
+         * Compresses the content of the newly created font file stream with the compression level of the document.
+         *
+         * @param fontStream       the font file stream, which content has not been compressed yet
+         * @param compressionLevel the compression level of the document
+         * @param widths           the content of the W array of the composite font, or {@code null}
+         * @return the subset to be cached
+         */
+        static FontSubset create(PdfStream fontStream, int compressionLevel, String widths) {
+            ByteArrayOutputStream content = (ByteArrayOutputStream) fontStream.getOutputStream().getOutputStream();
+            boolean compressed = compressionLevel != CompressionConstants.NO_COMPRESSION;
+            byte[] fontFile;
+            if (compressed) {
+                try {
+                    ByteArrayOutputStream compressedContent = new ByteArrayOutputStream(content.size() / 2);
+                    DeflaterOutputStream zip = new DeflaterOutputStream(compressedContent, compressionLevel, 0x8000);
+                    content.writeTo(zip);
+                    zip.finish();
+                    fontFile = compressedContent.toByteArray();
+                } catch (IOException e) {
+                    throw new PdfException(PdfException.IoException, e);
+                }
+            } else {
+                fontFile = content.toByteArray();
+            }
+            return new FontSubset(fontFile, compressed, content.size(), fontStream.getAsName(PdfName.Subtype), widths);
+        }
+
+        /**
+         * Creates the font file stream of a document. The content of the stream is already compressed,
+         * so it isn't compressed once again when the stream is written.
+         *
+         * @return the font file stream
+         */
+        PdfStream createFontStream() {
+            PdfStream fontStream = new PdfStream(fontFile);
+            if (compressed) {
+                fontStream.put(PdfName.Filter, PdfName.FlateDecode);
+            }
+            fontStream.put(new PdfName("Length1"), new PdfNumber(length1));
+            if (subtype != null) {
+                fontStream.put(PdfName.Subtype, subtype);
+            }
+            return fontStream;
+        }
+
+        String getWidths() {
+            return widths;
+        }
+    }
+
+    /**
+     * Weak reference to the font program of a cached subset, which allows to drop the subset once the font
+     * program is collected.
+     */
+    private static class FontReference extends WeakReference<FontProgram> {
+        SubsetKey key;
+
+        FontReference(FontProgram font, ReferenceQueue<FontProgram> queue) {
+            super(font, queue);
+        }
+    }
+}
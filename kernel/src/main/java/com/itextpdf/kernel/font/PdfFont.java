@@ -46,6 +46,7 @@ package com.itextpdf.kernel.font;
 import com.itextpdf.io.font.FontConstants;
 import com.itextpdf.io.font.FontEncoding;
 import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.TrueTypeFont;
 import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.io.font.otf.GlyphLine;
 import com.itextpdf.io.util.TextUtil;
@@ -53,9 +54,11 @@ import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
@@ -395,8 +398,24 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         super.flush();
     }
 
+    /**
+     * Creates in advance the embedded font file, which takes most of the time to flush the font,
+     * for example the subset of the font program. {@link PdfDocument} calls this method on close before
+     * flushing the fonts, for several fonts in parallel if
+     * {@link WriterProperties#useParallelCompression(int)} is used, so implementations must not modify the document.
+     * Does nothing by default.
+     */
+    public void prepareFontFile() {
+    }
+
     protected abstract PdfDictionary getFontDescriptor(String fontName);
 
+    private PdfWriter getWriter() {
+        PdfIndirectReference reference = getPdfObject().getIndirectReference();
+        PdfDocument document = reference != null ? reference.getDocument() : null;
+        return document != null ? document.getWriter() : null;
+    }
+
     @Override
     protected boolean isWrappedObjectMustBeIndirect() {
         return true;
@@ -453,6 +472,58 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         return fontStream;
     }
 
+    /**
+     * Creates {@code PdfStream} containing the subset of the TrueType font. The subset is written
+     * to the stream directly, without creating it in memory first.
+     *
+     * @param fontProgram the font to be subset.
+     * @param glyphs the glyphs to be included in the subset.
+     * @param subset {@code true} if only the tables required for embedding are to be included.
+     * @return the PdfStream containing the font subset.
+     */
+    protected PdfStream getPdfFontSubsetStream(TrueTypeFont fontProgram, Set<Integer> glyphs, boolean subset) {
+        PdfStream fontStream = new PdfStream();
+        fontProgram.writeSubset(glyphs, subset, fontStream.getOutputStream());
+        fontStream.put(new PdfName("Length1"), new PdfNumber((int) fontStream.getOutputStream().getCurrentPos()));
+        return fontStream;
+    }
+
+    /**
+     * Creates the key of the font subset in the font subset cache of the document,
+     * see {@link WriterProperties#useFontSubsetCache(FontSubsetCache)}.
+     *
+     * @param fontType the subtype of the font
+     * @param glyphs   the glyphs to be included in the subset
+     * @param subset   {@code true} if only the tables required for embedding are to be included
+     * @return the key of the subset or {@code null} if font subsets are not cached
+     */
+    FontSubsetCache.SubsetKey createFontSubsetKey(PdfName fontType, Collection<Integer> glyphs, boolean subset) {
+        PdfWriter writer = getWriter();
+        if (writer == null || writer.getFontSubsetCache() == null) {
+            return null;
+        }
+        return new FontSubsetCache.SubsetKey(getFontProgram(), fontType, glyphs, subset, writer.getCompressionLevel());
+    }
+
+    FontSubsetCache.FontSubset getCachedFontSubset(FontSubsetCache.SubsetKey key) {
+        return getWriter().getFontSubsetCache().get(key);
+    }
+
+    /**
+     * Compresses the newly created font file and adds it to the font subset cache of the document.
+     *
+     * @param key       the key of the subset
+     * @param fontFile  the font file stream, which content has not been compressed yet
+     * @param widths    the content of the W array of the composite font, or {@code null}
+     * @param startTime the value of {@link System#nanoTime()} before the font file was created
+     * @return the cached subset
+     */
+    FontSubsetCache.FontSubset cacheFontSubset(FontSubsetCache.SubsetKey key, PdfStream fontFile, String widths, long startTime) {
+        PdfWriter writer = getWriter();
+        FontSubsetCache.FontSubset fontSubset = FontSubsetCache.FontSubset.create(fontFile, writer.getCompressionLevel(), widths);
+        return writer.getFontSubsetCache().put(key, fontSubset, System.nanoTime() - startTime);
+    }
+
     protected static int[] compactRanges(List<int[]> ranges) {
         List<int[]> simp = new ArrayList<>();
         for (int[] range : ranges) {
@@ -69,6 +69,10 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
 
     private static final long serialVersionUID = -8152778382960290571L;
 
+    // the font file created in advance by prepareFontFile()
+    private PdfStream fontFileStream;
+    private boolean fontFilePrepared;
+
 	PdfTrueTypeFont(TrueTypeFont ttf, String encoding, boolean embedded) {
         super();
         setFontProgram(ttf);
@@ -163,6 +167,15 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
         }
     }
 
+    @Override
+    public void prepareFontFile() {
+        if (newFont && embedded && !(fontProgram instanceof IDocFontProgram) && !fontFilePrepared
+                && !getPdfObject().isFlushed()) {
+            fontFileStream = createFontFileStream();
+            fontFilePrepared = true;
+        }
+    }
+
     @Override
     protected void addFontStream(PdfDictionary fontDescriptor) {
         if (embedded) {
@@ -171,48 +184,65 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
             if (fontProgram instanceof IDocFontProgram) {
                 fontFileName = ((IDocFontProgram) fontProgram).getFontFileName();
                 fontStream = ((IDocFontProgram) fontProgram).getFontFile();
-            } else if (getFontProgram().isCff()) {
-                fontFileName = PdfName.FontFile3;
-                try {
-                    byte[] fontStreamBytes = getFontProgram().getFontStreamBytes();
-                    fontStream = getPdfFontStream(fontStreamBytes, new int[]{fontStreamBytes.length});
-                    fontStream.put(PdfName.Subtype, new PdfName("Type1C"));
-                } catch (PdfException e) {
-                    Logger logger = LoggerFactory.getLogger(PdfTrueTypeFont.class);
-                    logger.error(e.getMessage());
-                    fontStream = null;
-                }
             } else {
-                fontFileName = PdfName.FontFile2;
-                Set<Integer> glyphs = new HashSet<>();
-                for (int k = 0; k < shortTag.length; k++) {
-                    if (shortTag[k] != 0) {
-                        int uni = fontEncoding.getUnicode(k);
-                        Glyph glyph = uni > -1 ? fontProgram.getGlyph(uni) : fontProgram.getGlyphByCode(k);
-                        if (glyph != null) {
-                            glyphs.add(glyph.getCode());
-                        }
+                fontFileName = getFontProgram().isCff() ? PdfName.FontFile3 : PdfName.FontFile2;
+                fontStream = fontFilePrepared ? fontFileStream : createFontFileStream();
+                fontFileStream = null;
+            }
+            if (fontStream != null) {
+                fontDescriptor.put(fontFileName, fontStream);
+            }
+        }
+    }
+
+    private PdfStream createFontFileStream() {
+        PdfStream fontStream;
+        if (getFontProgram().isCff()) {
+            try {
+                byte[] fontStreamBytes = getFontProgram().getFontStreamBytes();
+                fontStream = getPdfFontStream(fontStreamBytes, new int[]{fontStreamBytes.length});
+                fontStream.put(PdfName.Subtype, new PdfName("Type1C"));
+            } catch (PdfException e) {
+                Logger logger = LoggerFactory.getLogger(PdfTrueTypeFont.class);
+                logger.error(e.getMessage());
+                fontStream = null;
+            }
+        } else {
+            Set<Integer> glyphs = new HashSet<>();
+            for (int k = 0; k < shortTag.length; k++) {
+                if (shortTag[k] != 0) {
+                    int uni = fontEncoding.getUnicode(k);
+                    Glyph glyph = uni > -1 ? fontProgram.getGlyph(uni) : fontProgram.getGlyphByCode(k);
+                    if (glyph != null) {
+                        glyphs.add(glyph.getCode());
                     }
                 }
-                addRangeUni(glyphs);
-                try {
-                    byte[] fontStreamBytes;
-                    if (subset || getFontProgram().getDirectoryOffset() != 0 || subsetRanges != null) {
-                        //clone glyphs due to possible cache issue
-                        fontStreamBytes = getFontProgram().getSubset(new HashSet<>(glyphs), subset);
+            }
+            addRangeUni(glyphs);
+            try {
+                if (subset || getFontProgram().getDirectoryOffset() != 0 || subsetRanges != null) {
+                    FontSubsetCache.SubsetKey key = createFontSubsetKey(PdfName.TrueType, glyphs, subset);
+                    FontSubsetCache.FontSubset fontSubset = key != null ? getCachedFontSubset(key) : null;
+                    if (fontSubset != null) {
+                        fontStream = fontSubset.createFontStream();
                     } else {
-                        fontStreamBytes = getFontProgram().getFontStreamBytes();
+                        long startTime = System.nanoTime();
+                        //clone glyphs due to possible cache issue
+                        fontStream = getPdfFontSubsetStream(getFontProgram(), new HashSet<>(glyphs), subset);
+                        if (key != null) {
+                            fontStream = cacheFontSubset(key, fontStream, null, startTime).createFontStream();
+                        }
                     }
+                } else {
+                    byte[] fontStreamBytes = getFontProgram().getFontStreamBytes();
                     fontStream = getPdfFontStream(fontStreamBytes, new int[]{fontStreamBytes.length});
-                } catch (PdfException e) {
-                    Logger logger = LoggerFactory.getLogger(PdfTrueTypeFont.class);
-                    logger.error(e.getMessage());
-                    fontStream = null;
                 }
-            }
-            if (fontStream != null) {
-                fontDescriptor.put(fontFileName, fontStream);
+            } catch (PdfException e) {
+                Logger logger = LoggerFactory.getLogger(PdfTrueTypeFont.class);
+                logger.error(e.getMessage());
+                fontStream = null;
             }
         }
+        return fontStream;
     }
 }
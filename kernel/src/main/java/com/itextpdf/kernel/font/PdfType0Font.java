@@ -98,6 +98,11 @@ public class PdfType0Font extends PdfFont {
     protected int cidFontType;
     protected char[] specificUnicodeDifferences;
 
+    // the font file created in advance by prepareFontFile()
+    private PdfStream fontFileStream;
+    // the font file and the widths taken from the font subset cache
+    private FontSubsetCache.FontSubset cachedFontSubset;
+
     PdfType0Font(TrueTypeFont ttf, String cmap) {
         super();
         if (!cmap.equals(PdfEncodings.IDENTITY_H) && !cmap.equals(PdfEncodings.IDENTITY_V)) {
@@ -436,6 +441,15 @@ public class PdfType0Font extends PdfFont {
         super.flush();
     }
 
+    @Override
+    public void prepareFontFile() {
+        if (newFont && cidFontType == CID_FONT_TYPE_2 && fontFileStream == null && !getPdfObject().isFlushed()) {
+            TrueTypeFont ttf = (TrueTypeFont) getFontProgram();
+            addRangeUni(ttf, longTag, true);
+            fontFileStream = createFontFileStream(ttf);
+        }
+    }
+
     private void flushFontData() {
         if (cidFontType == CID_FONT_TYPE_0) {
             getPdfObject().put(PdfName.Type, PdfName.Font);
@@ -465,26 +479,14 @@ public class PdfType0Font extends PdfFont {
                 fontName = createSubsetPrefix() + fontName;
             }
             PdfDictionary fontDescriptor = getFontDescriptor(fontName);
+            fontStream = fontFileStream != null ? fontFileStream : createFontFileStream(ttf);
+            fontFileStream = null;
             if (ttf.isCff()) {
-                byte[] cffBytes = ttf.getFontStreamBytes();
-                if (subset || subsetRanges != null) {
-                    CFFFontSubset cff = new CFFFontSubset(ttf.getFontStreamBytes(), longTag);
-                    cffBytes = cff.Process(cff.getNames()[0]);
-                }
-                fontStream = getPdfFontStream(cffBytes, new int[]{cffBytes.length});
-                fontStream.put(PdfName.Subtype, new PdfName("CIDFontType0C"));
                 // The PDF Reference manual advises to add -cmap in case CIDFontType0
                 getPdfObject().put(PdfName.BaseFont,
                         new PdfName(MessageFormat.format("{0}-{1}", fontName, cmapEncoding.getCmapName())));
                 fontDescriptor.put(PdfName.FontFile3, fontStream);
             } else {
-                byte[] ttfBytes;
-                if (subset || ttf.getDirectoryOffset() != 0) {
-                    ttfBytes = ttf.getSubset(new LinkedHashSet<>(longTag.keySet()), true);
-                } else {
-                    ttfBytes = ttf.getFontStreamBytes();
-                }
-                fontStream = getPdfFontStream(ttfBytes, new int[]{ttfBytes.length});
                 getPdfObject().put(PdfName.BaseFont, new PdfName(fontName));
                 fontDescriptor.put(PdfName.FontFile2, fontStream);
             }
@@ -501,6 +503,7 @@ public class PdfType0Font extends PdfFont {
             }
             fontDescriptor.put(PdfName.CIDSet, new PdfStream(cidSetBytes));
             PdfDictionary cidFont = getCidFontType2(ttf, fontDescriptor, fontName, metrics);
+            cachedFontSubset = null;
 
             getPdfObject().put(PdfName.Type, PdfName.Font);
             getPdfObject().put(PdfName.Subtype, PdfName.Type0);
@@ -520,6 +523,46 @@ public class PdfType0Font extends PdfFont {
     }
 
 
+    private PdfStream createFontFileStream(TrueTypeFont ttf) {
+        boolean subsetFont = ttf.isCff() ? subset || subsetRanges != null : subset || ttf.getDirectoryOffset() != 0;
+        FontSubsetCache.SubsetKey key = subsetFont ? createFontSubsetKey(PdfName.Type0, longTag.keySet(), true) : null;
+        if (key == null) {
+            return buildFontFileStream(ttf);
+        }
+        cachedFontSubset = getCachedFontSubset(key);
+        if (cachedFontSubset == null) {
+            long startTime = System.nanoTime();
+            PdfStream fontStream = buildFontFileStream(ttf);
+            String widths = null;
+            if (!vertical) {
+                int[][] metrics = longTag.values().toArray(new int[0][]);
+                Arrays.sort(metrics, new MetricComparator());
+                widths = createWidthsArray(metrics);
+            }
+            cachedFontSubset = cacheFontSubset(key, fontStream, widths, startTime);
+        }
+        return cachedFontSubset.createFontStream();
+    }
+
+    private PdfStream buildFontFileStream(TrueTypeFont ttf) {
+        PdfStream fontStream;
+        if (ttf.isCff()) {
+            byte[] cffBytes = ttf.getFontStreamBytes();
+            if (subset || subsetRanges != null) {
+                CFFFontSubset cff = new CFFFontSubset(ttf.getFontStreamBytes(), longTag);
+                cffBytes = cff.Process(cff.getNames()[0]);
+            }
+            fontStream = getPdfFontStream(cffBytes, new int[]{cffBytes.length});
+            fontStream.put(PdfName.Subtype, new PdfName("CIDFontType0C"));
+        } else if (subset || ttf.getDirectoryOffset() != 0) {
+            fontStream = getPdfFontSubsetStream(ttf, new LinkedHashSet<>(longTag.keySet()), true);
+        } else {
+            byte[] ttfBytes = ttf.getFontStreamBytes();
+            fontStream = getPdfFontStream(ttfBytes, new int[]{ttfBytes.length});
+        }
+        return fontStream;
+    }
+
     /**
      * Generates the CIDFontTyte2 dictionary.
      *
@@ -548,28 +591,9 @@ public class PdfType0Font extends PdfFont {
         cidFont.put(PdfName.CIDSystemInfo, cidInfo);
         if (!vertical) {
             cidFont.put(PdfName.DW, new PdfNumber(FontProgram.DEFAULT_WIDTH));
-            StringBuilder buf = new StringBuilder("[");
-            int lastNumber = -10;
-            boolean firstTime = true;
-            for (int[] metric : metrics) {
-                Glyph glyph = fontProgram.getGlyphByCode(metric[0]);
-                if (glyph.getWidth() == FontProgram.DEFAULT_WIDTH) {
-                    continue;
-                }
-                if (glyph.getCode() == lastNumber + 1) {
-                    buf.append(' ').append(glyph.getWidth());
-                } else {
-                    if (!firstTime) {
-                        buf.append(']');
-                    }
-                    firstTime = false;
-                    buf.append(glyph.getCode()).append('[').append(glyph.getWidth());
-                }
-                lastNumber = glyph.getCode();
-            }
-            if (buf.length() > 1) {
-                buf.append("]]");
-                cidFont.put(PdfName.W, new PdfLiteral(buf.toString()));
+            String widths = cachedFontSubset != null ? cachedFontSubset.getWidths() : createWidthsArray(metrics);
+            if (widths != null) {
+                cidFont.put(PdfName.W, new PdfLiteral(widths));
             }
         } else {
             throw new UnsupportedOperationException("Vertical writing has not implemented yet.");
@@ -577,6 +601,39 @@ public class PdfType0Font extends PdfFont {
         return cidFont;
     }
 
+    /**
+     * Creates the content of the W array, which defines the widths of the glyphs with non-default width.
+     *
+     * @param metrics the sorted metrics of the used glyphs
+     * @return the W array or {@code null} if all glyphs have the default width
+     */
+    private String createWidthsArray(int[][] metrics) {
+        StringBuilder buf = new StringBuilder("[");
+        int lastNumber = -10;
+        boolean firstTime = true;
+        for (int[] metric : metrics) {
+            Glyph glyph = fontProgram.getGlyphByCode(metric[0]);
+            if (glyph.getWidth() == FontProgram.DEFAULT_WIDTH) {
+                continue;
+            }
+            if (glyph.getCode() == lastNumber + 1) {
+                buf.append(' ').append(glyph.getWidth());
+            } else {
+                if (!firstTime) {
+                    buf.append(']');
+                }
+                firstTime = false;
+                buf.append(glyph.getCode()).append('[').append(glyph.getWidth());
+            }
+            lastNumber = glyph.getCode();
+        }
+        if (buf.length() > 1) {
+            buf.append("]]");
+            return buf.toString();
+        }
+        return null;
+    }
+
     /**
      * Creates a ToUnicode CMap to allow copy and paste from Acrobat.
      *
@@ -58,7 +58,7 @@ import java.util.*;
 public class PdfDictionary extends PdfObject {
 
     private static final long serialVersionUID = -1122075818690871644L;
-    private Map<PdfName, PdfObject> map = new TreeMap<>();
+    private Map<PdfName, PdfObject> map = new PdfNameMap();
 
     /**
      * Creates a new PdfDictionary instance.
@@ -398,7 +398,7 @@ public class PdfDictionary extends PdfObject {
      * @return a Set of Map.Entry objects
      */
     public Set<Map.Entry<PdfName, PdfObject>> directEntrySet() {
-        Map<PdfName, PdfObject> directMap = new TreeMap<>();
+        Map<PdfName, PdfObject> directMap = new PdfNameMap();
         for(Map.Entry<PdfName, PdfObject> entry : map.entrySet()) {
             PdfObject value = entry.getValue();
             if (value.isIndirectReference()) {
@@ -439,7 +439,7 @@ public class PdfDictionary extends PdfObject {
      * @throws PdfException
      */
     public PdfDictionary clone(List<PdfName> excludeKeys) {
-        Map<PdfName, PdfObject> excluded = new TreeMap<>();
+        Map<PdfName, PdfObject> excluded = new PdfNameMap();
         for (PdfName key : excludeKeys) {
             PdfObject obj = map.get(key);
             if (obj != null)
@@ -514,7 +514,7 @@ public class PdfDictionary extends PdfObject {
      * @throws PdfException
      */
     public PdfDictionary copyTo(PdfDocument document, List<PdfName> excludeKeys, boolean allowDuplicating) {
-        Map<PdfName, PdfObject> excluded = new TreeMap<>();
+        Map<PdfName, PdfObject> excluded = new PdfNameMap();
         for (PdfName key : excludeKeys) {
             PdfObject obj = map.get(key);
             if (obj != null)
@@ -560,10 +560,21 @@ public class PdfDictionary extends PdfObject {
 
     @Override
     protected void copyContent(PdfObject from, PdfDocument document) {
+        copyContent(from, document, null);
+    }
+
+    /**
+     * Copies the entries of the dictionary except the excluded one, the source dictionary is not changed.
+     *
+     * @param excludedKey the key of the entry which is not copied, or null to copy all the entries
+     */
+    void copyContent(PdfObject from, PdfDocument document, PdfName excludedKey) {
         super.copyContent(from, document);
         PdfDictionary dictionary = (PdfDictionary) from;
         for (Map.Entry<PdfName, PdfObject> entry : dictionary.entrySet()) {
-            map.put(entry.getKey(), entry.getValue().processCopying(document, false));
+            if (!entry.getKey().equals(excludedKey)) {
+                map.put(entry.getKey(), entry.getValue().processCopying(document, false));
+            }
         }
     }
 
@@ -45,7 +45,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
-import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.Version;
 import com.itextpdf.kernel.crypto.BadPasswordException;
@@ -150,7 +150,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     /**
      * List of indirect objects used in the document.
      */
-    final PdfXrefTable xref = new PdfXrefTable();
+    final PdfXrefTable xref = new PdfXrefTable(this);
 
     protected final StampingProperties properties;
 
@@ -734,6 +734,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
 
                 }
+                writer.finishParallelCompression();
                 byte[] originalFileID = null;
                 if (crypto == null && writer.crypto != null) {
                     originalFileID = writer.crypto.getDocumentId();
@@ -1353,13 +1354,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
             }
             if (properties.appendMode) {       // Due to constructor reader and writer not null.
                 assert reader != null;
-                RandomAccessFileOrArray file = reader.tokens.getSafeFile();
-                int n;
-                byte[] buffer = new byte[8192];
-                while ((n = file.read(buffer)) > 0) {
-                    writer.write(buffer, 0, n);
-                }
-                file.close();
+                IRandomAccessSource source = reader.tokens.getSafeFile().createSourceView();
+                writer.writeSource(source);
+                source.close();
                 writer.write((byte) '\n');
                 //TODO log if full compression differs
                 writer.properties.isFullCompression = reader.hasXrefStm();
@@ -1464,17 +1461,13 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     }
 
     protected void flushFonts() {
-        if (properties.appendMode) {
-            for (PdfFont font : getDocumentFonts()) {
-                if (font.getPdfObject().getIndirectReference().checkState(PdfObject.MODIFIED)) {
-                    font.flush();
-                }
-            }
-        } else {
-            for (PdfFont font : getDocumentFonts()) {
-                font.flush();
+        List<PdfFont> fonts = new ArrayList<>(getDocumentFonts().size());
+        for (PdfFont font : getDocumentFonts()) {
+            if (!properties.appendMode || font.getPdfObject().getIndirectReference().checkState(PdfObject.MODIFIED)) {
+                fonts.add(font);
             }
         }
+        writer.flushFonts(fonts);
     }
 
     protected void checkAndAddPage(int index, PdfPage page) {
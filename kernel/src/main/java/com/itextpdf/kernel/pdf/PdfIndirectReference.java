@@ -125,6 +125,12 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
         if (!recursively) {
             if (refersTo == null && !checkState(FLUSHED) && !checkState(MODIFIED) && getReader() != null) {
                 refersTo = getReader().readObject(this);
+            } else if (refersTo != null && !checkState(RECENTLY_USED)) {
+                // the mark is only checked by the object cache of the reader
+                PdfReader reader = getReader();
+                if (reader != null && reader.getObjectCache() != null) {
+                    setState(RECENTLY_USED);
+                }
             }
             return refersTo;
         } else {
@@ -287,6 +293,9 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      * @param state special flag of current object
      */
     protected PdfIndirectReference setState(short state) {
+        if ((state & MODIFIED) != 0 && pdfDocument != null && !checkState(MODIFIED)) {
+            pdfDocument.getXref().addModifiedReference(getObjNumber());
+        }
         return (PdfIndirectReference) super.setState(state);
     }
 
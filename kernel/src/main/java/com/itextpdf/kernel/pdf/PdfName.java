@@ -451,6 +451,7 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     public static final PdfName Line = createDirectName("Line");
     public static final PdfName LineHeight = createDirectName("LineHeight");
     public static final PdfName LineThrough = createDirectName("LineThrough");
+    public static final PdfName Linearized = createDirectName("Linearized");
     public static final PdfName Link = createDirectName("Link");
     public static final PdfName List = createDirectName("List");
     public static final PdfName ListMode = createDirectName("ListMode");
@@ -0,0 +1,448 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of the {@link PdfDictionary} entries.
+ * <p/>
+ * Keys and values are kept in two parallel arrays sorted by the keys, so the entries are iterated in the same order
+ * as in a {@link java.util.TreeMap}, while a single entry takes two array slots instead of a tree node.
+ * Most of the dictionaries have a few entries and most of their keys are the predefined {@link PdfName} constants,
+ * which the reader reuses for the parsed names. Such dictionaries are searched linearly comparing the keys by
+ * identity first. Larger ones are searched with binary search until they are looked up more than modified, then
+ * an open addressing hash index of the positions is built for them.
+ */
+final class PdfNameMap extends AbstractMap<PdfName, PdfObject> implements Serializable {
+
+    private static final long serialVersionUID = -5024373935429468741L;
+
+    // Dictionaries up to this size are searched linearly, as comparing the names is more expensive than the loop.
+    private static final int LINEAR_SEARCH_SIZE = 8;
+    private static final int MIN_CAPACITY = 8;
+
+    private static final PdfName[] EMPTY_KEYS = new PdfName[0];
+    private static final PdfObject[] EMPTY_VALUES = new PdfObject[0];
+
+    private PdfName[] keys = EMPTY_KEYS;
+    private PdfObject[] values = EMPTY_VALUES;
+    private int size;
+    private transient int modCount;
+    // Positions of the keys plus one, placed by the hash codes of the keys. It is dropped on structural modification.
+    private transient volatile int[] hashIndex;
+    private transient int searchesWithoutIndex;
+
+    PdfNameMap() {
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            if (value == null ? values[i] == null : value.equals(values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public PdfObject get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public PdfObject put(PdfName key, PdfObject value) {
+        int index = search(key);
+        if (index >= 0) {
+            PdfObject oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        index = -index - 1;
+        if (size == keys.length) {
+            grow(Math.max(MIN_CAPACITY, size << 1));
+        }
+        if (size - index > LINEAR_SEARCH_SIZE) {
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+        } else {
+            // a few entries are moved faster in a loop than with System.arraycopy calls
+            for (int i = size; i > index; i--) {
+                keys[i] = keys[i - 1];
+                values[i] = values[i - 1];
+            }
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        onStructureModified();
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends PdfName, ? extends PdfObject> map) {
+        if (size == 0 && map instanceof PdfNameMap) {
+            PdfNameMap other = (PdfNameMap) map;
+            keys = new PdfName[other.size];
+            values = new PdfObject[other.size];
+            System.arraycopy(other.keys, 0, keys, 0, other.size);
+            System.arraycopy(other.values, 0, values, 0, other.size);
+            size = other.size;
+            onStructureModified();
+        } else {
+            super.putAll(map);
+        }
+    }
+
+    @Override
+    public PdfObject remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        PdfObject oldValue = values[index];
+        removeAt(index);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        onStructureModified();
+    }
+
+    @Override
+    public Set<PdfName> keySet() {
+        return new AbstractSet<PdfName>() {
+            @Override
+            public Iterator<PdfName> iterator() {
+                return new EntryIterator<PdfName>() {
+                    @Override
+                    PdfName next(int index) {
+                        return keys[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return PdfNameMap.this.remove(o) != null;
+            }
+
+            @Override
+            public void clear() {
+                PdfNameMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<PdfObject> values() {
+        return new AbstractCollection<PdfObject>() {
+            @Override
+            public Iterator<PdfObject> iterator() {
+                return new EntryIterator<PdfObject>() {
+                    @Override
+                    PdfObject next(int index) {
+                        return values[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsValue(o);
+            }
+
+            @Override
+            public void clear() {
+                PdfNameMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<PdfName, PdfObject>> entrySet() {
+        return new AbstractSet<Map.Entry<PdfName, PdfObject>>() {
+            @Override
+            public Iterator<Map.Entry<PdfName, PdfObject>> iterator() {
+                return new EntryIterator<Map.Entry<PdfName, PdfObject>>() {
+                    @Override
+                    Map.Entry<PdfName, PdfObject> next(int index) {
+                        return new Entry(keys[index], values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                PdfNameMap.this.clear();
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof PdfName)) {
+            return -1;
+        }
+        if (size <= LINEAR_SEARCH_SIZE) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int[] index = hashIndex;
+        if (index == null) {
+            if (++searchesWithoutIndex <= size >> 2) {
+                int position = Arrays.binarySearch(keys, 0, size, key);
+                return position >= 0 ? position : -1;
+            }
+            index = buildHashIndex();
+            hashIndex = index;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (keys[position] == key || keys[position].equals(key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private int[] buildHashIndex() {
+        // at most half of the slots are taken
+        int[] index = new int[Integer.highestOneBit(size) << 2];
+        int mask = index.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private void onStructureModified() {
+        modCount++;
+        // the volatile field is written only if needed, as the write is expensive
+        if (hashIndex != null) {
+            hashIndex = null;
+        }
+        searchesWithoutIndex = 0;
+    }
+
+    /**
+     * Finds the position of the key, or the position where the key shall be inserted.
+     *
+     * @param key the key to search for.
+     * @return index of the key, or (-(insertion point) - 1) if there is no such key in the map.
+     */
+    private int search(PdfName key) {
+        if (size > LINEAR_SEARCH_SIZE) {
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        // Keys of the parsed and the generated dictionaries mostly come in the sorted order,
+        // so the insertion point is searched from the end.
+        int i = size;
+        while (i > 0) {
+            int cmp = keys[i - 1].compareTo(key);
+            if (cmp == 0) {
+                return i - 1;
+            }
+            if (cmp < 0) {
+                break;
+            }
+            i--;
+        }
+        return -i - 1;
+    }
+
+    private void grow(int capacity) {
+        // Arrays.copyOf would create the typed arrays reflectively, System.arraycopy is slower for the small arrays
+        PdfName[] newKeys = new PdfName[capacity];
+        PdfObject[] newValues = new PdfObject[capacity];
+        for (int i = 0; i < size; i++) {
+            newKeys[i] = keys[i];
+            newValues[i] = values[i];
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private void removeAt(int index) {
+        for (int i = index + 1; i < size; i++) {
+            keys[i - 1] = keys[i];
+            values[i - 1] = values[i];
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        onStructureModified();
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return next(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        abstract T next(int index);
+    }
+
+    /**
+     * Entry of the map, which writes the new value through to the map.
+     */
+    private final class Entry extends AbstractMap.SimpleEntry<PdfName, PdfObject> {
+
+        private static final long serialVersionUID = 2375815311425016592L;
+
+        Entry(PdfName key, PdfObject value) {
+            super(key, value);
+        }
+
+        @Override
+        public PdfObject setValue(PdfObject value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
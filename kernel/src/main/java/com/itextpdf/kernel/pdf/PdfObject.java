@@ -95,6 +95,9 @@ public abstract class PdfObject implements Serializable {
     // Indicates that we do not want this object to be ever written into the resultant document
     // (because of multiple objects read from the same reference inconsistency).
     protected static final short READ_ONLY = 256;
+    // Indicates that the object has been accessed through its indirect reference since it was last checked
+    // by the object cache of the reader, so it shall not be released yet (see ReaderProperties#setObjectCacheSize).
+    protected static final short RECENTLY_USED = 512;
 
     /**
      * If object is flushed the indirect reference is kept here.
@@ -288,7 +291,12 @@ public abstract class PdfObject implements Serializable {
             }
         }
 
-        return processCopying(document, allowDuplicating);
+        PdfObject copy = processCopying(document, allowDuplicating);
+        if (copy.isIndirectReference() && !isIndirectReference()) {
+            // the copy made earlier has been flushed and released, its content can't be returned
+            throw new PdfException(PdfException.CopyOfObjectHasAlreadyBeenFlushed, this);
+        }
+        return copy;
     }
 
     //TODO comment! Add note about flush, modified flag and xref.
@@ -0,0 +1,178 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+
+/**
+ * Limits the memory held by the objects read from a document opened in reading mode.
+ * <p>
+ * The objects are released in the order they were read, except for the ones which have been accessed through their
+ * indirect references since the last check: these get a second chance and are moved to the end of the queue,
+ * which approximates the least recently used policy. The size of an object is estimated by its direct content.
+ * Objects that are flushed, modified or marked with {@link PdfObject#FORBID_RELEASE} are never released.
+ * <p>
+ * A released object is only detached from its indirect reference, the next access through the reference reads it
+ * from the document again. The object itself stays valid, so the wrappers which still hold it are not affected.
+ */
+class PdfObjectCache {
+
+    private static final int OBJECT_SIZE = 32;
+    private static final int ENTRY_SIZE = 16;
+
+    private final long maxSize;
+    private final boolean concurrent;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private long size;
+    private long releasedCount;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize    the approximate limit of the memory held by the cached objects, in bytes
+     * @param concurrent whether the objects may be read from several threads
+     */
+    PdfObjectCache(long maxSize, boolean concurrent) {
+        this.maxSize = maxSize;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Registers the object, which has just been read and set to its indirect reference.
+     * Other objects are released if the limit is exceeded, the registered object itself is kept.
+     */
+    synchronized void add(PdfIndirectReference reference, PdfObject object) {
+        int objectSize = estimateSize(object);
+        shrink(maxSize - objectSize);
+        reference.clearState(PdfObject.RECENTLY_USED);
+        entries.addLast(new Entry(reference, object, objectSize));
+        size += objectSize;
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    synchronized long getReleasedCount() {
+        return releasedCount;
+    }
+
+    private void shrink(long targetSize) {
+        while (size > targetSize && !entries.isEmpty()) {
+            Entry entry = entries.pollFirst();
+            PdfIndirectReference reference = entry.reference;
+            if (reference.refersTo == entry.object && reference.checkState(PdfObject.RECENTLY_USED)
+                    && isReleasable(entry)) {
+                reference.clearState(PdfObject.RECENTLY_USED);
+                entries.addLast(entry);
+                continue;
+            }
+            size -= entry.size;
+            if (reference.refersTo == entry.object && isReleasable(entry)) {
+                release(entry);
+            }
+        }
+    }
+
+    private static boolean isReleasable(Entry entry) {
+        return !entry.reference.checkState(PdfObject.FLUSHED) && !entry.reference.checkState(PdfObject.MODIFIED)
+                && !entry.object.checkState(PdfObject.FORBID_RELEASE);
+    }
+
+    private void release(Entry entry) {
+        if (concurrent) {
+            synchronized (entry.reference) {
+                if (entry.reference.refersTo == entry.object) {
+                    entry.reference.refersTo = null;
+                    releasedCount++;
+                }
+            }
+        } else {
+            entry.reference.refersTo = null;
+            releasedCount++;
+        }
+    }
+
+    /**
+     * Estimates the memory held by the object and its direct content. Indirect objects it refers to are not counted.
+     */
+    static int estimateSize(PdfObject object) {
+        switch (object.getType()) {
+            case PdfObject.DICTIONARY:
+            case PdfObject.STREAM:
+                int dictionarySize = OBJECT_SIZE * 2;
+                for (Map.Entry<PdfName, PdfObject> entry : ((PdfDictionary) object).entrySet()) {
+                    dictionarySize += ENTRY_SIZE + estimateSize(entry.getValue());
+                }
+                return dictionarySize;
+            case PdfObject.ARRAY:
+                int arraySize = OBJECT_SIZE * 2;
+                for (PdfObject item : (PdfArray) object) {
+                    arraySize += ENTRY_SIZE / 2 + estimateSize(item);
+                }
+                return arraySize;
+            case PdfObject.STRING:
+            case PdfObject.NAME:
+            case PdfObject.NUMBER:
+                byte[] content = ((PdfPrimitiveObject) object).content;
+                return OBJECT_SIZE + (content != null ? content.length + ENTRY_SIZE : 0);
+            default:
+                // references, booleans and nulls
+                return 0;
+        }
+    }
+
+    private static class Entry {
+        final PdfIndirectReference reference;
+        final PdfObject object;
+        final int size;
+
+        Entry(PdfIndirectReference reference, PdfObject object, int size) {
+            this.reference = reference;
+            this.object = object;
+            this.size = size;
+        }
+    }
+}
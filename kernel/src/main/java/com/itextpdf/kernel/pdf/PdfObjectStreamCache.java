@@ -0,0 +1,146 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps the decoded content and the offset tables of the recently read object streams, so that an object, which
+ * has been released after its object stream was read, is parsed again without decoding the whole stream.
+ * The least recently used streams are evicted when the total size of the decoded streams exceeds the limit.
+ */
+class PdfObjectStreamCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, DecodedObjectStream> streams = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    PdfObjectStreamCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the decoded object stream and counts the hit or the miss.
+     *
+     * @param objectStreamNumber the object number of the object stream
+     * @return the decoded object stream, or null if it is not cached
+     */
+    synchronized DecodedObjectStream get(int objectStreamNumber) {
+        DecodedObjectStream stream = streams.get(objectStreamNumber);
+        if (stream != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return stream;
+    }
+
+    synchronized void put(DecodedObjectStream stream) {
+        DecodedObjectStream previous = streams.put(stream.objectStreamNumber, stream);
+        if (previous != null) {
+            bytes -= previous.getSize();
+        }
+        bytes += stream.getSize();
+        Iterator<DecodedObjectStream> iterator = streams.values().iterator();
+        // the just added stream is the last one, it is kept even if it exceeds the limit alone
+        while (streams.size() > 1 && bytes > maxBytes) {
+            bytes -= iterator.next().getSize();
+            iterator.remove();
+        }
+    }
+
+    synchronized void clear() {
+        streams.clear();
+        bytes = 0;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Decoded content of an object stream with the numbers and the offsets of its objects.
+     */
+    static class DecodedObjectStream {
+        final int objectStreamNumber;
+        final byte[] bytes;
+        final int[] objNumbers;
+        final int[] addresses;
+
+        DecodedObjectStream(int objectStreamNumber, byte[] bytes, int[] objNumbers, int[] addresses) {
+            this.objectStreamNumber = objectStreamNumber;
+            this.bytes = bytes;
+            this.objNumbers = objNumbers;
+            this.addresses = addresses;
+        }
+
+        int getSize() {
+            return bytes.length + 8 * objNumbers.length;
+        }
+
+        /**
+         * @return the index of the object in the stream, or -1 if the stream does not contain the object
+         */
+        int indexOf(int objNumber) {
+            // writers usually put consecutive objects into a stream
+            int guess = objNumbers.length > 0 ? objNumber - objNumbers[0] : -1;
+            if (guess >= 0 && guess < objNumbers.length && objNumbers[guess] == objNumber) {
+                return guess;
+            }
+            for (int k = 0; k < objNumbers.length; k++) {
+                if (objNumbers[k] == objNumber) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+    }
+}
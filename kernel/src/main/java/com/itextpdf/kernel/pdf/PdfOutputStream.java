@@ -240,18 +240,29 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
     }
 
     private void write(PdfStream pdfStream) {
+        write(pdfStream, null);
+    }
+
+    /**
+     * Writes the stream.
+     *
+     * @param pdfStream         the stream to write
+     * @param compressedContent the content of the stream which has already been deflated
+     *                          after {@link #prepareContentCompression(PdfStream)} call, or {@code null}
+     */
+    void write(PdfStream pdfStream, ByteArrayOutputStream compressedContent) {
         try {
-            boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
-            if (!userDefinedCompression) {
-                int defaultCompressionLevel = document != null ?
-                        document.getWriter().getCompressionLevel() :
-                        CompressionConstants.DEFAULT_COMPRESSION;
-                pdfStream.setCompressionLevel(defaultCompressionLevel);
-            }
+            boolean userDefinedCompression = setDefaultCompressionLevel(pdfStream);
             boolean toCompress = pdfStream.getCompressionLevel() != CompressionConstants.NO_COMPRESSION;
             boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
 
-            if (pdfStream.getInputStream() != null) {
+            if (pdfStream.getRawContentSource() != null) {
+                writeRawContent(pdfStream, pdfStream.getRawContentSource());
+            } else if (isUntouchedReadStream(pdfStream, userDefinedCompression, toCompress && allowCompression)) {
+                // When document is opened in stamping mode, the content which is written as is
+                // is copied from the source in chunks instead of being read into memory.
+                writeRawContent(pdfStream, pdfStream);
+            } else if (pdfStream.getInputStream() != null) {
                 java.io.OutputStream fout = this;
                 DeflaterOutputStream def = null;
                 OutputStreamEncryption ose = null;
@@ -297,32 +308,32 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                 }
                 assert pdfStream.getOutputStream() != null : "PdfStream lost OutputStream";
                 ByteArrayOutputStream byteArrayStream;
+                // the index of an uncompressed object stream, written right before the objects without copying
+                ByteArrayOutputStream objectStreamIndex = null;
                 try {
-                    if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) { // compress
+                    boolean encrypt = checkEncryption(pdfStream);
+                    if (compressedContent != null) {
+                        byteArrayStream = compressedContent;
+                    } else if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) { // compress
                         updateCompressionFilter(pdfStream);
-                        byteArrayStream = new ByteArrayOutputStream();
-                        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
-                        if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        } else {
-                            assert pdfStream.getOutputStream() != null : "Error in outputStream";
-                            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        }
-                        zip.finish();
+                        byteArrayStream = deflateContent(pdfStream);
                     } else {
                         if (pdfStream instanceof PdfObjectStream) {
                             PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            byteArrayStream = new ByteArrayOutputStream();
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(byteArrayStream);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(byteArrayStream);
+                            if (encrypt) {
+                                byteArrayStream = new ByteArrayOutputStream();
+                                ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(byteArrayStream);
+                                ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(byteArrayStream);
+                            } else {
+                                objectStreamIndex = (ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream();
+                                byteArrayStream = (ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream();
+                            }
                         } else {
                             assert pdfStream.getOutputStream() != null : "Error in outputStream";
                             byteArrayStream = (ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream();
                         }
                     }
-                    if (checkEncryption(pdfStream)) {
+                    if (encrypt) {
                         ByteArrayOutputStream encodedStream = new ByteArrayOutputStream();
                         OutputStreamEncryption ose = crypto.getEncryptionStream(encodedStream);
                         byteArrayStream.writeTo(ose);
@@ -332,10 +343,14 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                 } catch (IOException ioe) {
                     throw new PdfException(PdfException.IoException, ioe);
                 }
-                pdfStream.put(PdfName.Length, new PdfNumber(byteArrayStream.size()));
-                pdfStream.updateLength((int) byteArrayStream.size());
+                int length = byteArrayStream.size() + (objectStreamIndex != null ? objectStreamIndex.size() : 0);
+                pdfStream.put(PdfName.Length, new PdfNumber(length));
+                pdfStream.updateLength(length);
                 this.write((PdfDictionary) pdfStream);
                 writeBytes(PdfOutputStream.stream);
+                if (objectStreamIndex != null) {
+                    objectStreamIndex.writeTo(this);
+                }
                 byteArrayStream.writeTo(this);
                 byteArrayStream.close();
                 writeBytes(PdfOutputStream.endstream);
@@ -345,6 +360,102 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Checks whether the stream has been read from the document being stamped and its content is going to be
+     * written as is, i.e. the content hasn't been modified and is neither recompressed nor encrypted anew.
+     *
+     * @param pdfStream              the stream to check
+     * @param userDefinedCompression whether the compression level of the stream has been set explicitly
+     * @param compressionAllowed     whether the stream without filters is going to be compressed
+     * @return true if the content of the stream can be copied from the source document byte for byte
+     */
+    private boolean isUntouchedReadStream(PdfStream pdfStream, boolean userDefinedCompression, boolean compressionAllowed) {
+        PdfIndirectReference reference = pdfStream.getIndirectReference();
+        if (pdfStream.getOutputStream() != null || reference == null || reference.getReader() == null
+                || reference.getReader().isEncrypted() || pdfStream.getOffset() <= 0) {
+            return false;
+        }
+        return !userDefinedCompression && !checkEncryption(pdfStream)
+                && !(compressionAllowed && !containsFlateFilter(pdfStream));
+    }
+
+    /**
+     * Writes the stream with the encoded content of the source stream. The content is copied
+     * from the source document byte for byte.
+     *
+     * @param pdfStream the stream to write
+     * @param source    the stream which content is written, either the stream itself or the stream it was copied from
+     * @throws IOException on error
+     */
+    private void writeRawContent(PdfStream pdfStream, PdfStream source) throws IOException {
+        java.io.InputStream content = source.getIndirectReference().getReader().readStream(source, false);
+        try {
+            int length = Math.max(source.getLength(), 0);
+            pdfStream.put(PdfName.Length, new PdfNumber(length));
+            pdfStream.updateLength(length);
+            this.write((PdfDictionary) pdfStream);
+            writeBytes(PdfOutputStream.stream);
+            byte[] buf = new byte[8192];
+            int copied = 0;
+            int n;
+            while (copied < length && (n = content.read(buf, 0, Math.min(buf.length, length - copied))) > 0) {
+                write(buf, 0, n);
+                copied += n;
+            }
+            if (copied < length) {
+                throw new java.io.EOFException();
+            }
+            writeBytes(PdfOutputStream.endstream);
+        } finally {
+            content.close();
+        }
+    }
+
+    /**
+     * Checks whether the in-memory content of the stream is going to be deflated when the stream is written
+     * and if so, updates the stream filter, so that the content can be deflated in advance with
+     * {@link #deflateContent(PdfStream)} and passed to {@link #write(PdfStream, ByteArrayOutputStream)}.
+     *
+     * @param pdfStream the stream to check
+     * @return true if the content of the stream is to be deflated, false otherwise
+     */
+    boolean prepareContentCompression(PdfStream pdfStream) {
+        if (pdfStream.getInputStream() != null || pdfStream.getOutputStream() == null) {
+            return false;
+        }
+        boolean userDefinedCompression = setDefaultCompressionLevel(pdfStream);
+        boolean toCompress = pdfStream.getCompressionLevel() != CompressionConstants.NO_COMPRESSION;
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) {
+            updateCompressionFilter(pdfStream);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deflates the in-memory content of the stream. Doesn't modify the stream, so it can be called from any thread
+     * as long as the stream isn't modified concurrently.
+     *
+     * @param pdfStream the stream which content should be deflated
+     * @return the deflated content
+     * @throws IOException on error
+     */
+    static ByteArrayOutputStream deflateContent(PdfStream pdfStream) throws IOException {
+        ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
+        if (pdfStream instanceof PdfObjectStream) {
+            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
+            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
+            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
+        } else {
+            assert pdfStream.getOutputStream() != null : "Error in outputStream";
+            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
+        }
+        zip.finish();
+        return byteArrayStream;
+    }
+
     protected boolean checkEncryption(PdfStream pdfStream) {
         if (crypto == null || crypto.isEmbeddedFilesOnly()) {
             return false;
@@ -410,6 +521,22 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Sets the compression level of the writer to the stream, if the stream doesn't define its own one.
+     *
+     * @return true if the stream had user defined compression level
+     */
+    private boolean setDefaultCompressionLevel(PdfStream pdfStream) {
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        if (!userDefinedCompression) {
+            int defaultCompressionLevel = document != null ?
+                    document.getWriter().getCompressionLevel() :
+                    CompressionConstants.DEFAULT_COMPRESSION;
+            pdfStream.setCompressionLevel(defaultCompressionLevel);
+        }
+        return userDefinedCompression;
+    }
+
     protected byte[] decodeFlateBytes(PdfStream stream, byte[] bytes) {
         PdfObject filterObject = stream.get(PdfName.Filter);
         if (filterObject == null) {
@@ -61,12 +61,16 @@ import com.itextpdf.kernel.xmp.options.SerializeOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.List;
 
 public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
@@ -487,6 +491,32 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         }
     }
 
+    /**
+     * Gets decoded content of all page content streams as a single stream.
+     * Unlike {@link #getContentBytes()}, content streams are not concatenated in memory: each of them is read
+     * and decoded while the returned stream is consumed, if its filters allow it.
+     * User is responsible for closing returned stream.
+     *
+     * @return concatenated content of the page.
+     * @throws PdfException in case any @see IOException.
+     */
+    public InputStream getContentInputStream() {
+        final int streamCount = getContentStreamCount();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasMoreElements() {
+                return index < streamCount;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return openContentStream(getContentStream(index++));
+            }
+        });
+    }
+
     /**
      * Gets decoded bytes of a certain stream of a page content.
      *
@@ -498,6 +528,24 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         return getContentStream(index).getBytes();
     }
 
+    private InputStream openContentStream(PdfStream contentStream) {
+        PdfIndirectReference reference = contentStream.getIndirectReference();
+        PdfOutputStream outputStream = contentStream.getOutputStream();
+        if (reference != null && reference.getReader() != null
+                && (outputStream == null || outputStream.getOutputStream() == null)) {
+            try {
+                InputStream stream = reference.getReader().readStream(contentStream, true);
+                if (stream != null) {
+                    return stream;
+                }
+            } catch (IOException ioe) {
+                throw new PdfException(PdfException.CannotGetContentBytes, ioe, this);
+            }
+        }
+        byte[] bytes = contentStream.getBytes();
+        return new ByteArrayInputStream(bytes != null ? bytes : new byte[0]);
+    }
+
     /**
      * Calculates and returns next available MCID reference.
      *
@@ -50,7 +50,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Algorithm for construction {@see PdfPages} tree
@@ -59,6 +61,8 @@ class PdfPagesTree implements Serializable{
 
     private static final long serialVersionUID = 4189501363348296036L;
 
+    private static final int MAX_PAGE_TREE_DEPTH = 256;
+
     private final int leafSize = 10;
 
     private List<PdfDictionary> pageRefs;
@@ -67,6 +71,15 @@ class PdfPagesTree implements Serializable{
     private PdfDocument document;
     private boolean generated = false;
     private PdfPages root;
+    /**
+     * Zero-based numbers of the loaded pages, keyed by the indirect reference of the page dictionary or by
+     * the dictionary itself, if it is direct.
+     */
+    private Map<PdfObject, Integer> pageNumbers;
+    /**
+     * Set when pages are inserted or removed before the end of the tree, the index is rebuilt on the next lookup.
+     */
+    private boolean pageNumbersOutdated = false;
 
     /**
      * Create PdfPages tree.
@@ -78,6 +91,7 @@ class PdfPagesTree implements Serializable{
         this.pageRefs = new ArrayList<>();
         this.parents = new ArrayList<>();
         this.pages = new ArrayList<>();
+        this.pageNumbers = new IdentityHashMap<>();
         if (pdfCatalog.getPdfObject().containsKey(PdfName.Pages)) {
             PdfDictionary pages = pdfCatalog.getPdfObject().getAsDictionary(PdfName.Pages);
             if (pages == null)
@@ -102,10 +116,13 @@ class PdfPagesTree implements Serializable{
      * @param  pageNum one-based index of the element to return
      * @return the {@see PdfPage} at the specified position in this list
      */
-    public PdfPage getPage(int pageNum) {
+    public synchronized PdfPage getPage(int pageNum) {
         --pageNum;
         PdfPage pdfPage = pages.get(pageNum);
         if (pdfPage == null) {
+            if (pageNum == 0) {
+                loadLinearizedFirstPage();
+            }
             loadPage(pageNum);
             pdfPage = new PdfPage(pageRefs.get(pageNum));
             int parentIndex = findPageParent(pageNum);
@@ -144,7 +161,12 @@ class PdfPagesTree implements Serializable{
      * in this tree, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfPage page) {
-        return pages.indexOf(page) + 1;
+        int pageNum = findIndexedPage(page.getPdfObject());
+        if (pageNum >= 0 && pages.get(pageNum) == page) {
+            return pageNum + 1;
+        }
+        // the same page dictionary may be wrapped by several PdfPage objects only in a broken tree
+        return pageNum >= 0 ? pages.indexOf(page) + 1 : 0;
     }
 
     /**
@@ -152,16 +174,29 @@ class PdfPagesTree implements Serializable{
      * specified by it's PdfDictionary, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfDictionary pageDictionary) {
-        int pageNum = pageRefs.indexOf(pageDictionary);
+        int pageNum = findIndexedPage(pageDictionary);
         if (pageNum >= 0) {
             return pageNum + 1;
         }
+        if (pageNumbers.size() == pageRefs.size()) {
+            // all pages are loaded
+            return 0;
+        }
+        pageNum = findPageByParents(pageDictionary);
+        if (pageNum >= 0 && pageNum < pageRefs.size()) {
+            loadPage(pageNum);
+            pageNum = findIndexedPage(pageDictionary);
+            if (pageNum >= 0) {
+                return pageNum + 1;
+            }
+        }
         for (int i = 0; i < pageRefs.size(); i++) {
             if (pageRefs.get(i) == null) {
                 loadPage(i);
-            }
-            if (pageRefs.get(i).equals(pageDictionary)) {
-                return i + 1;
+                pageNum = findIndexedPage(pageDictionary);
+                if (pageNum >= 0) {
+                    return pageNum + 1;
+                }
             }
         }
 
@@ -196,6 +231,7 @@ class PdfPagesTree implements Serializable{
         pdfPage.parentPages = pdfPages;
         pageRefs.add(pdfPage.getPdfObject());
         pages.add(pdfPage);
+        indexPage(pageRefs.size() - 1, pdfPage.getPdfObject());
     }
 
     /**
@@ -221,6 +257,7 @@ class PdfPagesTree implements Serializable{
         correctPdfPagesFromProperty(parentIndex + 1, +1);
         pageRefs.add(index, pdfPage.getPdfObject());
         pages.add(index, pdfPage);
+        pageNumbersOutdated = true;
     }
 
     /**
@@ -288,6 +325,7 @@ class PdfPagesTree implements Serializable{
     protected void clearPageRefs() {
         pageRefs = null;
         pages = null;
+        pageNumbers = null;
     }
 
     protected List<PdfPages> getParents() {
@@ -304,6 +342,23 @@ class PdfPagesTree implements Serializable{
         return parents.get(parentIndex);
     }
 
+    /**
+     * The first page of the linearized document is referenced from the linearization parameters. If it is the first
+     * kid of the root, the page is taken without reading the other kids of the root.
+     */
+    private void loadLinearizedFirstPage() {
+        if (pageRefs.get(0) != null || parents.size() != 1 || root == null || document.getReader() == null) {
+            return;
+        }
+        PdfDictionary page = document.getReader().getLinearizedFirstPage();
+        PdfArray kids = root.getKids();
+        if (page != null && page.getIndirectReference() != null && kids != null && kids.size() > 0
+                && page.getIndirectReference() == kids.get(0, false)) {
+            pageRefs.set(0, page);
+            indexPage(0, page);
+        }
+    }
+
     private void loadPage(int pageNum) {
         PdfDictionary targetPage = pageRefs.get(pageNum);
         if (targetPage != null)
@@ -361,9 +416,7 @@ class PdfPagesTree implements Serializable{
                 }
             }
             parents.remove(parentIndex);
-            for (int i = newParents.size() - 1; i >= 0; i--) {
-                parents.add(parentIndex, newParents.get(i));
-            }
+            parents.addAll(parentIndex, newParents);
             // recursive call, to load needed pageRef.
             // NOTE optimization? add to loadPage startParentIndex.
             loadPage(pageNum);
@@ -373,7 +426,9 @@ class PdfPagesTree implements Serializable{
             // In any case parent.getCount() has higher priority.
             // NOTE optimization? when we already found needed index
             for (int i = 0; i < parent.getCount(); i++) {
-                pageRefs.set(from + i, kids.getAsDictionary(i));
+                PdfDictionary page = kids.getAsDictionary(i);
+                pageRefs.set(from + i, page);
+                indexPage(from + i, page);
             }
         }
     }
@@ -394,14 +449,123 @@ class PdfPagesTree implements Serializable{
             } else {
                 correctPdfPagesFromProperty(parentIndex + 1, -1);
             }
-            pageRefs.remove(pageNum);
+            PdfDictionary pageRef = pageRefs.remove(pageNum);
             pages.remove(pageNum);
+            if (pageNum == pageRefs.size() && !pageNumbersOutdated) {
+                unindexPage(pageNum, pageRef);
+            } else {
+                pageNumbersOutdated = true;
+            }
             return true;
         } else {
             return false;
         }
     }
 
+    // zero-based index
+    private void indexPage(int pageNum, PdfDictionary page) {
+        if (page == null || pageNumbersOutdated) {
+            return;
+        }
+        PdfObject key = getPageKey(page);
+        Integer indexed = pageNumbers.get(key);
+        // the same page may be referenced twice in a broken tree, the first occurrence wins
+        if (indexed == null || indexed > pageNum) {
+            pageNumbers.put(key, pageNum);
+        }
+    }
+
+    private void unindexPage(int pageNum, PdfDictionary page) {
+        if (page == null) {
+            return;
+        }
+        PdfObject key = getPageKey(page);
+        Integer indexed = pageNumbers.get(key);
+        if (indexed != null && indexed == pageNum) {
+            pageNumbers.remove(key);
+            // a duplicate of the removed page may still be present
+            for (int i = 0; i < pageRefs.size(); i++) {
+                if (pageRefs.get(i) == page) {
+                    pageNumbers.put(key, i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static PdfObject getPageKey(PdfDictionary page) {
+        return page.getIndirectReference() != null ? page.getIndirectReference() : page;
+    }
+
+    // zero-based index, -1 if the page is not loaded
+    private int findIndexedPage(PdfDictionary page) {
+        if (pageNumbersOutdated) {
+            pageNumbers.clear();
+            pageNumbersOutdated = false;
+            for (int i = 0; i < pageRefs.size(); i++) {
+                indexPage(i, pageRefs.get(i));
+            }
+        }
+        Integer pageNum = null;
+        if (page.getIndirectReference() != null) {
+            pageNum = pageNumbers.get(page.getIndirectReference());
+        }
+        if (pageNum == null) {
+            // the page could have been indexed while it was direct
+            pageNum = pageNumbers.get(page);
+        }
+        return pageNum != null ? (int) pageNum : -1;
+    }
+
+    /**
+     * Calculates the expected zero-based number of the page by walking up its /Parent chain and summing the /Count
+     * values of the preceding kids on each level. Only the ancestors of the page and their kids are read.
+     *
+     * @return the expected page number, or -1 if the chain does not lead to the root
+     */
+    private int findPageByParents(PdfDictionary page) {
+        if (root == null) {
+            return -1;
+        }
+        int pageNum = 0;
+        PdfDictionary kid = page;
+        // a depth limit protects against cyclic /Parent chains
+        for (int depth = 0; depth < MAX_PAGE_TREE_DEPTH; depth++) {
+            if (kid.isFlushed()) {
+                return -1;
+            }
+            PdfDictionary parent = kid.getAsDictionary(PdfName.Parent);
+            PdfArray kids = parent != null && !parent.isFlushed() ? parent.getAsArray(PdfName.Kids) : null;
+            if (kids == null || kids.isFlushed()) {
+                return -1;
+            }
+            int kidIndex = -1;
+            for (int i = 0; i < kids.size(); i++) {
+                PdfObject sibling = kids.get(i, false);
+                if (sibling == kid || kid.getIndirectReference() != null && sibling == kid.getIndirectReference()) {
+                    kidIndex = i;
+                    break;
+                }
+            }
+            if (kidIndex < 0) {
+                return -1;
+            }
+            for (int i = 0; i < kidIndex; i++) {
+                PdfDictionary sibling = kids.getAsDictionary(i);
+                if (sibling == null || sibling.isFlushed()) {
+                    return -1;
+                }
+                PdfNumber count = sibling.getAsArray(PdfName.Kids) != null ? sibling.getAsNumber(PdfName.Count) : null;
+                pageNum += count != null ? count.intValue() : 1;
+            }
+            if (parent == root.getPdfObject()) {
+                return pageNum;
+            }
+            kid = parent;
+        }
+        return -1;
+    }
+
     // zero-based index
     private int findPageParent(int pageNum) {
         int low = 0;
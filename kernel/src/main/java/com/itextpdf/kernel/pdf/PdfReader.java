@@ -47,13 +47,18 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.*;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
+import com.itextpdf.kernel.pdf.filters.IByteBufferFilterHandler;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class PdfReader implements Closeable, Serializable {
 
@@ -65,6 +70,14 @@ public class PdfReader implements Closeable, Serializable {
     private static final String endstream4 = "\rendstream";
     private static final byte[] endstream = ByteUtils.getIsoBytes("endstream");
     private static final byte[] endobj = ByteUtils.getIsoBytes("endobj");
+    // Viewing a small range of a memory mapped file costs more than copying it.
+    private static final int MIN_STREAM_VIEW_LENGTH = 1 << 16;
+    // Result of reading the cross-reference section, which is not a cross-reference stream.
+    private static final long NOT_XREF_STREAM = -2;
+    // Length of the cross-reference table entry of the fixed width format, including two byte end of line.
+    private static final int XREF_ENTRY_LENGTH = 20;
+    // Number of the fixed width cross-reference table entries read from the file at once.
+    private static final int XREF_ENTRIES_PER_READ = 4096;
 
     protected static boolean correctStreamLength = true;
 
@@ -96,6 +109,28 @@ public class PdfReader implements Closeable, Serializable {
     protected boolean fixedXref = false;
     protected boolean xrefStm = false;
 
+    /**
+     * Thread safe view of the source, used to create per-thread tokenizers in concurrent reading mode.
+     */
+    private transient IRandomAccessSource concurrentSource;
+    private transient ThreadLocal<ThreadState> concurrentState;
+    // All the per-thread states created so far, released when the reader is closed.
+    private transient List<ThreadState> concurrentStates;
+
+    /**
+     * Offset of the next cross-reference section, which has not been read yet in lazy cross-reference reading mode,
+     * or -1 if all the sections have been read.
+     */
+    private long pendingXref = -1;
+    private Set<Long> readXrefSections;
+    private transient PdfTokenizer pendingXrefTokens;
+    private boolean readingPendingXref = false;
+    // Number of the first page object of the linearized document, or 0 if the document is not linearized.
+    private int linearizedFirstPage = 0;
+    // Limits the memory held by the read objects in reading mode, null if the objects are never released.
+    private transient PdfObjectCache objectCache;
+    private transient volatile PdfObjectStreamCache objectStreamCache;
+
     /**
      * Constructs a new PdfReader.
      *
@@ -104,7 +139,12 @@ public class PdfReader implements Closeable, Serializable {
      */
     public PdfReader(IRandomAccessSource byteSource, ReaderProperties properties) throws IOException {
         this.properties = properties;
-        this.tokens = getOffsetTokeniser(byteSource);
+        if (properties.concurrentReading) {
+            this.concurrentSource = getOffsetSource(new ThreadSafeRandomAccessSource(byteSource));
+            this.tokens = new PdfTokenizer(new RandomAccessFileOrArray(new GetBufferedRandomAccessSource(concurrentSource)));
+        } else {
+            this.tokens = getOffsetTokeniser(byteSource);
+        }
     }
 
     /**
@@ -160,6 +200,22 @@ public class PdfReader implements Closeable, Serializable {
 
     public void close() throws IOException {
         tokens.close();
+        if (concurrentState != null) {
+            synchronized (concurrentStates) {
+                for (ThreadState state : concurrentStates) {
+                    if (state.tokens != null) {
+                        state.tokens.close();
+                    }
+                    state.tokens = null;
+                    state.currentIndirectReference = null;
+                }
+                concurrentStates.clear();
+            }
+            concurrentState.remove();
+        }
+        if (objectStreamCache != null) {
+            objectStreamCache.clear();
+        }
     }
 
     public PdfReader setUnethicalReading(boolean unethicalReading) {
@@ -203,6 +259,15 @@ public class PdfReader implements Closeable, Serializable {
         return xrefStm;
     }
 
+    /**
+     * Indicates whether the reader allows reading document objects from several threads.
+     *
+     * @return true, if concurrent reading was enabled in {@link ReaderProperties}.
+     */
+    public boolean isConcurrentReading() {
+        return properties.concurrentReading;
+    }
+
     /**
      * If any exception generated while reading PdfObject, PdfReader will try to fix offsets of all objects.
      *
@@ -230,6 +295,15 @@ public class PdfReader implements Closeable, Serializable {
      * @throws PdfException
      */
     public byte[] readStreamBytes(PdfStream stream, boolean decode) throws IOException {
+        if (decode && decrypt == null) {
+            correctStreamLength(stream);
+            java.nio.ByteBuffer view = getStreamByteBufferView(stream);
+            if (view != null) {
+                java.io.ByteArrayOutputStream decoded = new java.io.ByteArrayOutputStream(view.remaining());
+                decodeBytes(view, stream, FilterHandlers.getDefaultFilterHandlers(), decoded);
+                return decoded.toByteArray();
+            }
+        }
         byte[] b = readStreamBytesRaw(stream);
         if (decode && b != null) {
             return decodeBytes(b, stream);
@@ -239,16 +313,14 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     public byte[] readStreamBytesRaw(PdfStream stream) throws IOException {
-        PdfName type = stream.getAsName(PdfName.Type);
-        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
-            checkPdfStreamLength(stream);
+        correctStreamLength(stream);
         long offset = stream.getOffset();
         if (offset <= 0)
             return null;
         int length = stream.getLength();
         if (length <= 0)
             return new byte[0];
-        RandomAccessFileOrArray file = tokens.getSafeFile();
+        RandomAccessFileOrArray file = getTokenizer().getSafeFile();
         byte[] bytes = null;
         try {
             file.seek(stream.getOffset());
@@ -272,19 +344,65 @@ public class PdfReader implements Closeable, Serializable {
                     filter.release();
                 }
                 if (!skip) {
-                    decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
-                    bytes = decrypt.decryptByteArray(bytes);
+                    synchronized (decrypt) {
+                        decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
+                        bytes = decrypt.decryptByteArray(bytes);
+                    }
                 }
             }
         } finally {
             try {
                 file.close();
-            } catch (Exception ignored) {
+            } catch (IOException e) {
+                logIgnoredException(LogMessageConstant.UNABLE_TO_CLOSE_STREAM_FILE, e);
             }
         }
         return bytes;
     }
 
+    /**
+     * Gets a buffer with the raw (still encoded) stream bytes. If the document isn't encrypted and it is read
+     * from a memory mapped file or from a byte array, the bytes of a large stream are not copied and the returned
+     * buffer is a read-only view of the source. Otherwise the bytes are read as by {@link #readStreamBytesRaw(PdfStream)}.
+     *
+     * @param stream the stream to read
+     * @return the buffer positioned at the first byte of the stream, or null if the stream wasn't read from the source
+     * @throws IOException
+     */
+    public java.nio.ByteBuffer readStreamByteBufferRaw(PdfStream stream) throws IOException {
+        if (decrypt == null) {
+            correctStreamLength(stream);
+            java.nio.ByteBuffer view = getStreamByteBufferView(stream);
+            if (view != null) {
+                return view;
+            }
+        }
+        byte[] bytes = readStreamBytesRaw(stream);
+        return bytes != null ? java.nio.ByteBuffer.wrap(bytes) : null;
+    }
+
+    /**
+     * Reads stream bytes and writes them to the output stream. The raw bytes are obtained with
+     * {@link #readStreamByteBufferRaw(PdfStream)}, so that a large stream of a memory mapped document
+     * is decoded directly from the mapping, if the filter handler supports it.
+     *
+     * @param decode true if to write decoded stream bytes, false if to leave them originally encoded.
+     * @param output the stream the bytes are written to
+     * @throws IOException
+     * @throws PdfException
+     */
+    public void readStreamBytes(PdfStream stream, boolean decode, java.io.OutputStream output) throws IOException {
+        java.nio.ByteBuffer b = readStreamByteBufferRaw(stream);
+        if (b == null) {
+            return;
+        }
+        if (decode) {
+            decodeBytes(b, stream, FilterHandlers.getDefaultFilterHandlers(), output);
+        } else {
+            writeBytes(b, output);
+        }
+    }
+
     /**
      * Gets the input stream associated with PdfStream.
      * User is responsible for closing returned stream.
@@ -294,6 +412,18 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException
      */
     public InputStream readStream(PdfStream stream, boolean decode) throws IOException {
+        if (decrypt == null && (!decode || isStreamingDecodeSupported(stream))) {
+            // Bytes are read from the source and inflated while the returned stream is consumed.
+            correctStreamLength(stream);
+            long offset = stream.getOffset();
+            if (offset <= 0)
+                return null;
+            IRandomAccessSource source = concurrentSource != null
+                    ? new IndependentRandomAccessSource(concurrentSource)
+                    : tokens.getSafeFile().createSourceView();
+            InputStream rawStream = new RASInputStream(new WindowRandomAccessSource(source, offset, Math.max(stream.getLength(), 0)));
+            return decode && stream.get(PdfName.Filter) != null ? new LenientInflaterInputStream(rawStream) : rawStream;
+        }
         byte[] bytes = readStreamBytes(stream, decode);
         return bytes != null ? new ByteArrayInputStream(bytes) : null;
     }
@@ -323,51 +453,45 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
-        PdfObject filter = streamDictionary.get(PdfName.Filter);
-        PdfArray filters = new PdfArray();
-        if (filter != null) {
-            if (filter.getType() == PdfObject.NAME) {
-                filters.add(filter);
-            } else if (filter.getType() == PdfObject.ARRAY) {
-                filters = ((PdfArray) filter);
-            }
-        }
-        PdfArray dp = new PdfArray();
-        PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
-        if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
-            if (dpo != null) dpo.release();
-            dpo = streamDictionary.get(PdfName.DP);
+        return decodeBytes(b, getFilters(streamDictionary), getDecodeParams(streamDictionary), 0, streamDictionary, filterHandlers);
+    }
+
+    /**
+     * Decode the remaining bytes of a buffer applying the filters specified in the provided dictionary using the provided
+     * filter handlers and write the result to the output stream. If the handler of the first filter is
+     * an {@link IByteBufferFilterHandler}, the buffer is decoded without copying it into a byte array.
+     *
+     * @param b                the bytes to decode
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @param output           the stream the decoded bytes are written to
+     * @throws IOException  if the decoded bytes cannot be written to the output stream
+     * @throws PdfException if there are any problems decoding the bytes
+     */
+    public static void decodeBytes(java.nio.ByteBuffer b, PdfDictionary streamDictionary, Map<PdfName, IFilterHandler> filterHandlers,
+                                   java.io.OutputStream output) throws IOException {
+        PdfArray filters = getFilters(streamDictionary);
+        if (filters.isEmpty()) {
+            writeBytes(b, output);
+            return;
         }
-        if (dpo != null) {
-            if (dpo.getType() == PdfObject.DICTIONARY) {
-                dp.add(dpo);
-            } else if (dpo.getType() == PdfObject.ARRAY) {
-                dp = ((PdfArray) dpo);
-            }
-            dpo.release();
+        PdfName filterName = (PdfName) filters.get(0);
+        IFilterHandler filterHandler = filterHandlers.get(filterName);
+        if (!(filterHandler instanceof IByteBufferFilterHandler)) {
+            byte[] bytes = new byte[b.remaining()];
+            b.get(bytes);
+            output.write(decodeBytes(bytes, streamDictionary, filterHandlers));
+            return;
         }
-        for (int j = 0; j < filters.size(); ++j) {
-            PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
-
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
-            } else {
-                decodeParams = null;
-            }
-            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
+        PdfArray dp = getDecodeParams(streamDictionary);
+        PdfDictionary decodeParams = getDecodeParams(dp, 0);
+        if (filters.size() == 1) {
+            ((IByteBufferFilterHandler) filterHandler).decode(b, output, filterName, decodeParams, streamDictionary);
+        } else {
+            java.io.ByteArrayOutputStream decoded = new java.io.ByteArrayOutputStream(b.remaining());
+            ((IByteBufferFilterHandler) filterHandler).decode(b, decoded, filterName, decodeParams, streamDictionary);
+            output.write(decodeBytes(decoded.toByteArray(), filters, dp, 1, streamDictionary, filterHandlers));
         }
-        return b;
     }
 
     /** Gets a new file instance of the original PDF
@@ -387,6 +511,26 @@ public class PdfReader implements Closeable, Serializable {
         return tokens.getSafeFile().length();
     }
 
+    /**
+     * Gets the number of times an object was parsed from an already decoded object stream,
+     * which was found in the cache of the recently read object streams.
+     * @return the number of the object stream cache hits.
+     */
+    public long getObjectStreamCacheHits() {
+        PdfObjectStreamCache cache = getObjectStreamCache();
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    /**
+     * Gets the number of times an object stream had to be decoded, because it was not found in the cache
+     * of the recently read object streams.
+     * @return the number of the object stream cache misses.
+     */
+    public long getObjectStreamCacheMisses() {
+        PdfObjectStreamCache cache = getObjectStreamCache();
+        return cache != null ? cache.getMisses() : 0;
+    }
+
     public boolean isOpenedWithFullPermission() {
         return !encrypted || decrypt.isOpenedWithFullPermission() || unethicalReading;
     }
@@ -444,7 +588,16 @@ public class PdfReader implements Closeable, Serializable {
 
             rebuildXref();
         }
+        if (properties.lazyXrefReading && !rebuiltXref) {
+            readLinearizationParameters();
+        }
         readDecryptObj();
+        if (concurrentSource != null) {
+            initConcurrentState();
+        }
+        if (properties.objectCacheSize > 0 && pdfDocument != null && pdfDocument.getWriter() == null) {
+            objectCache = new PdfObjectCache(properties.objectCacheSize, concurrentState != null);
+        }
     }
 
     private void readDecryptObj() {
@@ -465,57 +618,147 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected void readObjectStream(PdfStream objectStream) throws IOException {
+        int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
+        PdfObjectStreamCache cache = getObjectStreamCache();
+        PdfObjectStreamCache.DecodedObjectStream decoded = cache != null ? cache.get(objectStreamNumber) : null;
+        if (decoded == null) {
+            decoded = decodeObjectStream(objectStream);
+        }
+        readObjectStreamObjects(decoded, null, false);
+    }
+
+    /**
+     * Decodes the object stream, parses its offset table and puts the result into the object stream cache, if enabled.
+     */
+    private PdfObjectStreamCache.DecodedObjectStream decodeObjectStream(PdfStream objectStream) throws IOException {
         int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
         int first = objectStream.getAsNumber(PdfName.First).intValue();
         int n = objectStream.getAsNumber(PdfName.N).intValue();
         byte[] bytes = readStreamBytes(objectStream, true);
-        PdfTokenizer saveTokens = tokens;
-        try {
-            tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
-            int[] address = new int[n];
-            int[] objNumber = new int[n];
-            boolean ok = true;
-            for (int k = 0; k < n; ++k) {
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                objNumber[k] = tokens.getIntValue();
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                address[k] = tokens.getIntValue() + first;
+        PdfTokenizer tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
+        int[] address = new int[n];
+        int[] objNumber = new int[n];
+        boolean ok = true;
+        for (int k = 0; k < n; ++k) {
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
             }
+            objNumber[k] = tokens.getIntValue();
+            ok = tokens.nextToken();
             if (!ok)
-                throw new PdfException(PdfException.ErrorReadingObjectStream);
-            for (int k = 0; k < n; ++k) {
-                tokens.seek(address[k]);
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            address[k] = tokens.getIntValue() + first;
+        }
+        if (!ok)
+            throw new PdfException(PdfException.ErrorReadingObjectStream);
+        objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+        PdfObjectStreamCache.DecodedObjectStream decoded = new PdfObjectStreamCache.DecodedObjectStream(
+                objectStreamNumber, bytes, objNumber, address);
+        PdfObjectStreamCache cache = getObjectStreamCache();
+        if (cache != null) {
+            cache.put(decoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * Parses the objects of the decoded object stream and sets them to their indirect references.
+     *
+     * @param requested     the reference of the object to be returned
+     * @param onlyRequested true to parse only the requested object, false to parse all the objects of the stream
+     * @return the object set to the requested reference, or null if it is not found in the stream
+     */
+    private PdfObject readObjectStreamObjects(PdfObjectStreamCache.DecodedObjectStream decoded,
+                                              PdfIndirectReference requested, boolean onlyRequested) throws IOException {
+        PdfTokenizer saveTokens = getTokenizer();
+        try {
+            PdfTokenizer tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(decoded.bytes)));
+            setTokenizer(tokens);
+            PdfObject requestedObject = null;
+            boolean requestedObjectRead = false;
+            int from = 0;
+            int to = decoded.objNumbers.length;
+            if (onlyRequested) {
+                from = decoded.indexOf(requested.getObjNumber());
+                to = from + 1;
+            }
+            for (int k = Math.max(from, 0); k < to; ++k) {
+                tokens.seek(decoded.addresses[k]);
                 tokens.nextToken();
                 PdfObject obj;
                 if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
                     obj = new PdfNumber(tokens.getByteContent());
                 } else {
-                    tokens.seek(address[k]);
+                    tokens.seek(decoded.addresses[k]);
                     obj = readObject(false, true);
                 }
-                PdfIndirectReference reference = pdfDocument.getXref().get(objNumber[k]);
+                PdfIndirectReference reference = pdfDocument.getXref().get(decoded.objNumbers[k]);
                 // Check if this object has no incremental updates (e.g. no append mode)
-                if (reference.getObjStreamNumber() == objectStreamNumber) {
+                if (reference.getObjStreamNumber() == decoded.objectStreamNumber) {
+                    PdfObject published = setObjectStreamObject(reference, obj);
+                    if (reference == requested) {
+                        requestedObject = published;
+                        requestedObjectRead = published == obj;
+                    } else if (published == obj && objectCache != null) {
+                        objectCache.add(reference, obj);
+                    }
+                }
+            }
+            // the requested object is registered last, so that it is not released by the other objects of the stream
+            if (requestedObjectRead && objectCache != null) {
+                objectCache.add(requested, requestedObject);
+            }
+            return requestedObject;
+        } finally {
+            setTokenizer(saveTokens);
+        }
+    }
+
+    /**
+     * Gets the cache of the decoded object streams, or null if it is not enabled in the reader properties.
+     */
+    private PdfObjectStreamCache getObjectStreamCache() {
+        if (properties.objectStreamCacheSize <= 0) {
+            return null;
+        }
+        if (objectStreamCache == null) {
+            synchronized (this) {
+                if (objectStreamCache == null) {
+                    objectStreamCache = new PdfObjectStreamCache(properties.objectStreamCacheSize);
+                }
+            }
+        }
+        return objectStreamCache;
+    }
+
+    /**
+     * Sets the object read from an object stream to its reference and returns the object set to the reference.
+     * The object, which is already set to the reference, is kept if another thread has read the same object stream,
+     * or if the object stream is read again after some of its objects have been released by the object cache.
+     */
+    private PdfObject setObjectStreamObject(PdfIndirectReference reference, PdfObject obj) {
+        if (concurrentState != null) {
+            synchronized (reference) {
+                if (reference.refersTo == null) {
                     reference.setRefersTo(obj);
                     obj.setIndirectReference(reference);
                 }
+                return reference.refersTo;
             }
-            objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
-        } finally {
-            tokens = saveTokens;
         }
+        if (objectCache == null || reference.refersTo == null) {
+            reference.setRefersTo(obj);
+            obj.setIndirectReference(reference);
+        }
+        return reference.refersTo;
     }
 
     protected PdfObject readObject(PdfIndirectReference reference) {
@@ -527,6 +770,7 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected PdfObject readObject(boolean readAsDirect, boolean objStm) throws IOException {
+        PdfTokenizer tokens = getTokenizer();
         tokens.nextValidToken();
         PdfTokenizer.TokenType type = tokens.getTokenType();
         switch (type) {
@@ -561,36 +805,32 @@ public class PdfReader implements Closeable, Serializable {
                 return new PdfNumber(tokens.getByteContent());
             case String: {
                 PdfString pdfString = new PdfString(tokens.getByteContent(), tokens.isHexString());
+                PdfIndirectReference currentIndirectReference = getCurrentIndirectReference();
                 if(currentIndirectReference != null) {
                     pdfString.setDecryptInfoNum(currentIndirectReference.getObjNumber());
                     pdfString.setDecryptInfoGen(currentIndirectReference.getGenNumber());
                 }
-                return properties.password == null || objStm ? pdfString : pdfString.decrypt(decrypt);
+                if (properties.password == null || objStm) {
+                    return pdfString;
+                }
+                if (concurrentState != null && decrypt != null) {
+                    synchronized (decrypt) {
+                        return pdfString.decrypt(decrypt);
+                    }
+                }
+                return pdfString.decrypt(decrypt);
             }
             case Name:
                 return readPdfName(readAsDirect);
             case Ref:
                 int num = tokens.getObjNr();
                 PdfXrefTable table = pdfDocument.getXref();
-                PdfIndirectReference reference = table.get(num);
-                if (reference != null) {
-                    if (reference.isFree()) {
-                        return PdfNull.PDF_NULL;
-                    }
-                    if (reference.getGenNumber() != tokens.getGenNr()) {
-                        if (fixedXref) {
-                            Logger logger = LoggerFactory.getLogger(PdfReader.class);
-                            logger.warn(MessageFormat.format(LogMessageConstant.INVALID_INDIRECT_REFERENCE + " {0} {1} R", tokens.getObjNr(), tokens.getGenNr()));
-                            return new PdfNull();
-                        } else {
-                            throw new PdfException(PdfException.InvalidIndirectReference1);
-                        }
+                if (concurrentState != null) {
+                    synchronized (table) {
+                        return readReference(table, num, tokens.getGenNr());
                     }
-                } else {
-                    reference = table.add(new PdfIndirectReference(pdfDocument,
-                            num, tokens.getGenNr(), 0).setState(PdfObject.READING));
                 }
-                return reference;
+                return readReference(table, num, tokens.getGenNr());
             case EndOfFile:
                 throw new PdfException(PdfException.UnexpectedEndOfFile);
             default:
@@ -618,6 +858,7 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected PdfName readPdfName(boolean readAsDirect) {
+        PdfTokenizer tokens = getTokenizer();
         if (readAsDirect) {
             PdfName cachedName = PdfName.staticNames.get(tokens.getStringValue());
             if (cachedName != null)
@@ -628,6 +869,7 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected PdfDictionary readDictionary(boolean objStm) throws IOException {
+        PdfTokenizer tokens = getTokenizer();
         PdfDictionary dic = new PdfDictionary();
         while (true) {
             tokens.nextValidToken();
@@ -649,6 +891,7 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected PdfArray readArray(boolean objStm) throws IOException {
+        PdfTokenizer tokens = getTokenizer();
         PdfArray array = new PdfArray();
         while (true) {
             PdfObject obj = readObject(true, objStm);
@@ -674,18 +917,40 @@ public class PdfReader implements Closeable, Serializable {
         long startxref = tokens.getLongValue();
         lastXref = startxref;
         eofPos = tokens.getPosition();
-        try {
-            if (readXrefStream(startxref)) {
-                xrefStm = true;
-                return;
+        if (properties.lazyXrefReading) {
+            try {
+                long prev = readXrefStreamSection(startxref);
+                if (prev != NOT_XREF_STREAM) {
+                    xrefStm = true;
+                    deferXrefSections(startxref, prev);
+                    return;
+                }
+            } catch (IOException e) {
+                logIgnoredException(LogMessageConstant.XREF_STREAM_ERROR, e);
+            } catch (PdfException e) {
+                logIgnoredException(LogMessageConstant.XREF_STREAM_ERROR, e);
+            }
+        } else {
+            try {
+                if (readXrefStream(startxref)) {
+                    xrefStm = true;
+                    return;
+                }
+            } catch (Exception ignored) {
             }
-        } catch (Exception ignored) {
         }
         // clear xref because of possible issues at reading xref stream.
         pdfDocument.getXref().clear();
 
         tokens.seek(startxref);
         trailer = readXrefSection();
+        if (properties.lazyXrefReading) {
+            PdfNumber prev = (PdfNumber) trailer.get(PdfName.Prev);
+            if (prev != null) {
+                deferXrefSections(startxref, prev.longValue());
+                return;
+            }
+        }
 
         //  Prev key - integer value
         //  (Present only if the file has more than one cross-reference section; shall be an indirect reference)
@@ -710,6 +975,8 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected PdfDictionary readXrefSection() throws IOException {
+        // the deferred sections are read with the tokenizer of the reading thread
+        PdfTokenizer tokens = getTokenizer();
         tokens.nextValidToken();
         if (!tokens.tokenValueEqualsTo(PdfTokenizer.Xref))
             tokens.throwError(PdfException.XrefSubsectionNotFound);
@@ -728,34 +995,16 @@ public class PdfReader implements Closeable, Serializable {
                 tokens.throwError(PdfException.NumberOfEntriesInThisXrefSubsectionNotFound);
             }
             int end = tokens.getIntValue() + start;
-            for (int num = start; num < end; num++) {
+            xref.setCapacity(end);
+            // The entries which don't match the fixed width format are tokenized.
+            for (int num = start + readFixedWidthXrefEntries(xref, start, end); num < end; num++) {
                 tokens.nextValidToken();
                 long pos = tokens.getLongValue();
                 tokens.nextValidToken();
                 int gen = tokens.getIntValue();
                 tokens.nextValidToken();
-                PdfIndirectReference reference = xref.get(num);
-                if (reference == null) {
-                    reference = new PdfIndirectReference(pdfDocument, num, gen, pos);
-                } else if (reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen) {
-                    reference.setOffset(pos);
-                    reference.clearState(PdfObject.READING);
-                } else {
-                    continue;
-                }
-                if (tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
-                    if (xref.get(num) == null) {
-                        if (pos == 0)
-                            tokens.throwError(PdfException.FilePosition0CrossReferenceEntryInThisXrefSubsection);
-                        xref.add(reference);
-                    }
-                } else if (tokens.tokenValueEqualsTo(PdfTokenizer.F)) {
-                    if (xref.get(num) == null) {
-                        reference.setFree();
-                        xref.add(reference);
-                    }
-                } else
-                    tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
+                int type = tokens.tokenValueEqualsTo(PdfTokenizer.N) ? 'n' : tokens.tokenValueEqualsTo(PdfTokenizer.F) ? 'f' : 0;
+                readXrefEntry(xref, num, pos, gen, type);
             }
         }
         PdfDictionary trailer = (PdfDictionary) readObject(false);
@@ -774,19 +1023,131 @@ public class PdfReader implements Closeable, Serializable {
         return trailer;
     }
 
+    /**
+     * Reads the entries of the cross-reference subsection straight from the file, as long as they have the fixed
+     * width format of the specification, i.e. 10 digit offset, 5 digit generation, type and two byte end of line.
+     * Stops at the first entry of another format and leaves the tokenizer right before it.
+     *
+     * @param xref  the table the entries are added to.
+     * @param start the number of the first entry of the subsection.
+     * @param end   the number following the last entry of the subsection.
+     * @return the number of the read entries.
+     * @throws IOException on error.
+     */
+    private int readFixedWidthXrefEntries(PdfXrefTable xref, int start, int end) throws IOException {
+        PdfTokenizer tokens = getTokenizer();
+        int ch;
+        do {
+            ch = tokens.read();
+        } while (ch == ' ' || ch == '\r' || ch == '\n');
+        long position = tokens.getPosition() - (ch == -1 ? 0 : 1);
+        long available = (tokens.length() - position) / XREF_ENTRY_LENGTH;
+        int num = start;
+        byte[] entries = null;
+        while (num < end && available > 0) {
+            int count = (int) Math.min(Math.min(end - num, available), XREF_ENTRIES_PER_READ);
+            if (entries == null || entries.length != count * XREF_ENTRY_LENGTH) {
+                entries = new byte[count * XREF_ENTRY_LENGTH];
+            }
+            tokens.seek(position);
+            tokens.readFully(entries);
+            int read = 0;
+            for (int offset = 0; read < count; read++, offset += XREF_ENTRY_LENGTH) {
+                long pos = parseXrefDigits(entries, offset, 10);
+                long gen = parseXrefDigits(entries, offset + 11, 5);
+                int type = entries[offset + 17];
+                if (pos < 0 || gen < 0 || entries[offset + 10] != ' ' || entries[offset + 16] != ' ' || type != 'n' && type != 'f'
+                        || !isXrefEntryEol(entries[offset + 18]) || !isXrefEntryEol(entries[offset + 19])) {
+                    break;
+                }
+                readXrefEntry(xref, num++, pos, (int) gen, type);
+            }
+            position += (long) read * XREF_ENTRY_LENGTH;
+            available -= read;
+            if (read < count) {
+                break;
+            }
+        }
+        tokens.seek(position);
+        return num - start;
+    }
+
+    /**
+     * Adds the entry read from the cross-reference table, unless the entry of the newer revision has already been read.
+     *
+     * @param xref the table the entry is added to.
+     * @param num  the object number.
+     * @param pos  the offset of the object.
+     * @param gen  the generation number.
+     * @param type 'n' for in use entry, 'f' for free entry, any other value for invalid entry.
+     */
+    private void readXrefEntry(PdfXrefTable xref, int num, long pos, int gen, int type) {
+        // Entries of the newer sections are read first, only references met before their entry are updated.
+        boolean newEntry = !xref.hasEntry(num);
+        if (!newEntry) {
+            PdfIndirectReference reference = xref.getCreatedReference(num);
+            if (reference == null || !reference.checkState(PdfObject.READING) || reference.getGenNumber() != gen) {
+                return;
+            }
+            reference.setOffset(pos);
+            reference.clearState(PdfObject.READING);
+        }
+        if (type == 'n') {
+            if (newEntry) {
+                if (pos == 0)
+                    tokens.throwError(PdfException.FilePosition0CrossReferenceEntryInThisXrefSubsection);
+                xref.addEntry(num, gen, pos);
+            }
+        } else if (type == 'f') {
+            if (newEntry) {
+                xref.addFreeEntry(num, gen);
+            }
+        } else
+            tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
+    }
+
+    private static long parseXrefDigits(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isXrefEntryEol(byte ch) {
+        return ch == ' ' || ch == '\r' || ch == '\n';
+    }
+
     protected boolean readXrefStream(long ptr) throws IOException {
+        long prev = readXrefStreamSection(ptr);
+        return prev != NOT_XREF_STREAM && (prev == -1 || readXrefStream(prev));
+    }
+
+    /**
+     * Reads single cross-reference stream without the streams of the previous revisions.
+     *
+     * @param ptr offset of the cross-reference stream.
+     * @return offset of the previous cross-reference stream, -1 if there is no one,
+     * or {@link #NOT_XREF_STREAM} if there is no cross-reference stream at the given offset.
+     */
+    private long readXrefStreamSection(long ptr) throws IOException {
+        PdfTokenizer tokens = getTokenizer();
         tokens.seek(ptr);
         if (!tokens.nextToken()) {
-            return false;
+            return NOT_XREF_STREAM;
         }
         if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-            return false;
+            return NOT_XREF_STREAM;
         }
         if (!tokens.nextToken() || tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-            return false;
+            return NOT_XREF_STREAM;
         }
         if (!tokens.nextToken() || !tokens.tokenValueEqualsTo(PdfTokenizer.Obj)) {
-            return false;
+            return NOT_XREF_STREAM;
         }
         PdfXrefTable xref = pdfDocument.getXref();
         PdfObject object = readObject(false);
@@ -794,10 +1155,10 @@ public class PdfReader implements Closeable, Serializable {
         if (object.getType() == PdfObject.STREAM) {
             xrefStream = (PdfStream) object;
             if (!PdfName.XRef.equals(xrefStream.get(PdfName.Type))) {
-                return false;
+                return NOT_XREF_STREAM;
             }
         } else {
-            return false;
+            return NOT_XREF_STREAM;
         }
         if (trailer == null) {
             trailer = new PdfDictionary();
@@ -851,45 +1212,183 @@ public class PdfReader implements Closeable, Serializable {
                     field3 = (field3 << 8) + (b[bptr++] & 0xff);
                 }
                 int base = start;
-                PdfIndirectReference newReference;
-                switch (type) {
-                    case 0:
-                        if (base == 0) {
-                            //indirect reference with number = 0 can't be overridden
-                            //xref table already has indirect reference 0 65535 R
-                            newReference = xref.get(base);
+                if (type > 2) {
+                    throw new PdfException(PdfException.InvalidXrefStream);
+                }
+                //indirect reference with number = 0 can't be overridden
+                //xref table already has indirect reference 0 65535 R
+                if (!xref.hasEntry(base)) {
+                    switch (type) {
+                        case 0:
+                            xref.addFreeEntry(base, field3);
+                            break;
+                        case 1:
+                            xref.addEntry(base, field3, field2);
+                            break;
+                        default:
+                            xref.addCompressedEntry(base, (int) field2, field3);
+                            break;
+                    }
+                } else {
+                    PdfIndirectReference reference = xref.getCreatedReference(base);
+                    if (reference != null && reference.checkState(PdfObject.READING)
+                            && reference.getGenNumber() == (type == 2 ? 0 : field3)) {
+                        if (type == 2) {
+                            reference.setOffset(field3);
+                            reference.setObjStreamNumber((int) field2);
                         } else {
-                            newReference = new PdfIndirectReference(pdfDocument, base, field3, 0);
-                            newReference.setFree();
+                            reference.setOffset(type == 1 ? field2 : 0);
                         }
-                        break;
-                    case 1:
-                        newReference = new PdfIndirectReference(pdfDocument, base, field3, field2);
-                        break;
-                    case 2:
-                        newReference = new PdfIndirectReference(pdfDocument, base, 0, field3);
-                        newReference.setObjStreamNumber((int) field2);
-                        break;
-                    default:
-                        throw new PdfException(PdfException.InvalidXrefStream);
-                }
-                if (xref.get(base) == null) {
-                    xref.add(newReference);
-                } else if (xref.get(base).checkState(PdfObject.READING)
-                        && xref.get(base).getObjNumber() == newReference.getObjNumber()
-                        && xref.get(base).getGenNumber() == newReference.getGenNumber()) {
-                    PdfIndirectReference reference = xref.get(base);
-                    reference.setOffset(newReference.getOffset());
-                    reference.setObjStreamNumber(newReference.getObjStreamNumber());
-                    reference.clearState(PdfObject.READING);
+                        reference.clearState(PdfObject.READING);
+                    }
                 }
                 ++start;
             }
         }
-        return prev == -1 || readXrefStream(prev);
+        return prev;
+    }
+
+    /**
+     * Defers reading of the cross-reference sections of the previous revisions until an object,
+     * which is absent in the already read sections, is requested.
+     *
+     * @param startxref offset of the read cross-reference section.
+     * @param prev      offset of the previous cross-reference section, or -1 if there is no one.
+     */
+    private void deferXrefSections(long startxref, long prev) throws IOException {
+        if (prev == -1) {
+            return;
+        }
+        readXrefSections = new HashSet<>();
+        readXrefSections.add(startxref);
+        pendingXref = prev;
+        if (trailer.get(PdfName.Encrypt) != null) {
+            // Decryption is set up right after opening, all the entries shall be available at this moment.
+            readPendingXrefSections(-1);
+            return;
+        }
+        IRandomAccessSource source = concurrentSource != null
+                ? new IndependentRandomAccessSource(concurrentSource)
+                : tokens.getSafeFile().createSourceView();
+        pendingXrefTokens = new PdfTokenizer(new RandomAccessFileOrArray(source));
+        Integer xrefSize = trailer.getAsInt(PdfName.Size);
+        if (xrefSize != null) {
+            pdfDocument.getXref().reserveSize((int) xrefSize);
+        }
     }
 
-    protected void fixXref() throws IOException {
+    /**
+     * Reads the cross-reference sections of the previous revisions, which have been deferred in lazy
+     * cross-reference reading mode, until the entry of the requested object is found.
+     *
+     * @param objNr number of the requested object.
+     * @return true if the entry of the requested object is available.
+     */
+    boolean readPendingXref(int objNr) {
+        if (pendingXref == -1) {
+            return false;
+        }
+        PdfXrefTable xref = pdfDocument.getXref();
+        synchronized (xref) {
+            // Objects referenced from the trailers are requested while the sections are being read.
+            if (pendingXref == -1 || readingPendingXref) {
+                return false;
+            }
+            readingPendingXref = true;
+            // only the reading thread switches to the private tokenizer of the deferred sections
+            PdfTokenizer saveThreadTokens = getTokenizer();
+            setTokenizer(pendingXrefTokens);
+            try {
+                readPendingXrefSections(objNr);
+            } catch (IOException | RuntimeException e) {
+                pendingXref = -1;
+                Logger logger = LoggerFactory.getLogger(PdfReader.class);
+                logger.error(LogMessageConstant.PENDING_XREF_ERROR, e);
+            } finally {
+                setTokenizer(saveThreadTokens);
+                readingPendingXref = false;
+            }
+            return isXrefEntryRead(xref, objNr);
+        }
+    }
+
+    private void readPendingXrefSections(int objNr) throws IOException {
+        PdfXrefTable xref = pdfDocument.getXref();
+        while (pendingXref != -1 && (objNr < 0 || !isXrefEntryRead(xref, objNr))) {
+            long ptr = pendingXref;
+            pendingXref = -1;
+            if (!readXrefSections.add(ptr)) {
+                throw new PdfException(PdfException.TrailerPrevEntryPointsToItsOwnCrossReferenceSection);
+            }
+            if (xrefStm && !hybridXref) {
+                pendingXref = readXrefStreamSection(ptr);
+                if (pendingXref == NOT_XREF_STREAM) {
+                    pendingXref = -1;
+                    throw new PdfException(PdfException.InvalidXrefStream);
+                }
+            } else {
+                getTokenizer().seek(ptr);
+                PdfNumber prev = (PdfNumber) readXrefSection().get(PdfName.Prev);
+                pendingXref = prev == null ? -1 : prev.longValue();
+            }
+        }
+    }
+
+    private static boolean isXrefEntryRead(PdfXrefTable xref, int objNr) {
+        PdfIndirectReference reference = xref.getCreatedReference(objNr);
+        return reference != null ? !reference.checkState(PdfObject.READING) : xref.hasEntry(objNr);
+    }
+
+    /**
+     * Reads the linearization parameter dictionary, which is the first object of the linearized document.
+     * The parameters are ignored if the document has been updated after linearization.
+     */
+    private void readLinearizationParameters() {
+        try {
+            tokens.seek(0);
+            tokens.nextValidToken();
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Obj) {
+                return;
+            }
+            PdfObject object = readObject(false);
+            if (object.getType() != PdfObject.DICTIONARY || !((PdfDictionary) object).containsKey(PdfName.Linearized)) {
+                return;
+            }
+            PdfNumber length = ((PdfDictionary) object).getAsNumber(PdfName.L);
+            PdfNumber firstPage = ((PdfDictionary) object).getAsNumber(PdfName.O);
+            if (length != null && firstPage != null && length.longValue() == getFileLength()) {
+                linearizedFirstPage = firstPage.intValue();
+            }
+        } catch (IOException e) {
+            logIgnoredException(LogMessageConstant.LINEARIZATION_PARAMETERS_ERROR, e);
+        } catch (PdfException e) {
+            logIgnoredException(LogMessageConstant.LINEARIZATION_PARAMETERS_ERROR, e);
+        }
+    }
+
+    private static void logIgnoredException(String message, Exception e) {
+        Logger logger = LoggerFactory.getLogger(PdfReader.class);
+        logger.debug(message, e);
+    }
+
+    /**
+     * Gets the first page object of the linearized document, which may be accessed without reading the page tree.
+     *
+     * @return first page dictionary, or null if the document is not linearized or the page cannot be read.
+     */
+    PdfDictionary getLinearizedFirstPage() {
+        if (linearizedFirstPage <= 0) {
+            return null;
+        }
+        PdfObject page = pdfDocument.getPdfObject(linearizedFirstPage);
+        if (page != null && page.getType() == PdfObject.DICTIONARY
+                && PdfName.Page.equals(((PdfDictionary) page).getAsName(PdfName.Type))) {
+            return (PdfDictionary) page;
+        }
+        return null;
+    }
+
+    protected synchronized void fixXref() throws IOException {
         fixedXref = true;
         PdfXrefTable xref = pdfDocument.getXref();
         tokens.seek(0);
@@ -915,6 +1414,10 @@ public class PdfReader implements Closeable, Serializable {
     }
 
     protected void rebuildXref() throws IOException {
+        pendingXref = -1;
+        if (objectStreamCache != null) {
+            objectStreamCache.clear();
+        }
         xrefStm = false;
         hybridXref = false;
         rebuiltXref = true;
@@ -981,29 +1484,160 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException if there is a problem reading the byte source
      */
     private static PdfTokenizer getOffsetTokeniser(IRandomAccessSource byteSource) throws IOException {
+        return new PdfTokenizer(new RandomAccessFileOrArray(getOffsetSource(byteSource)));
+    }
+
+    /**
+     * Utility method that checks the provided byte source to see if it has junk bytes at the beginning.  If junk bytes
+     * are found, a source that ignores the junk is constructed.  Otherwise the byte source is returned as it is
+     *
+     * @param byteSource the source to check
+     * @return a source that is guaranteed to start at the PDF header
+     * @throws IOException if there is a problem reading the byte source
+     */
+    private static IRandomAccessSource getOffsetSource(IRandomAccessSource byteSource) throws IOException {
         PdfTokenizer tok = new PdfTokenizer(new RandomAccessFileOrArray(byteSource));
         int offset = tok.getHeaderOffset();
         if (offset != 0) {
-            IRandomAccessSource offsetSource = new WindowRandomAccessSource(byteSource, offset);
-            tok = new PdfTokenizer(new RandomAccessFileOrArray(offsetSource));
+            return new WindowRandomAccessSource(byteSource, offset);
+        }
+        return byteSource;
+    }
+
+    /**
+     * Gets the tokenizer to be used by the current thread. In concurrent reading mode every thread gets its own
+     * tokenizer, which has independent file pointer and buffer over the shared source.
+     */
+    private PdfTokenizer getTokenizer() {
+        if (concurrentState == null) {
+            return tokens;
+        }
+        ThreadState state = getThreadState();
+        if (state.tokens == null) {
+            state.tokens = new PdfTokenizer(new RandomAccessFileOrArray(
+                    new GetBufferedRandomAccessSource(new IndependentRandomAccessSource(concurrentSource))));
+        }
+        return state.tokens;
+    }
+
+    private void setTokenizer(PdfTokenizer tokenizer) {
+        if (concurrentState == null) {
+            tokens = tokenizer;
+        } else {
+            getThreadState().tokens = tokenizer;
+        }
+    }
+
+    private PdfIndirectReference getCurrentIndirectReference() {
+        return concurrentState == null ? currentIndirectReference : getThreadState().currentIndirectReference;
+    }
+
+    private void setCurrentIndirectReference(PdfIndirectReference reference) {
+        if (concurrentState == null) {
+            currentIndirectReference = reference;
+        } else {
+            getThreadState().currentIndirectReference = reference;
+        }
+    }
+
+    private void initConcurrentState() {
+        concurrentState = new ThreadLocal<>();
+        concurrentStates = new ArrayList<>();
+    }
+
+    private ThreadState getThreadState() {
+        ThreadState state = concurrentState.get();
+        if (state == null) {
+            state = new ThreadState();
+            synchronized (concurrentStates) {
+                concurrentStates.add(state);
+            }
+            concurrentState.set(state);
         }
-        return tok;
+        return state;
+    }
+
+    private PdfObject readReference(PdfXrefTable table, int num, int gen) {
+        // Entries of the sections, which have not been read yet, are looked for only when the object is requested.
+        PdfIndirectReference reference = pendingXref != -1 && !table.hasEntry(num) ? null : table.get(num);
+        if (reference != null) {
+            if (reference.isFree()) {
+                return PdfNull.PDF_NULL;
+            }
+            if (reference.getGenNumber() != gen) {
+                if (fixedXref) {
+                    Logger logger = LoggerFactory.getLogger(PdfReader.class);
+                    logger.warn(MessageFormat.format(LogMessageConstant.INVALID_INDIRECT_REFERENCE + " {0} {1} R", num, gen));
+                    return new PdfNull();
+                } else {
+                    throw new PdfException(PdfException.InvalidIndirectReference1);
+                }
+            }
+        } else {
+            reference = table.add(new PdfIndirectReference(pdfDocument,
+                    num, gen, 0).setState(PdfObject.READING));
+        }
+        return reference;
     }
 
     private PdfObject readObject(PdfIndirectReference reference, boolean fixXref) {
         if (reference == null)
             return null;
+        if (pendingXref != -1 && reference.checkState(PdfObject.READING)) {
+            readPendingXref(reference.getObjNumber());
+        }
+        if (concurrentState != null) {
+            synchronized (reference) {
+                if (reference.refersTo != null)
+                    return reference.refersTo;
+            }
+            PdfObject object = readObjectFromSource(reference, fixXref);
+            // Several threads may read the same object simultaneously, only the first read object is published.
+            synchronized (reference) {
+                if (reference.refersTo != null) {
+                    return reference.refersTo;
+                }
+                reference.refersTo = object;
+            }
+            if (objectCache != null && object != null) {
+                objectCache.add(reference, object);
+            }
+            return object;
+        }
         if (reference.refersTo != null)
             return reference.refersTo;
+        PdfObject object = readObjectFromSource(reference, fixXref);
+        // objects of object streams are registered when the stream is read
+        if (objectCache != null && object != null && reference.refersTo == null) {
+            reference.refersTo = object;
+            objectCache.add(reference, object);
+        }
+        return object;
+    }
+
+    PdfObjectCache getObjectCache() {
+        return objectCache;
+    }
+
+    private PdfObject readObjectFromSource(PdfIndirectReference reference, boolean fixXref) {
         try {
-            currentIndirectReference = reference;
+            setCurrentIndirectReference(reference);
             if (reference.getObjStreamNumber() > 0) {
-                PdfStream objectStream = (PdfStream) pdfDocument.getXref().
-                        get(reference.getObjStreamNumber()).getRefersTo(false);
-                readObjectStream(objectStream);
-                return reference.refersTo;
+                PdfObjectStreamCache cache = getObjectStreamCache();
+                PdfObjectStreamCache.DecodedObjectStream decoded = cache != null ? cache.get(reference.getObjStreamNumber()) : null;
+                PdfObject object;
+                if (decoded != null) {
+                    // the object has been released after the stream was read, the other objects are kept as is
+                    object = readObjectStreamObjects(decoded, reference, true);
+                } else {
+                    PdfStream objectStream = (PdfStream) pdfDocument.getXref().
+                            get(reference.getObjStreamNumber()).getRefersTo(false);
+                    object = readObjectStreamObjects(decodeObjectStream(objectStream), reference, false);
+                }
+                return object != null ? object : reference.refersTo;
             } else if (reference.getOffset() > 0) {
                 PdfObject object;
+                PdfTokenizer tokens = getTokenizer();
                 try {
                     tokens.seek(reference.getOffset());
                     tokens.nextValidToken();
@@ -1030,9 +1664,148 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
+    private void correctStreamLength(PdfStream stream) throws IOException {
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type)) {
+            if (concurrentState != null) {
+                synchronized (stream) {
+                    checkPdfStreamLength(stream);
+                }
+            } else {
+                checkPdfStreamLength(stream);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the stream has either no filters or the only FlateDecode filter without predictor,
+     * so it can be decoded on the fly.
+     */
+    private static boolean isStreamingDecodeSupported(PdfStream stream) {
+        PdfObject filter = stream.get(PdfName.Filter);
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getType() == PdfObject.ARRAY) {
+            PdfArray filters = (PdfArray) filter;
+            if (filters.size() != 1) {
+                return false;
+            }
+            filter = filters.get(0);
+        }
+        if (!PdfName.FlateDecode.equals(filter) && !PdfName.FL.equals(filter)) {
+            return false;
+        }
+        PdfObject decodeParams = stream.get(PdfName.DecodeParms);
+        if (decodeParams == null) {
+            decodeParams = stream.get(PdfName.DP);
+        }
+        if (decodeParams != null && decodeParams.getType() == PdfObject.ARRAY) {
+            decodeParams = ((PdfArray) decodeParams).size() > 0 ? ((PdfArray) decodeParams).get(0) : null;
+        }
+        if (decodeParams == null || decodeParams.getType() != PdfObject.DICTIONARY) {
+            return true;
+        }
+        PdfNumber predictor = ((PdfDictionary) decodeParams).getAsNumber(PdfName.Predictor);
+        return predictor == null || predictor.intValue() < 10 && predictor.intValue() != 2;
+    }
+
+    /**
+     * Gets a read-only view of the raw stream bytes in the source, if the source supports it and the stream is large enough.
+     * The stream length shall be corrected beforehand.
+     */
+    private java.nio.ByteBuffer getStreamByteBufferView(PdfStream stream) throws IOException {
+        long offset = stream.getOffset();
+        int length = stream.getLength();
+        if (offset <= 0 || length < MIN_STREAM_VIEW_LENGTH) {
+            return null;
+        }
+        IRandomAccessSource source = concurrentSource != null ? concurrentSource : tokens.getSafeFile().createSourceView();
+        if (source instanceof IByteBufferRandomAccessSource) {
+            java.nio.ByteBuffer view = ((IByteBufferRandomAccessSource) source).getByteBuffer(offset, length);
+            if (view != null && view.remaining() == length) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] decodeBytes(byte[] b, PdfArray filters, PdfArray dp, int firstFilter, PdfDictionary streamDictionary,
+                                      Map<PdfName, IFilterHandler> filterHandlers) {
+        for (int j = firstFilter; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (filterHandler == null)
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+
+            b = filterHandler.decode(b, filterName, getDecodeParams(dp, j), streamDictionary);
+        }
+        return b;
+    }
+
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
+        PdfObject filter = streamDictionary.get(PdfName.Filter);
+        PdfArray filters = new PdfArray();
+        if (filter != null) {
+            if (filter.getType() == PdfObject.NAME) {
+                filters.add(filter);
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                filters = ((PdfArray) filter);
+            }
+        }
+        return filters;
+    }
+
+    private static PdfArray getDecodeParams(PdfDictionary streamDictionary) {
+        PdfArray dp = new PdfArray();
+        PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
+        if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
+            if (dpo != null) dpo.release();
+            dpo = streamDictionary.get(PdfName.DP);
+        }
+        if (dpo != null) {
+            if (dpo.getType() == PdfObject.DICTIONARY) {
+                dp.add(dpo);
+            } else if (dpo.getType() == PdfObject.ARRAY) {
+                dp = ((PdfArray) dpo);
+            }
+            dpo.release();
+        }
+        return dp;
+    }
+
+    private static PdfDictionary getDecodeParams(PdfArray dp, int filterIndex) {
+        if (filterIndex >= dp.size()) {
+            return null;
+        }
+        PdfObject dpEntry = dp.get(filterIndex, true);
+        if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
+            return null;
+        } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+            return (PdfDictionary) dpEntry;
+        } else {
+            throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
+        }
+    }
+
+    private static void writeBytes(java.nio.ByteBuffer b, java.io.OutputStream output) throws IOException {
+        if (b.hasArray()) {
+            output.write(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            b.position(b.limit());
+        } else {
+            byte[] chunk = new byte[Math.min(b.remaining(), 8192)];
+            while (b.hasRemaining()) {
+                int len = Math.min(chunk.length, b.remaining());
+                b.get(chunk, 0, len);
+                output.write(chunk, 0, len);
+            }
+        }
+    }
+
     private void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
         if (!correctStreamLength)
             return;
+        PdfTokenizer tokens = getTokenizer();
         long fileLength = tokens.length();
         long start = pdfStream.getOffset();
         boolean calc = false;
@@ -1096,7 +1869,14 @@ public class PdfReader implements Closeable, Serializable {
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
         if (sourcePath != null && tokens == null) {
-            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath));
+            IRandomAccessSource byteSource = new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath);
+            if (properties.concurrentReading) {
+                concurrentSource = getOffsetSource(new ThreadSafeRandomAccessSource(byteSource));
+                tokens = new PdfTokenizer(new RandomAccessFileOrArray(new GetBufferedRandomAccessSource(concurrentSource)));
+                initConcurrentState();
+            } else {
+                tokens = getOffsetTokeniser(byteSource);
+            }
         }
     }
 
@@ -1153,4 +1933,36 @@ public class PdfReader implements Closeable, Serializable {
             buffer = null;
         }
     }
+
+    /**
+     * Inflates the stream on the fly. Like {@link com.itextpdf.kernel.pdf.filters.FlateDecodeFilter},
+     * treats corrupted data as the end of the stream and returns everything that was decoded before it.
+     */
+    private static class LenientInflaterInputStream extends java.util.zip.InflaterInputStream {
+        private boolean corrupted = false;
+
+        public LenientInflaterInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (corrupted)
+                return -1;
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                corrupted = true;
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Reading state of a single thread in concurrent reading mode.
+     */
+    private static class ThreadState {
+        PdfTokenizer tokens;
+        PdfIndirectReference currentIndirectReference;
+    }
 }
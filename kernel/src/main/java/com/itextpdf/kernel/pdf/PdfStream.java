@@ -62,6 +62,8 @@ public class PdfStream extends PdfDictionary {
     // Output stream associated with PDF stream.
     private PdfOutputStream outputStream;
     private InputStream inputStream;
+    // Stream, which encoded content is written to the output as it is, instead of the content of this stream.
+    private PdfStream rawContentSource;
     private long offset;
     private int length = -1;
 
@@ -391,9 +393,18 @@ public class PdfStream extends PdfDictionary {
 
     @Override
     protected void copyContent(PdfObject from, PdfDocument document) {
-        super.copyContent(from, document);
         PdfStream stream = (PdfStream) from;
         assert inputStream == null : "Try to copy the PdfStream that has been just created.";
+        if (document != null && document.getWriter() != null && document.getWriter().isRawContentCopyingAllowed(stream)) {
+            // The length is written directly along with the raw content, an indirect length object is not copied,
+            // otherwise it would be left in the document without any reference to it.
+            PdfObject length = stream.get(PdfName.Length, false);
+            copyContent(from, document, length != null && length.isIndirectReference() ? PdfName.Length : null);
+            rawContentSource = stream;
+            outputStream = null;
+            return;
+        }
+        super.copyContent(from, document);
         byte[] bytes = stream.getBytes(false);
         try {
             outputStream.write(bytes);
@@ -412,6 +423,7 @@ public class PdfStream extends PdfDictionary {
      */
     protected void releaseContent() {
         super.releaseContent();
+        rawContentSource = null;
         try {
             if (outputStream != null) {
                 outputStream.close();
@@ -425,4 +437,13 @@ public class PdfStream extends PdfDictionary {
     protected InputStream getInputStream(){
         return inputStream;
     }
+
+    /**
+     * Gets the stream which encoded content is to be written to the output instead of the content of this stream.
+     *
+     * @return the stream this stream was copied from in raw stream copying mode, or null
+     */
+    PdfStream getRawContentSource() {
+        return rawContentSource;
+    }
 }
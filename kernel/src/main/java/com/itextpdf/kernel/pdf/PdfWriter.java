@@ -45,9 +45,14 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.FileChannelOutputStream;
+import com.itextpdf.io.source.IByteBufferRandomAccessSource;
+import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.util.FileUtil;
 import com.itextpdf.io.util.IntHashtable;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.FontSubsetCache;
+import com.itextpdf.kernel.font.PdfFont;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,10 +61,17 @@ import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.OutputStream;
 import java.io.Serializable;
-import java.security.MessageDigest;
-import java.util.Arrays;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import static com.itextpdf.io.source.ByteUtils.getIsoBytes;
 
@@ -70,6 +82,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     private static final byte[] obj = getIsoBytes(" obj\n");
     private static final byte[] endobj = getIsoBytes("\nendobj\n");
 
+    // Maximal size of the memory mapped ranges, in which the source is copied to a file channel
+    private static final int SOURCE_CHUNK_SIZE = 1 << 26;
+
     // For internal usage only
     private PdfOutputStream duplicateStream = null;
 
@@ -89,14 +104,28 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     protected Map<Integer, PdfIndirectReference> copiedObjects = new HashMap<>();
 
     /**
-     * Is used in smart mode to store serialized objects content.
+     * Is used in smart mode to find previously copied objects with the same content.
      */
-    private HashMap<SerializedPdfObject, PdfIndirectReference> serializedContentToObjectRef = new HashMap<>();
-    private HashMap<Integer, byte[]> objectRefToSerializedContent = new HashMap<>();
+    private SmartModeFingerprintIndex smartModeIndex;
 
     //forewarned is forearmed
     protected boolean isUserWarnedAboutAcroFormCopying;
 
+    /**
+     * Indicates if the flushed streams are compressed in parallel, until the cross-reference table is written.
+     */
+    private transient boolean parallelCompression;
+
+    /**
+     * Pool compressing stream content in parallel mode, created on the first use.
+     */
+    private transient ExecutorService compressionExecutor;
+
+    /**
+     * Flushed streams which content is being compressed, in the order they were flushed.
+     */
+    private transient ArrayDeque<PendingStream> pendingStreams;
+
     public PdfWriter(java.io.OutputStream os) {
         this(os, new WriterProperties());
     }
@@ -115,6 +144,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (properties.debugMode) {
             setDebugMode();
         }
+        if (properties.compressionThreads > 0) {
+            parallelCompression = true;
+            pendingStreams = new ArrayDeque<>();
+        }
     }
 
     public PdfWriter(String filename) throws FileNotFoundException {
@@ -125,6 +158,29 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         this(FileUtil.getBufferedOutputStream(filename), properties);
     }
 
+    /**
+     * Creates a writer which writes to the channel at its current position through a large direct buffer.
+     * The channel is closed when the document is closed, unless {@link #setCloseStream(boolean)} is called
+     * with {@code false}.
+     *
+     * @param channel the channel to write to
+     */
+    public PdfWriter(FileChannel channel) {
+        this(channel, new WriterProperties());
+    }
+
+    /**
+     * Creates a writer which writes to the channel at its current position through a large direct buffer.
+     * The channel is closed when the document is closed, unless {@link #setCloseStream(boolean)} is called
+     * with {@code false}.
+     *
+     * @param channel    the channel to write to
+     * @param properties the writer properties
+     */
+    public PdfWriter(FileChannel channel, WriterProperties properties) {
+        this(new FileChannelOutputStream(channel), properties);
+    }
+
     /**
      * Indicates if to use full compression mode.
      *
@@ -144,6 +200,16 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return properties.compressionLevel;
     }
 
+    /**
+     * Gets the cache of font subsets shared with other documents.
+     *
+     * @return the cache set with {@link WriterProperties#useFontSubsetCache(FontSubsetCache)},
+     * or {@code null} if font subsets are not cached
+     */
+    public FontSubsetCache getFontSubsetCache() {
+        return properties.fontSubsetCache;
+    }
+
     /**
      * Sets default compression level for @see PdfStream.
      * For more details @see {@link java.util.zip.Deflater}.
@@ -169,6 +235,16 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return this;
     }
 
+    /**
+     * Gets statistics of the smart mode: how many copied objects were replaced with previously copied objects
+     * with the same content and how much memory is taken to find them.
+     *
+     * @return the smart mode statistics
+     */
+    public SmartModeStatistics getSmartModeStatistics() {
+        return smartModeIndex != null ? smartModeIndex.getStatistics() : new SmartModeStatistics(0, 0, 0, 0);
+    }
+
     @Override
     public void write(int b) throws java.io.IOException {
         super.write(b);
@@ -195,6 +271,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
 
     @Override
     public void close() throws IOException {
+        if (compressionExecutor != null) {
+            compressionExecutor.shutdownNow();
+            compressionExecutor = null;
+        }
         super.close();
         if (duplicateStream != null) {
             duplicateStream.close();
@@ -215,7 +295,8 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream = new PdfObjectStream(document);
         } else if (objectStream.getSize() == PdfObjectStream.MAX_OBJ_STREAM_SIZE) {
             objectStream.flush();
-            objectStream = new PdfObjectStream(objectStream);
+            // buffers of a stream which is being compressed in parallel can't be reused
+            objectStream = parallelCompression ? new PdfObjectStream(document) : new PdfObjectStream(objectStream);
         }
         return objectStream;
     }
@@ -230,9 +311,14 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushObject(PdfObject pdfObject, boolean canBeInObjStm) throws IOException {
         PdfIndirectReference indirectReference = pdfObject.getIndirectReference();
+        boolean isPending = false;
         if (isFullCompression() && canBeInObjStm) {
             PdfObjectStream objectStream = getObjectStream();
             objectStream.addObject(pdfObject);
+        } else if (parallelCompression && pdfObject.getType() == PdfObject.STREAM
+                && prepareContentCompression((PdfStream) pdfObject)) {
+            compressInParallel((PdfStream) pdfObject);
+            isPending = true;
         } else {
             indirectReference.setOffset(getCurrentPos());
             writeToBody(pdfObject);
@@ -255,7 +341,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             case PdfObject.DICTIONARY:
                 PdfDictionary dictionary = ((PdfDictionary) pdfObject);
                 markDictionaryContentToFlush(dictionary);
-                dictionary.releaseContent();
+                // content of a pending stream is released once the stream is written
+                if (!isPending) {
+                    dictionary.releaseContent();
+                }
                 break;
             case PdfObject.INDIRECT_REFERENCE:
                 markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
@@ -282,15 +371,17 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             copyObjectKey = calculateIndRefKey(indirectReference);
             PdfIndirectReference copiedIndirectReference = copiedObjects.get(copyObjectKey);
             if (copiedIndirectReference != null)
-                return copiedIndirectReference.getRefersTo();
+                return getCopiedObject(copiedIndirectReference);
         }
 
-        if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page)) {
-            PdfIndirectReference copiedObjectRef = tryToFindPreviouslyCopiedEqualObject(obj);
-            if (copiedObjectRef != null) {
-                PdfIndirectReference copiedIndirectReference = copiedObjects.get(calculateIndRefKey(copiedObjectRef));
+        SmartModeFingerprintIndex.Fingerprint fingerprint = null;
+        if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page)
+                && (obj.isStream() || obj.isDictionary())) {
+            fingerprint = getSmartModeIndex().getFingerprint(obj);
+            PdfIndirectReference copiedIndirectReference = smartModeIndex.findCopiedObject(fingerprint);
+            if (copiedIndirectReference != null) {
                 copiedObjects.put(copyObjectKey, copiedIndirectReference);
-                return copiedIndirectReference.getRefersTo();
+                return getCopiedObject(copiedIndirectReference);
             }
         }
 
@@ -300,12 +391,35 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
                 copyObjectKey = calculateIndRefKey(indirectReference);
             PdfIndirectReference indRef = newObject.makeIndirect(document).getIndirectReference();
             copiedObjects.put(copyObjectKey, indRef);
+            if (fingerprint != null) {
+                smartModeIndex.addCopiedObject(fingerprint, indRef);
+            }
         }
         newObject.copyContent(obj, document);
+        if (newObject.isStream() && ((PdfStream) newObject).getRawContentSource() != null) {
+            // The content is written while the source document is surely open
+            newObject.flush();
+        }
 
         return newObject;
     }
 
+    /**
+     * Checks whether the encoded content of a stream that is copied to the document can be written to the output
+     * straight from the source document.
+     *
+     * @param stream the stream to check
+     * @return true if the raw stream copying is enabled and the stream content is neither modified nor encrypted
+     */
+    boolean isRawContentCopyingAllowed(PdfStream stream) {
+        if (!properties.rawStreamCopying || properties.debugMode || crypto != null) {
+            return false;
+        }
+        PdfIndirectReference reference = stream.getIndirectReference();
+        return reference != null && reference.getReader() != null && !reference.getReader().isEncrypted()
+                && stream.getOffset() > 0 && stream.getOutputStream() == null && stream.getInputStream() == null;
+    }
+
     /**
      * Writes object to body of PDF document.
      *
@@ -314,16 +428,129 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      * @throws PdfException
      */
     protected void writeToBody(PdfObject pdfObj) throws IOException {
+        writeToBody(pdfObj, null);
+    }
+
+    /**
+     * Writes all the streams which are being compressed in parallel and stops parallel compression,
+     * so that objects flushed after this call are written immediately. Shall be called before writing
+     * cross-reference table.
+     *
+     * @throws IOException on error
+     */
+    void finishParallelCompression() throws IOException {
+        if (parallelCompression) {
+            while (!pendingStreams.isEmpty()) {
+                writePendingStream();
+            }
+            parallelCompression = false;
+            if (compressionExecutor != null) {
+                compressionExecutor.shutdown();
+                compressionExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Flushes the fonts in the given order. If parallel compression is enabled, the font files of the fonts,
+     * e.g. the subsets of the font programs, are prepared by the compression threads in advance. At most twice
+     * as many fonts as there are threads are prepared ahead, which limits the memory overhead.
+     *
+     * @param fonts the fonts to be flushed
+     */
+    void flushFonts(List<PdfFont> fonts) {
+        if (!parallelCompression || fonts.size() < 2) {
+            for (PdfFont font : fonts) {
+                font.flush();
+            }
+            return;
+        }
+        ArrayDeque<Future<?>> preparedFonts = new ArrayDeque<>();
+        int nextFont = 0;
+        for (PdfFont font : fonts) {
+            while (nextFont < fonts.size() && preparedFonts.size() < 2 * properties.compressionThreads) {
+                final PdfFont fontToPrepare = fonts.get(nextFont++);
+                preparedFonts.add(getCompressionExecutor().submit(new Runnable() {
+                    public void run() {
+                        fontToPrepare.prepareFontFile();
+                    }
+                }));
+            }
+            try {
+                preparedFonts.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PdfException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new PdfException(e.getCause());
+            }
+            font.flush();
+        }
+    }
+
+    private void writeToBody(PdfObject pdfObj, ByteArrayOutputStream compressedStreamContent) throws IOException {
         if (crypto != null) {
             crypto.setHashKeyForNextObject(pdfObj.getIndirectReference().getObjNumber(), pdfObj.getIndirectReference().getGenNumber());
         }
         writeInteger(pdfObj.getIndirectReference().getObjNumber()).
                 writeSpace().
                 writeInteger(pdfObj.getIndirectReference().getGenNumber()).writeBytes(obj);
-        write(pdfObj);
+        if (compressedStreamContent != null) {
+            write((PdfStream) pdfObj, compressedStreamContent);
+        } else {
+            write(pdfObj);
+        }
         writeBytes(endobj);
     }
 
+    private ExecutorService getCompressionExecutor() {
+        if (compressionExecutor == null) {
+            compressionExecutor = Executors.newFixedThreadPool(properties.compressionThreads, new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "PdfWriter compression");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return compressionExecutor;
+    }
+
+    private void compressInParallel(final PdfStream pdfStream) throws IOException {
+        Future<ByteArrayOutputStream> content = getCompressionExecutor().submit(new Callable<ByteArrayOutputStream>() {
+            public ByteArrayOutputStream call() throws IOException {
+                return deflateContent(pdfStream);
+            }
+        });
+        pendingStreams.add(new PendingStream(pdfStream, content));
+        while (pendingStreams.size() > 2 * properties.compressionThreads) {
+            writePendingStream();
+        }
+    }
+
+    private void writePendingStream() throws IOException {
+        PendingStream pendingStream = pendingStreams.poll();
+        PdfStream pdfStream = pendingStream.stream;
+        ByteArrayOutputStream content;
+        try {
+            content = pendingStream.content.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotWritePdfStream, e, pdfStream);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PdfException(PdfException.CannotWritePdfStream, e.getCause(), pdfStream);
+        }
+        pdfStream.getIndirectReference().setOffset(getCurrentPos());
+        writeToBody(pdfStream, content);
+        pdfStream.releaseContent();
+    }
+
     /**
      * Writes PDF header.
      *
@@ -346,7 +573,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         while (needFlush) {
             needFlush = false;
             for (int i = 1; i < xref.size(); i++) {
-                PdfIndirectReference indirectReference = xref.get(i);
+                PdfIndirectReference indirectReference = xref.getCreatedReference(i);
                 if (indirectReference != null
                         && indirectReference.checkState(PdfObject.MUST_BE_FLUSHED)) {
                     PdfObject obj = indirectReference.getRefersTo(false);
@@ -370,13 +597,14 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushModifiedWaitingObjects() {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
-            PdfIndirectReference indirectReference = xref.get(i);
-            if (null != indirectReference) {
-                PdfObject obj = indirectReference.getRefersTo(false);
-                if (obj != null && !obj.equals(objectStream) && obj.isModified()) {
-                    obj.flush();
-                }
+        if (document.isAppendMode()) {
+            // Only the references marked as modified are visited, not the whole table.
+            for (int i = xref.nextModifiedReference(1); i > 0; i = xref.nextModifiedReference(i + 1)) {
+                flushModifiedWaitingObject(xref.getCreatedReference(i));
+            }
+        } else {
+            for (int i = 1; i < xref.size(); i++) {
+                flushModifiedWaitingObject(xref.getCreatedReference(i));
             }
         }
         if (objectStream != null && objectStream.getSize() > 0) {
@@ -385,6 +613,49 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    private void flushModifiedWaitingObject(PdfIndirectReference indirectReference) {
+        if (null != indirectReference) {
+            PdfObject obj = indirectReference.getRefersTo(false);
+            if (obj != null && !obj.equals(objectStream) && obj.isModified()) {
+                obj.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the whole content of the source, e.g. the original document the incremental update is appended to.
+     * When both the source is able to expose its content as {@link java.nio.ByteBuffer} and the writer writes
+     * to a {@link FileChannelOutputStream}, the content is passed to the channel without copying it to the heap.
+     *
+     * @param source the source to copy
+     * @throws IOException on error
+     */
+    void writeSource(IRandomAccessSource source) throws IOException {
+        long length = source.length();
+        long position = 0;
+        if (source instanceof IByteBufferRandomAccessSource && outputStream instanceof FileChannelOutputStream
+                && duplicateStream == null) {
+            FileChannelOutputStream channelStream = (FileChannelOutputStream) outputStream;
+            while (position < length) {
+                java.nio.ByteBuffer view = ((IByteBufferRandomAccessSource) source).getByteBuffer(position,
+                        (int) Math.min(length - position, SOURCE_CHUNK_SIZE));
+                if (view == null) {
+                    break;
+                }
+                int n = view.remaining();
+                channelStream.write(view);
+                position += n;
+                currentPos += n;
+            }
+        }
+        byte[] buffer = new byte[8192];
+        int n;
+        while (position < length && (n = source.get(position, buffer, 0, (int) Math.min(buffer.length, length - position))) > 0) {
+            write(buffer, 0, n);
+            position += n;
+        }
+    }
+
     /**
      * Calculates hash code for the indirect reference taking into account the document it belongs to.
      *
@@ -398,25 +669,32 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     }
 
     /**
-     * Used in the smart mode.
-     * It serializes given object content and tries to find previously copied object with the same content.
-     * If already copied object is not found, it saves current object serialized content into the map.
-     *
-     * @param object an object to check if some other object with the same content was already copied.
-     * @return indirect reference of the object with the same content, which already has a copy in the new document.
+     * Forgets which objects were copied to the document from other documents, which releases the memory taken
+     * by this information. Objects copied afterwards are never considered to be copies of the objects copied before,
+     * unless smart mode finds that they have the same content. Is useful when the documents the objects were copied
+     * from are closed.
      */
-    private PdfIndirectReference tryToFindPreviouslyCopiedEqualObject(PdfObject object) {
-        SerializedPdfObject objectKey;
-        if (object.isStream() || object.isDictionary()) {
-            objectKey = new SerializedPdfObject(object, objectRefToSerializedContent);
-            PdfIndirectReference objectRef = serializedContentToObjectRef.get(objectKey);
-            if (objectRef != null) {
-                return objectRef;
-            }
-            serializedContentToObjectRef.put(objectKey, object.getIndirectReference());
+    public void clearCopiedObjects() {
+        copiedObjects.clear();
+        if (smartModeIndex != null) {
+            smartModeIndex.clearSourceFingerprints();
+        }
+    }
+
+    private SmartModeFingerprintIndex getSmartModeIndex() {
+        if (smartModeIndex == null) {
+            smartModeIndex = new SmartModeFingerprintIndex(properties.smartModeIndexCapacity);
         }
+        return smartModeIndex;
+    }
 
-        return null;
+    /**
+     * Gets an object that has been copied to the document. If it has been flushed already and is no longer
+     * referred to, the indirect reference is used instead of it.
+     */
+    private static PdfObject getCopiedObject(PdfIndirectReference copiedIndirectReference) {
+        PdfObject copiedObject = copiedIndirectReference.getRefersTo();
+        return copiedObject != null ? copiedObject : copiedIndirectReference;
     }
 
     private void markArrayContentToFlush(PdfArray array) {
@@ -493,123 +771,13 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         outputStream = tempOutputStream;
     }
 
-    static class SerializedPdfObject {
-        private final byte[] serializedContent;
-        private final int hash;
-
-        private MessageDigest md5;
-        private HashMap<Integer, byte[]> objToSerializedContent;
-
-        SerializedPdfObject(PdfObject obj, HashMap<Integer, byte[]> objToSerializedContent) {
-            assert obj.isDictionary() || obj.isStream();
-
-            this.objToSerializedContent = objToSerializedContent;
-            try {
-                md5 = MessageDigest.getInstance("MD5");
-            } catch (Exception e) {
-                throw new PdfException(e);
-            }
-            ByteBufferOutputStream bb = new ByteBufferOutputStream();
-            int level = 100;
-            serObject(obj, level, bb);
-            this.serializedContent = bb.toByteArray();
-            hash = calculateHash(this.serializedContent);
-            md5 = null;
-        }
-
-        // TODO 2: object is not checked if it was already serialized on start, double work could be done
-        // TODO 3: indirect objects often stored multiple times as parts of the other objects
-        private void serObject(PdfObject obj, int level, ByteBufferOutputStream bb) {
-            if (level <= 0)
-                return;
-            if (obj == null) {
-                bb.append("$Lnull");
-                return;
-            }
-            PdfIndirectReference reference = null;
-            ByteBufferOutputStream savedBb = null;
-            int indRefKey = -1;
-
-            if (obj.isIndirectReference()) {
-                reference = (PdfIndirectReference) obj;
-                indRefKey = calculateIndRefKey(reference);
-                byte[] cached = objToSerializedContent.get(indRefKey);
-                if (cached != null) {
-                    bb.append(cached);
-                    return;
-                } else {
-                    savedBb = bb;
-                    bb = new ByteBufferOutputStream();
-                    obj = reference.getRefersTo();
-                }
-            }
-
-            if (obj.isStream()) {
-                bb.append("$B");
-                serDic((PdfDictionary) obj, level - 1, bb);
-                if (level > 0) {
-                    md5.reset();
-                    bb.append(md5.digest(((PdfStream)obj).getBytes(false)));
-                }
-            } else if (obj.isDictionary()) {
-                serDic((PdfDictionary) obj, level - 1, bb);
-            } else if (obj.isArray()) {
-                serArray((PdfArray) obj, level - 1, bb);
-            } else if (obj.isString()) {
-                bb.append("$S").append(obj.toString());
-            } else if (obj.isName()) {
-                bb.append("$N").append(obj.toString());
-            } else
-                bb.append("$L").append(obj.toString()); // PdfNull case is also here
-
-            if (savedBb != null) {
-                objToSerializedContent.put(indRefKey, bb.getBuffer());
-                savedBb.append(bb);
-            }
-        }
-
-        private void serDic(PdfDictionary dic, int level, ByteBufferOutputStream bb) {
-            bb.append("$D");
-            if (level <= 0)
-                return;
-            PdfName[] keys = new PdfName[dic.keySet().size()];
-            dic.keySet().toArray(keys);
-            Arrays.sort(keys);
-            for (Object key : keys) {
-                if (key.equals(PdfName.P) && (dic.get((PdfName) key).isIndirectReference() || dic.get((PdfName) key).isDictionary()) || key.equals(PdfName.Parent)) // ignore recursive call
-                    continue;
-                serObject((PdfObject) key, level, bb);
-                serObject(dic.get((PdfName) key, false), level, bb);
-
-            }
-        }
-
-        private void serArray(PdfArray array, int level, ByteBufferOutputStream bb) {
-            bb.append("$A");
-            if (level <= 0)
-                return;
-            for (int k = 0; k < array.size(); ++k) {
-                serObject(array.get(k, false), level, bb);
-            }
-        }
-
-        private static int calculateHash(byte[] b) {
-            int hash = 0;
-            int len = b.length;
-            for (int k = 0; k < len; ++k) {
-                hash = hash * 31 + (b[k] & 0xff);
-            }
-            return hash;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof SerializedPdfObject && hashCode() == obj.hashCode() && Arrays.equals(serializedContent, ((SerializedPdfObject) obj).serializedContent);
-        }
+    private static class PendingStream {
+        private final PdfStream stream;
+        private final Future<ByteArrayOutputStream> content;
 
-        @Override
-        public int hashCode() {
-            return hash;
+        PendingStream(PdfStream stream, Future<ByteArrayOutputStream> content) {
+            this.stream = stream;
+            this.content = content;
         }
     }
 }
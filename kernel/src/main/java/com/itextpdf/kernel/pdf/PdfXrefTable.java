@@ -65,21 +65,59 @@ class PdfXrefTable implements Serializable {
     private static final byte[] freeXRefEntry = ByteUtils.getIsoBytes("f \n");
     private static final byte[] inUseXRefEntry = ByteUtils.getIsoBytes("n \n");
 
+    // Types of the entries read from the document, which indirect references have not been created yet.
+    private static final byte NO_ENTRY = 0;
+    private static final byte FREE_ENTRY = 1;
+    private static final byte IN_USE_ENTRY = 2;
+    private static final byte COMPRESSED_ENTRY = 3;
+
     private PdfIndirectReference[] xref;
     private int count = 0;
 
+    /**
+     * Entries read from the document are kept in parallel primitive arrays instead of {@link PdfIndirectReference}
+     * instances, which are created only when the entry is requested. The arrays are allocated with the first read entry.
+     */
+    private byte[] entryTypes;
+    /**
+     * Offset of the in use entry, or index of the compressed entry inside its object stream.
+     */
+    private long[] entryOffsets;
+    /**
+     * Generation number of the free or in use entry, or number of the object stream of the compressed entry.
+     */
+    private int[] entryNumbers;
+
     private final TreeSet<Integer> freeReferences;
 
+    /**
+     * Numbers of the references marked as modified in append mode. Only they can get into the incremental update,
+     * so only they are visited when the document is closed.
+     */
+    private final TreeSet<Integer> modifiedReferences;
+
+    private final PdfDocument document;
+
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
     }
 
     public PdfXrefTable(int capacity) {
+        this(null, capacity);
+    }
+
+    PdfXrefTable(PdfDocument document) {
+        this(document, INITIAL_CAPACITY);
+    }
+
+    PdfXrefTable(PdfDocument document, int capacity) {
         if (capacity < 1) {
             capacity = INITIAL_CAPACITY;
         }
+        this.document = document;
         xref = new PdfIndirectReference[capacity];
         freeReferences = new TreeSet<>();
+        modifiedReferences = new TreeSet<>();
         add(new PdfIndirectReference(null, 0, MAX_GENERATION, 0).setState(PdfObject.FREE));
     }
 
@@ -96,14 +134,84 @@ class PdfXrefTable implements Serializable {
         this.count = Math.max(this.count, objNr);
         ensureCount(objNr);
         xref[objNr] = reference;
+        removeEntry(objNr);
+        freeReferences.remove(objNr);
         return reference;
     }
 
+    /**
+     * Adds in use entry read from the cross-reference section of the document.
+     * The indirect reference is created only when the entry is requested with {@link #get(int)}.
+     *
+     * @param objNr  object number.
+     * @param genNr  generation number.
+     * @param offset offset of the object in the document.
+     */
+    void addEntry(int objNr, int genNr, long offset) {
+        addEntry(objNr, IN_USE_ENTRY, offset, genNr);
+    }
+
+    /**
+     * Adds free entry read from the cross-reference section of the document.
+     * The indirect reference is created only when the entry is requested with {@link #get(int)}.
+     *
+     * @param objNr object number.
+     * @param genNr generation number.
+     */
+    void addFreeEntry(int objNr, int genNr) {
+        addEntry(objNr, FREE_ENTRY, 0, genNr);
+    }
+
+    /**
+     * Adds entry of the object stored in an object stream read from the cross-reference stream of the document.
+     * The indirect reference is created only when the entry is requested with {@link #get(int)}.
+     *
+     * @param objNr           object number.
+     * @param objStreamNumber number of the object stream containing the object.
+     * @param index           index of the object inside the object stream.
+     */
+    void addCompressedEntry(int objNr, int objStreamNumber, int index) {
+        addEntry(objNr, COMPRESSED_ENTRY, index, objStreamNumber);
+    }
+
+    /**
+     * Checks whether the table contains either indirect reference or not yet created entry with the given number.
+     *
+     * @param index object number.
+     * @return true if the entry is present.
+     */
+    boolean hasEntry(int index) {
+        return index <= count && (xref[index] != null || entryTypes != null && entryTypes[index] != NO_ENTRY);
+    }
+
     public int size() {
         return count + 1;
     }
 
     public PdfIndirectReference get(int index) {
+        if (index > count) {
+            return null;
+        }
+        PdfIndirectReference reference = xref[index];
+        if (reference == null && !hasEntry(index) && document != null && document.reader != null
+                && document.reader.readPendingXref(index)) {
+            // The entry has been found in the cross-reference section of previous revision, which has not been read yet.
+            reference = xref[index];
+        }
+        if (reference == null && entryTypes != null && entryTypes[index] != NO_ENTRY) {
+            reference = createReference(index);
+        }
+        return reference;
+    }
+
+    /**
+     * Gets indirect reference only if it has already been created, entries read from the document
+     * that have not been requested yet are skipped.
+     *
+     * @param index object number.
+     * @return indirect reference or null.
+     */
+    PdfIndirectReference getCreatedReference(int index) {
         if (index > count) {
             return null;
         }
@@ -119,7 +227,7 @@ class PdfXrefTable implements Serializable {
         PdfIndirectReference reference;
         if (freeReferences.size() > 0) {
             int num = (int) freeReferences.pollFirst();
-            reference = xref[num];
+            reference = get(num);
             if (reference == null) {
                 reference = new PdfIndirectReference(document, num);
                 xref[num] = reference;
@@ -151,17 +259,50 @@ class PdfXrefTable implements Serializable {
             if (reference.getGenNumber() < MAX_GENERATION) {
                 freeReferences.add(reference.getObjNumber());
                 xref[reference.getObjNumber()] = null;
+                removeEntry(reference.getObjNumber());
             }
 
         }
     }
 
+    /**
+     * Remembers the reference which has been marked as modified, if the document is opened in append mode.
+     *
+     * @param objNr object number of the modified reference.
+     */
+    void addModifiedReference(int objNr) {
+        if (document != null && document.properties != null && document.properties.appendMode) {
+            modifiedReferences.add(objNr);
+        }
+    }
+
+    /**
+     * Gets the least number of the reference marked as modified in append mode, which is not less than the given one.
+     *
+     * @param objNr the number to start from.
+     * @return the object number, or -1 if there are no more modified references.
+     */
+    int nextModifiedReference(int objNr) {
+        Integer next = modifiedReferences.ceiling(objNr);
+        return next != null ? (int) next : -1;
+    }
+
     protected void setCapacity(int capacity) {
         if (capacity > xref.length) {
             extendXref(capacity);
         }
     }
 
+    /**
+     * Reserves the entries declared by the /Size entry of the trailer, while some of them may still be unread.
+     *
+     * @param size number of the entries of the table, including the entry of the object 0.
+     */
+    void reserveSize(int size) {
+        setCapacity(size);
+        count = Math.max(count, size - 1);
+    }
+
     /**
      * Writes cross reference table and trailer to PDF.
      *
@@ -173,18 +314,19 @@ class PdfXrefTable implements Serializable {
         if (document.isAppendMode()) {
             // Increment generation number for all freed references.
             for (Integer objNr : freeReferences) {
-                xref[(int) objNr].genNr++;
+                get((int) objNr).genNr++;
             }
         } else {
             for (Integer objNr : freeReferences) {
                 xref[(int) objNr] = null;
+                removeEntry((int) objNr);
             }
         }
         freeReferences.clear();
 
 
         for (int i = count; i > 0; --i) {
-            PdfIndirectReference lastRef = xref[i];
+            PdfIndirectReference lastRef = get(i);
             if (lastRef == null
                     || (lastRef.isFree() && lastRef.getGenNumber() == 0)
                     || (!lastRef.checkState(PdfObject.FLUSHED)
@@ -202,28 +344,36 @@ class PdfXrefTable implements Serializable {
             first = 1;
             len = 0;
         }
-        for (int i = 1; i < size(); i++) {
-            PdfIndirectReference reference = xref[i];
-            if (reference != null) {
-                if ((document.properties.appendMode && !reference.checkState(PdfObject.MODIFIED)) ||
-                        (reference.isFree() && reference.getGenNumber() == 0) ||
-                        (!reference.checkState(PdfObject.FLUSHED))) {
-                    reference = null;
+        if (document.isAppendMode()) {
+            for (int i = nextModifiedReference(1); i > 0 && i < size(); i = nextModifiedReference(i + 1)) {
+                if (isWrittenReference(xref[i], true)) {
+                    if (len > 0 && first + len == i) {
+                        len++;
+                    } else {
+                        if (len > 0) {
+                            sections.add(first);
+                            sections.add(len);
+                        }
+                        first = i;
+                        len = 1;
+                    }
                 }
             }
-
-            if (reference == null) {
-                if (len > 0) {
-                    sections.add(first);
-                    sections.add(len);
-                }
-                len = 0;
-            } else {
-                if (len > 0) {
-                    len++;
+        } else {
+            for (int i = 1; i < size(); i++) {
+                if (!isWrittenReference(xref[i], false)) {
+                    if (len > 0) {
+                        sections.add(first);
+                        sections.add(len);
+                    }
+                    len = 0;
                 } else {
-                    first = i;
-                    len = 1;
+                    if (len > 0) {
+                        len++;
+                    } else {
+                        first = i;
+                        len = 1;
+                    }
                 }
             }
         }
@@ -232,7 +382,7 @@ class PdfXrefTable implements Serializable {
             sections.add(len);
         }
         if (document.properties.appendMode && sections.size() == 0) { // no modifications.
-            xref = null;
+            releaseXref();
             return;
         }
 
@@ -331,7 +481,7 @@ class PdfXrefTable implements Serializable {
         writer.writeString("startxref\n").
                 writeLong(startxref).
                 writeString("\n%%EOF\n");
-        xref = null;
+        releaseXref();
     }
 
     void clear() {
@@ -340,6 +490,9 @@ class PdfXrefTable implements Serializable {
                 continue;
             }
             xref[i] = null;
+            if (entryTypes != null && entryTypes[i] != FREE_ENTRY) {
+                entryTypes[i] = NO_ENTRY;
+            }
         }
         count = 1;
     }
@@ -364,12 +517,95 @@ class PdfXrefTable implements Serializable {
         PdfIndirectReference[] newXref = new PdfIndirectReference[capacity];
         System.arraycopy(xref, 0, newXref, 0, xref.length);
         xref = newXref;
+        if (entryTypes != null) {
+            extendEntries(capacity);
+        }
+    }
+
+    private void extendEntries(int capacity) {
+        byte[] newEntryTypes = new byte[capacity];
+        long[] newEntryOffsets = new long[capacity];
+        int[] newEntryNumbers = new int[capacity];
+        if (entryTypes != null) {
+            System.arraycopy(entryTypes, 0, newEntryTypes, 0, entryTypes.length);
+            System.arraycopy(entryOffsets, 0, newEntryOffsets, 0, entryOffsets.length);
+            System.arraycopy(entryNumbers, 0, newEntryNumbers, 0, entryNumbers.length);
+        }
+        entryTypes = newEntryTypes;
+        entryOffsets = newEntryOffsets;
+        entryNumbers = newEntryNumbers;
+    }
+
+    private void addEntry(int objNr, byte type, long offset, int number) {
+        assert offset >= 0;
+        this.count = Math.max(this.count, objNr);
+        ensureCount(objNr);
+        if (entryTypes == null) {
+            extendEntries(xref.length);
+        }
+        xref[objNr] = null;
+        entryTypes[objNr] = type;
+        entryOffsets[objNr] = offset;
+        entryNumbers[objNr] = number;
+    }
+
+    private void removeEntry(int objNr) {
+        if (entryTypes != null) {
+            entryTypes[objNr] = NO_ENTRY;
+        }
+    }
+
+    /**
+     * Creates indirect reference for the entry read from the document. Several threads may request
+     * the same entry simultaneously, only one reference is created.
+     */
+    private synchronized PdfIndirectReference createReference(int index) {
+        PdfIndirectReference reference = xref[index];
+        if (reference != null || entryTypes[index] == NO_ENTRY) {
+            return reference;
+        }
+        switch (entryTypes[index]) {
+            case FREE_ENTRY:
+                reference = new PdfIndirectReference(document, index, entryNumbers[index], 0);
+                reference.setState(PdfObject.FREE);
+                break;
+            case COMPRESSED_ENTRY:
+                reference = new PdfIndirectReference(document, index, 0, entryOffsets[index]);
+                reference.setObjStreamNumber(entryNumbers[index]);
+                break;
+            default:
+                reference = new PdfIndirectReference(document, index, entryNumbers[index], entryOffsets[index]);
+                break;
+        }
+        xref[index] = reference;
+        entryTypes[index] = NO_ENTRY;
+        return reference;
+    }
+
+    private void releaseXref() {
+        xref = null;
+        entryTypes = null;
+        entryOffsets = null;
+        entryNumbers = null;
     }
 
     private static byte[] shortToBytes(int n) {
         return new byte[]{(byte) ((n >> 8) & 0xFF), (byte) (n & 0xFF)};
     }
 
+    /**
+     * Checks whether the reference gets into the cross-reference section being written.
+     *
+     * @param reference  the reference to check, may be null.
+     * @param appendMode whether the incremental update is written.
+     * @return true if the reference is written.
+     */
+    private static boolean isWrittenReference(PdfIndirectReference reference, boolean appendMode) {
+        return reference != null && !(appendMode && !reference.checkState(PdfObject.MODIFIED))
+                && !(reference.isFree() && reference.getGenNumber() == 0)
+                && reference.checkState(PdfObject.FLUSHED);
+    }
+
     private static byte[] intToBytes(int n) {
         return new byte[]{(byte) ((n >> 24) & 0xFF), (byte) ((n >> 16) & 0xFF), (byte) ((n >> 8) & 0xFF), (byte) (n & 0xFF)};
     }
@@ -59,6 +59,14 @@ public class ReaderProperties implements Serializable {
     protected String certificateKeyProvider; //added by Aiken Sam for certificate decryption
     protected IExternalDecryptionProcess externalDecryptionProcess;
 
+    protected boolean concurrentReading = false;
+
+    protected boolean lazyXrefReading = false;
+
+    protected long objectCacheSize = 0;
+
+    protected long objectStreamCacheSize = 0;
+
     /**
      * Defines the password which will be used if the document is encrypted with standard encryption.
      * This could be either user or owner password.
@@ -94,6 +102,56 @@ public class ReaderProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables concurrent reading of the document objects.
+     * When enabled, each thread that resolves indirect references gets its own tokenizer over the same source,
+     * so objects of a document opened in reading mode (e.g. pages' content and resources) can be read in parallel.
+     * The document itself must not be modified while it is accessed from several threads.
+     * @param concurrentReading true to allow reading document objects from several threads.
+     */
+    public ReaderProperties setConcurrentReading(boolean concurrentReading) {
+        this.concurrentReading = concurrentReading;
+        return this;
+    }
+
+    /**
+     * Enables fast opening of the document. When enabled, only the newest cross-reference section is read
+     * when the document is opened, the sections of the previous revisions, referred to by the /Prev chain,
+     * are read when an object which is not found in the already read sections is requested.
+     * The first page of a linearized document is then located by the linearization parameters.
+     * Encrypted documents are always read entirely.
+     * @param lazyXrefReading true to read the previous cross-reference sections on demand.
+     */
+    public ReaderProperties setLazyXrefReading(boolean lazyXrefReading) {
+        this.lazyXrefReading = lazyXrefReading;
+        return this;
+    }
+
+    /**
+     * Limits the memory held by the objects read from a document opened in reading mode (without a writer).
+     * When the estimated size of the read objects exceeds the limit, the objects that have not been accessed recently
+     * are released, and they are read from the document again on the next access through their indirect references.
+     * Objects marked as not releasable, e.g. pages and the catalog, and modified objects are kept,
+     * other changes of the released objects are lost. The limit is ignored in stamping mode.
+     * @param objectCacheSize the approximate limit in bytes, or 0 to keep all the read objects (default).
+     */
+    public ReaderProperties setObjectCacheSize(long objectCacheSize) {
+        this.objectCacheSize = objectCacheSize;
+        return this;
+    }
+
+    /**
+     * Enables the cache of the recently decoded object streams. When an object stored in an object stream
+     * has been released, e.g. by the limit set with {@link #setObjectCacheSize(long)}, and is read again, it is parsed
+     * from the cached decoded stream instead of decoding the whole object stream once more.
+     * The least recently used streams are evicted when the total size of the decoded streams exceeds the limit.
+     * @param objectStreamCacheSize the approximate limit in bytes, or 0 to disable the cache (default).
+     */
+    public ReaderProperties setObjectStreamCacheSize(long objectStreamCacheSize) {
+        this.objectStreamCacheSize = objectStreamCacheSize;
+        return this;
+    }
+
     private void clearEncryptionParams() {
         this.password = null;
         this.certificate = null;
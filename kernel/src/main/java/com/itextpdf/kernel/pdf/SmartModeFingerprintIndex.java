@@ -0,0 +1,321 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Is used in smart mode to find previously copied objects with the same content.
+ * <p/>
+ * Objects are identified by 128-bit fingerprints, which are MD5 digests of the object content. An indirect object
+ * the content refers to is represented by its own fingerprint, which is calculated once per source indirect
+ * reference and memoized. Content of streams is represented by the digest of their raw bytes, which are read
+ * from the source document without keeping the whole stream in memory.
+ * So the index takes a fixed amount of memory per object, regardless of the object size.
+ */
+class SmartModeFingerprintIndex implements Serializable {
+
+    private static final long serialVersionUID = 4281538264215936521L;
+
+    // A rough estimate of the memory taken by a map entry: the entry itself, its table slot and a fingerprint
+    private static final int ESTIMATED_ENTRY_SIZE = 96;
+
+    private static final int MAX_SERIALIZATION_LEVEL = 100;
+
+    private final Map<Fingerprint, PdfIndirectReference> fingerprintToCopiedRef;
+    private final Map<Integer, Fingerprint> sourceRefToFingerprint;
+    private long hits;
+    private long misses;
+
+    private transient MessageDigest md5;
+    private transient byte[] buffer;
+
+    /**
+     * Creates an index.
+     *
+     * @param capacity the maximum number of entries in the index, the least recently used entries are evicted
+     *                 when it is reached. {@link Integer#MAX_VALUE} for the unbounded index.
+     */
+    SmartModeFingerprintIndex(int capacity) {
+        fingerprintToCopiedRef = createMap(capacity);
+        sourceRefToFingerprint = createMap(capacity);
+    }
+
+    /**
+     * Gets the fingerprint of the object content.
+     *
+     * @param object a dictionary or a stream that is copied
+     * @return the fingerprint
+     */
+    Fingerprint getFingerprint(PdfObject object) {
+        assert object.isDictionary() || object.isStream();
+
+        if (object.getIndirectReference() == null) {
+            return calculateFingerprint(object, MAX_SERIALIZATION_LEVEL);
+        }
+        Integer key = PdfWriter.calculateIndRefKey(object.getIndirectReference());
+        Fingerprint fingerprint = sourceRefToFingerprint.get(key);
+        if (fingerprint == null) {
+            fingerprint = calculateFingerprint(object, MAX_SERIALIZATION_LEVEL);
+            sourceRefToFingerprint.put(key, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Tries to find previously copied object with the same content.
+     *
+     * @param fingerprint the fingerprint of the object content
+     * @return indirect reference of the copy of the object with the same content in the new document, or null
+     */
+    PdfIndirectReference findCopiedObject(Fingerprint fingerprint) {
+        PdfIndirectReference copiedObjectRef = fingerprintToCopiedRef.get(fingerprint);
+        if (copiedObjectRef != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return copiedObjectRef;
+    }
+
+    /**
+     * Saves the copy of the object, so that it can be found by the fingerprint of the object content.
+     *
+     * @param fingerprint the fingerprint of the object content
+     * @param copiedObjectRef indirect reference of the object copy in the new document
+     */
+    void addCopiedObject(Fingerprint fingerprint, PdfIndirectReference copiedObjectRef) {
+        fingerprintToCopiedRef.put(fingerprint, copiedObjectRef);
+    }
+
+    /**
+     * Forgets the memoized fingerprints of the objects of source documents.
+     */
+    void clearSourceFingerprints() {
+        sourceRefToFingerprint.clear();
+    }
+
+    SmartModeStatistics getStatistics() {
+        int entries = fingerprintToCopiedRef.size() + sourceRefToFingerprint.size();
+        return new SmartModeStatistics(hits, misses, fingerprintToCopiedRef.size(), (long) entries * ESTIMATED_ENTRY_SIZE);
+    }
+
+    private Fingerprint calculateFingerprint(PdfObject obj, int level) {
+        MessageDigest digest = newDigest();
+        serObject(obj, level, digest);
+        return new Fingerprint(digest.digest());
+    }
+
+    private void serObject(PdfObject obj, int level, MessageDigest digest) {
+        if (level <= 0)
+            return;
+        if (obj == null) {
+            update(digest, "$Lnull");
+            return;
+        }
+
+        if (obj.isIndirectReference()) {
+            PdfIndirectReference reference = (PdfIndirectReference) obj;
+            Integer key = PdfWriter.calculateIndRefKey(reference);
+            Fingerprint fingerprint = sourceRefToFingerprint.get(key);
+            if (fingerprint == null) {
+                fingerprint = calculateFingerprint(reference.getRefersTo(), level);
+                sourceRefToFingerprint.put(key, fingerprint);
+            }
+            update(digest, "$R");
+            fingerprint.update(digest);
+            return;
+        }
+
+        if (obj.isStream()) {
+            update(digest, "$B");
+            serDic((PdfDictionary) obj, level - 1, digest);
+            digest.update(digestStreamContent((PdfStream) obj));
+        } else if (obj.isDictionary()) {
+            serDic((PdfDictionary) obj, level - 1, digest);
+        } else if (obj.isArray()) {
+            serArray((PdfArray) obj, level - 1, digest);
+        } else if (obj.isString()) {
+            update(digest, "$S");
+            update(digest, obj.toString());
+        } else if (obj.isName()) {
+            update(digest, "$N");
+            update(digest, obj.toString());
+        } else {
+            // PdfNull case is also here
+            update(digest, "$L");
+            update(digest, obj.toString());
+        }
+    }
+
+    private void serDic(PdfDictionary dic, int level, MessageDigest digest) {
+        update(digest, "$D");
+        if (level <= 0)
+            return;
+        PdfName[] keys = new PdfName[dic.keySet().size()];
+        dic.keySet().toArray(keys);
+        Arrays.sort(keys);
+        for (PdfName key : keys) {
+            if (key.equals(PdfName.P) && (dic.get(key).isIndirectReference() || dic.get(key).isDictionary()) || key.equals(PdfName.Parent)) // ignore recursive call
+                continue;
+            serObject(key, level, digest);
+            serObject(dic.get(key, false), level, digest);
+        }
+    }
+
+    private void serArray(PdfArray array, int level, MessageDigest digest) {
+        update(digest, "$A");
+        if (level <= 0)
+            return;
+        for (int k = 0; k < array.size(); ++k) {
+            serObject(array.get(k, false), level, digest);
+        }
+    }
+
+    private byte[] digestStreamContent(PdfStream stream) {
+        MessageDigest digest = newDigest();
+        PdfIndirectReference reference = stream.getIndirectReference();
+        if (stream.getOutputStream() == null && reference != null && reference.getReader() != null) {
+            try {
+                InputStream content = reference.getReader().readStream(stream, false);
+                if (content != null) {
+                    if (buffer == null) {
+                        buffer = new byte[8192];
+                    }
+                    try {
+                        int n;
+                        while ((n = content.read(buffer)) > 0) {
+                            digest.update(buffer, 0, n);
+                        }
+                    } finally {
+                        content.close();
+                    }
+                }
+            } catch (IOException e) {
+                throw new PdfException(PdfException.CannotGetPdfStreamBytes, e, stream);
+            }
+        } else {
+            byte[] bytes = stream.getBytes(false);
+            if (bytes != null) {
+                digest.update(bytes);
+            }
+        }
+        return digest.digest();
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            if (md5 == null) {
+                md5 = MessageDigest.getInstance("MD5");
+            }
+            return (MessageDigest) md5.clone();
+        } catch (Exception e) {
+            throw new PdfException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String str) {
+        digest.update(str.getBytes());
+    }
+
+    private static <K, V> Map<K, V> createMap(final int capacity) {
+        if (capacity == Integer.MAX_VALUE) {
+            return new HashMap<>();
+        }
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2836459187624361250L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static final class Fingerprint implements Serializable {
+        private static final long serialVersionUID = 6719342155710844311L;
+
+        private final long high;
+        private final long low;
+
+        Fingerprint(byte[] digest) {
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = high << 8 | (digest[i] & 0xff);
+                low = low << 8 | (digest[i + 8] & 0xff);
+            }
+            this.high = high;
+            this.low = low;
+        }
+
+        void update(MessageDigest digest) {
+            for (int i = 56; i >= 0; i -= 8) {
+                digest.update((byte) (high >>> i));
+            }
+            for (int i = 56; i >= 0; i -= 8) {
+                digest.update((byte) (low >>> i));
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Fingerprint && high == ((Fingerprint) obj).high && low == ((Fingerprint) obj).low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ low >>> 32);
+        }
+    }
+}
@@ -43,6 +43,8 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.kernel.font.FontSubsetCache;
+
 import java.io.Serializable;
 import java.security.cert.Certificate;
 
@@ -62,13 +64,33 @@ public class WriterProperties implements Serializable {
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+    /**
+     * The maximum number of objects the smart mode index keeps.
+     */
+    protected int smartModeIndexCapacity;
+    /**
+     * Indicates if the writer passes the encoded content of streams copied from other documents through to the
+     * output as it is, without reading it into memory.
+     */
+    protected boolean rawStreamCopying;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
     protected PdfVersion pdfVersion;
     protected EncryptionProperties encryptionProperties;
 
+    /**
+     * Number of threads compressing stream content in parallel. If zero, streams are compressed by the writing thread.
+     */
+    protected int compressionThreads;
+
+    /**
+     * The cache of font subsets shared with other documents, or {@code null} if font subsets are not cached.
+     */
+    protected transient FontSubsetCache fontSubsetCache;
+
     public WriterProperties() {
         smartMode = false;
+        smartModeIndexCapacity = Integer.MAX_VALUE;
         debugMode = false;
         compressionLevel = CompressionConstants.DEFAULT_COMPRESSION;
         isFullCompression = null;
@@ -101,6 +123,41 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables smart mode with the bounded memory usage.
+     * <p/>
+     * Works as {@link #useSmartMode()}, but keeps at most the specified number of copied objects in the cache.
+     * When the limit is reached, the least recently reused objects are forgotten, so they won't be reused anymore.
+     *
+     * @param indexCapacity the maximum number of objects in the cache, must be positive
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useSmartMode(int indexCapacity) {
+        if (indexCapacity < 1) {
+            throw new IllegalArgumentException("The smart mode index capacity must be a positive integer");
+        }
+        this.smartMode = true;
+        this.smartModeIndexCapacity = indexCapacity;
+        return this;
+    }
+
+    /**
+     * Enables raw stream copying.
+     * <p/>
+     * When an object is copied to the document from another one, e.g. with
+     * {@link PdfDocument#copyPagesTo(int, int, PdfDocument)}, the encoded content of the copied streams is written
+     * to the output byte for byte, straight from the source of the other document: it is neither decoded, nor
+     * compressed once again, nor kept in memory. To allow this, a copied stream is flushed right after it is copied,
+     * so it can't be modified afterwards.
+     * Streams of encrypted documents and streams copied to an encrypted document are copied as usual.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useRawStreamCopying() {
+        this.rawStreamCopying = true;
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * @return this {@code WriterProperties} instance
@@ -121,6 +178,44 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables parallel compression of streams.
+     * <p/>
+     * Content of the flushed streams is deflated by a pool of worker threads, while the document keeps on writing
+     * other objects. Compressed streams are written in the order they were flushed and at most twice as many
+     * streams as there are threads wait for being written, which limits the memory overhead.
+     * Note that the objects order in the resultant document differs from the one produced by sequential compression.
+     *
+     * @param threadCount number of compression threads, must be positive
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useParallelCompression(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The number of compression threads must be a positive integer");
+        }
+        this.compressionThreads = threadCount;
+        return this;
+    }
+
+    /**
+     * Enables caching of the embedded font subsets.
+     * <p/>
+     * The subsets of the fonts used in the document are taken from the given cache if another document using
+     * the same font programs with the same glyphs has already been written, otherwise the created subsets are
+     * added to the cache. The cache is meant to be shared by documents created from the same template,
+     * so that the fonts are subset and compressed only once.
+     *
+     * @param cache the cache of font subsets, shared with other documents
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useFontSubsetCache(FontSubsetCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("The font subset cache must not be null");
+        }
+        this.fontSubsetCache = cache;
+        return this;
+    }
+
     /**
      * Defines if full compression mode is enabled. If enabled, not only the content of the pdf document will be
      * compressed, but also the pdf document inner structure.
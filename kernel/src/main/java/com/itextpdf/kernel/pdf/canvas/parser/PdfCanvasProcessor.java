@@ -44,6 +44,7 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.InputStreamRandomAccessSource;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.kernel.PdfException;
@@ -70,6 +71,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasOperandStack;
 import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.pdf.PdfArray;
 import com.itextpdf.kernel.pdf.PdfDictionary;
@@ -92,7 +94,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -158,13 +162,30 @@ public class PdfCanvasProcessor {
     /**
      * The font cache
      */
-    private Map<Integer, PdfFont> cachedFonts = new HashMap<>();
+    private Map<Integer, PdfFont> cachedFonts;
 
     /**
      * A stack containing marked content info.
      */
     private Stack<CanvasTag> markedContentStack = new Stack<>();
 
+    /**
+     * The built-in operators registered by {@link #populateOperators()}, which can read their operands
+     * directly from the operand stack.
+     */
+    private final Set<IContentOperator> builtInOperators = Collections.newSetFromMap(new IdentityHashMap<IContentOperator, Boolean>());
+
+    /**
+     * The operand stack of the command being processed.
+     */
+    private PdfCanvasOperandStack currentOperands;
+
+    /**
+     * Indicates whether a subclass intercepts {@link #processContent(byte[], PdfResources)},
+     * in which case the page content is passed to it as a whole instead of being streamed.
+     */
+    private final boolean processContentOverridden;
+
     /**
      * Creates a new PDF Content Stream Processor that will send it's output to the
      * designated render listener.
@@ -172,10 +193,28 @@ public class PdfCanvasProcessor {
      * @param eventListener the {@link IEventListener} that will receive rendering notifications
      */
     public PdfCanvasProcessor(IEventListener eventListener) {
+        this(eventListener, new HashMap<Integer, PdfFont>());
+    }
+
+    /**
+     * Creates a new PDF Content Stream Processor that shares the font cache with other processors.
+     * The cache must be thread safe if the processors are used from several threads.
+     *
+     * @param eventListener the {@link IEventListener} that will receive rendering notifications
+     * @param cachedFonts   the font cache, keyed by object number of font dictionary
+     */
+    PdfCanvasProcessor(IEventListener eventListener, Map<Integer, PdfFont> cachedFonts) {
+        this.cachedFonts = cachedFonts;
         this.eventListener = eventListener;
         this.supportedEvents = eventListener.getSupportedEvents();
+        this.processContentOverridden = isProcessContentOverridden(getClass());
         operators = new HashMap<>();
         populateOperators();
+        for (IContentOperator operator : operators.values()) {
+            if (operator instanceof OperandStackOperator) {
+                builtInOperators.add(operator);
+            }
+        }
         xobjectDoHandlers = new HashMap<>();
         populateXObjectDoHandlers();
         reset();
@@ -244,24 +283,7 @@ public class PdfCanvasProcessor {
      * @param resources    the resources of the content stream. Must not be null.
      */
     public void processContent(byte[] contentBytes, PdfResources resources) {
-        if (resources == null) {
-            throw new PdfException(PdfException.ResourcesCannotBeNull);
-        }
-        this.resourcesStack.push(resources);
-        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes)));
-        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
-        List<PdfObject> operands = new ArrayList<>();
-        try {
-            while (ps.parse(operands).size() > 0) {
-                PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
-                invokeOperator(operator, operands);
-            }
-        } catch (IOException e) {
-            throw new PdfException(PdfException.CannotParseContentStream, e);
-        }
-
-        this.resourcesStack.pop();
-
+        processContent(new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(contentBytes))), resources);
     }
 
     /**
@@ -275,7 +297,51 @@ public class PdfCanvasProcessor {
         initClippingPath(page);
         ParserGraphicsState gs = getGraphicsState();
         eventOccurred(new ClippingPathInfo(gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
-        processContent(page.getContentBytes(), page.getResources());
+        if (processContentOverridden) {
+            processContent(page.getContentBytes(), page.getResources());
+            return;
+        }
+        // Content streams are decoded while being parsed, so the whole page content is never kept in memory.
+        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new InputStreamRandomAccessSource(page.getContentInputStream())));
+        try {
+            processContent(tokeniser, page.getResources());
+        } finally {
+            try {
+                tokeniser.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static boolean isProcessContentOverridden(Class<?> processorClass) {
+        try {
+            return processorClass.getMethod("processContent", byte[].class, PdfResources.class).getDeclaringClass() != PdfCanvasProcessor.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private void processContent(PdfTokenizer tokeniser, PdfResources resources) {
+        if (resources == null) {
+            throw new PdfException(PdfException.ResourcesCannotBeNull);
+        }
+        this.resourcesStack.push(resources);
+        PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
+        PdfCanvasOperandStack operands = new PdfCanvasOperandStack();
+        PdfCanvasOperandStack outerOperands = currentOperands;
+        currentOperands = operands;
+        try {
+            while (ps.parse(operands)) {
+                invokeOperator(operands.getOperator(), operands.toList());
+            }
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotParseContentStream, e);
+        } finally {
+            currentOperands = outerOperands;
+        }
+
+        this.resourcesStack.pop();
+
     }
 
     /**
@@ -335,10 +401,8 @@ public class PdfCanvasProcessor {
         }
 
         if (supportedEvents == null || supportedEvents.contains(EventType.RENDER_TEXT)) {
-            SetTextCharacterSpacingOperator tcOperator = new SetTextCharacterSpacingOperator();
-            registerContentOperator("Tc", tcOperator);
-            SetTextWordSpacingOperator twOperator = new SetTextWordSpacingOperator();
-            registerContentOperator("Tw", twOperator);
+            registerContentOperator("Tc", new SetTextCharacterSpacingOperator());
+            registerContentOperator("Tw", new SetTextWordSpacingOperator());
             registerContentOperator("Tz", new SetTextHorizontalScalingOperator());
             SetTextLeadingOperator tlOperator = new SetTextLeadingOperator();
             registerContentOperator("TL", tlOperator);
@@ -357,7 +421,7 @@ public class PdfCanvasProcessor {
             registerContentOperator("Tj", tjOperator);
             MoveNextLineAndShowTextOperator tickOperator = new MoveNextLineAndShowTextOperator(tstarOperator, tjOperator);
             registerContentOperator("'", tickOperator);
-            registerContentOperator("\"", new MoveNextLineAndShowTextWithSpacingOperator(twOperator, tcOperator, tickOperator));
+            registerContentOperator("\"", new MoveNextLineAndShowTextWithSpacingOperator(tickOperator));
             registerContentOperator("TJ", new ShowTextArrayOperator());
         }
 
@@ -422,10 +486,18 @@ public class PdfCanvasProcessor {
      * @param operands a list with operands
      */
     protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
-        IContentOperator op = operators.get(operator.toString());
+        // the operands of the command being parsed are passed as a lazy view of the operand stack
+        PdfCanvasOperandStack operandStack = currentOperands != null && operands == currentOperands.toList()
+                ? currentOperands : null;
+        IContentOperator op = operators.get(operandStack != null ? operandStack.getOperatorString() : operator.toString());
         if (op == null)
             op = operators.get(DEFAULT_OPERATOR);
-        op.invoke(this, operator, operands);
+        if (operandStack != null && builtInOperators.contains(op)) {
+            // built-in operators read numbers from the stack without boxing them
+            ((OperandStackOperator) op).invoke(this, operator, operandStack);
+        } else {
+            op.invoke(this, operator, operands);
+        }
     }
 
     protected PdfStream getXObjectStream(PdfName xobjectName) {
@@ -558,10 +630,23 @@ public class PdfCanvasProcessor {
     }
 
     /**
-     * A content operator implementation (unregistered).
+     * Base class for the built-in content operators. They read their operands from the {@link PdfCanvasOperandStack},
+     * so that numbers are not boxed into {@link PdfNumber} objects for every command.
+     * When invoked with a list of operands, the list is wrapped into a stack.
      */
-    private static class IgnoreOperator implements IContentOperator {
+    private abstract static class OperandStackOperator implements IContentOperator {
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+            invoke(processor, operator, new PdfCanvasOperandStack(operands));
+        }
+
+        abstract void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands);
+    }
+
+    /**
+     * A content operator implementation (unregistered).
+     */
+    private static class IgnoreOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             // ignore the operator
         }
     }
@@ -569,8 +654,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (TJ).
      */
-    private static class ShowTextArrayOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class ShowTextArrayOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfArray array = (PdfArray) operands.get(0);
             float tj = 0;
             for (PdfObject entryObj : array) {
@@ -589,40 +674,28 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (").
      */
-    private static class MoveNextLineAndShowTextWithSpacingOperator implements IContentOperator {
-        private final SetTextWordSpacingOperator setTextWordSpacing;
-        private final SetTextCharacterSpacingOperator setTextCharacterSpacing;
+    private static class MoveNextLineAndShowTextWithSpacingOperator extends OperandStackOperator {
         private final MoveNextLineAndShowTextOperator moveNextLineAndShowText;
 
-        public MoveNextLineAndShowTextWithSpacingOperator(SetTextWordSpacingOperator setTextWordSpacing, SetTextCharacterSpacingOperator setTextCharacterSpacing, MoveNextLineAndShowTextOperator moveNextLineAndShowText) {
-            this.setTextWordSpacing = setTextWordSpacing;
-            this.setTextCharacterSpacing = setTextCharacterSpacing;
+        public MoveNextLineAndShowTextWithSpacingOperator(MoveNextLineAndShowTextOperator moveNextLineAndShowText) {
             this.moveNextLineAndShowText = moveNextLineAndShowText;
         }
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber aw = (PdfNumber) operands.get(0);
-            PdfNumber ac = (PdfNumber) operands.get(1);
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float aw = operands.getFloat(0);
+            float ac = operands.getFloat(1);
             PdfString string = (PdfString) operands.get(2);
 
-            List<PdfObject> twOperands = new ArrayList<PdfObject>(1);
-            twOperands.add(0, aw);
-            setTextWordSpacing.invoke(processor, null, twOperands);
-
-            List<PdfObject> tcOperands = new ArrayList<PdfObject>(1);
-            tcOperands.add(0, ac);
-            setTextCharacterSpacing.invoke(processor, null, tcOperands);
-
-            List<PdfObject> tickOperands = new ArrayList<PdfObject>(1);
-            tickOperands.add(0, string);
-            moveNextLineAndShowText.invoke(processor, null, tickOperands);
+            processor.getGraphicsState().setWordSpacing(aw);
+            processor.getGraphicsState().setCharSpacing(ac);
+            moveNextLineAndShowText.moveNextLineAndShowText(processor, string);
         }
     }
 
     /**
      * A content operator implementation (').
      */
-    private static class MoveNextLineAndShowTextOperator implements IContentOperator {
+    private static class MoveNextLineAndShowTextOperator extends OperandStackOperator {
         private final TextMoveNextLineOperator textMoveNextLine;
         private final ShowTextOperator showText;
 
@@ -631,19 +704,25 @@ public class PdfCanvasProcessor {
             this.showText = showText;
         }
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            textMoveNextLine.invoke(processor, null, new ArrayList<PdfObject>(0));
-            showText.invoke(processor, null, operands);
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            moveNextLineAndShowText(processor, (PdfString) operands.get(0));
+        }
+
+        void moveNextLineAndShowText(PdfCanvasProcessor processor, PdfString string) {
+            textMoveNextLine.moveNextLine(processor);
+            showText.showText(processor, string);
         }
     }
 
     /**
      * A content operator implementation (Tj).
      */
-    private static class ShowTextOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfString string = (PdfString) operands.get(0);
+    private static class ShowTextOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            showText(processor, (PdfString) operands.get(0));
+        }
 
+        void showText(PdfCanvasProcessor processor, PdfString string) {
             processor.displayPdfString(string);
         }
     }
@@ -652,32 +731,33 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (T*).
      */
-    private static class TextMoveNextLineOperator implements IContentOperator {
+    private static class TextMoveNextLineOperator extends OperandStackOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
 
         public TextMoveNextLineOperator(TextMoveStartNextLineOperator moveStartNextLine) {
             this.moveStartNextLine = moveStartNextLine;
         }
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            List<PdfObject> tdoperands = new ArrayList<PdfObject>(2);
-            tdoperands.add(0, new PdfNumber(0));
-            tdoperands.add(1, new PdfNumber(-processor.getGraphicsState().getLeading()));
-            moveStartNextLine.invoke(processor, null, tdoperands);
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            moveNextLine(processor);
+        }
+
+        void moveNextLine(PdfCanvasProcessor processor) {
+            moveStartNextLine.moveStartNextLine(processor, 0, -processor.getGraphicsState().getLeading());
         }
     }
 
     /**
      * A content operator implementation (Tm).
      */
-    private static class TextSetTextMatrixOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+    private static class TextSetTextMatrixOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float a = operands.getFloat(0);
+            float b = operands.getFloat(1);
+            float c = operands.getFloat(2);
+            float d = operands.getFloat(3);
+            float e = operands.getFloat(4);
+            float f = operands.getFloat(5);
 
             processor.textLineMatrix = new Matrix(a, b, c, d, e, f);
             processor.textMatrix = processor.textLineMatrix;
@@ -687,7 +767,7 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (TD).
      */
-    private static class TextMoveStartNextLineWithLeadingOperator implements IContentOperator {
+    private static class TextMoveStartNextLineWithLeadingOperator extends OperandStackOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
         private final SetTextLeadingOperator setTextLeading;
 
@@ -696,24 +776,24 @@ public class PdfCanvasProcessor {
             this.setTextLeading = setTextLeading;
         }
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float tx = operands.getFloat(0);
+            float ty = operands.getFloat(1);
 
-            List<PdfObject> tlOperands = new ArrayList<PdfObject>(1);
-            tlOperands.add(0, new PdfNumber(-ty));
-            setTextLeading.invoke(processor, null, tlOperands);
-            moveStartNextLine.invoke(processor, null, operands);
+            setTextLeading.setLeading(processor, -ty);
+            moveStartNextLine.moveStartNextLine(processor, tx, ty);
         }
     }
 
     /**
      * A content operator implementation (Td).
      */
-    private static class TextMoveStartNextLineOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float tx = ((PdfNumber) operands.get(0)).floatValue();
-            float ty = ((PdfNumber) operands.get(1)).floatValue();
+    private static class TextMoveStartNextLineOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            moveStartNextLine(processor, operands.getFloat(0), operands.getFloat(1));
+        }
 
+        void moveStartNextLine(PdfCanvasProcessor processor, float tx, float ty) {
             Matrix translationMatrix = new Matrix(tx, ty);
             processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
             processor.textLineMatrix = processor.textMatrix;
@@ -723,10 +803,10 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (Tf).
      */
-    private static class SetTextFontOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetTextFontOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfName fontResourceName = (PdfName) operands.get(0);
-            float size = ((PdfNumber) operands.get(1)).floatValue();
+            float size = operands.getFloat(1);
 
             PdfDictionary fontsDictionary = processor.getResources().getResource(PdfName.Font);
             PdfDictionary fontDict = fontsDictionary.getAsDictionary(fontResourceName);
@@ -742,69 +822,67 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (Tr).
      */
-    private static class SetTextRenderModeOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber render = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRenderingMode(render.intValue());
+    private static class SetTextRenderModeOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            processor.getGraphicsState().setTextRenderingMode(operands.getInt(0));
         }
     }
 
     /**
      * A content operator implementation (Ts).
      */
-    private static class SetTextRiseOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber rise = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setTextRise(rise.floatValue());
+    private static class SetTextRiseOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            processor.getGraphicsState().setTextRise(operands.getFloat(0));
         }
     }
 
     /**
      * A content operator implementation (TL).
      */
-    private static class SetTextLeadingOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber leading = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setLeading(leading.floatValue());
+    private static class SetTextLeadingOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            setLeading(processor, operands.getFloat(0));
+        }
+
+        void setLeading(PdfCanvasProcessor processor, float leading) {
+            processor.getGraphicsState().setLeading(leading);
         }
     }
 
     /**
      * A content operator implementation (Tz).
      */
-    private static class SetTextHorizontalScalingOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber scale = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setHorizontalScaling(scale.floatValue());
+    private static class SetTextHorizontalScalingOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            processor.getGraphicsState().setHorizontalScaling(operands.getFloat(0));
         }
     }
 
     /**
      * A content operator implementation (Tc).
      */
-    private static class SetTextCharacterSpacingOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber charSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setCharSpacing(charSpace.floatValue());
+    private static class SetTextCharacterSpacingOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            processor.getGraphicsState().setCharSpacing(operands.getFloat(0));
         }
     }
 
     /**
      * A content operator implementation (Tw).
      */
-    private static class SetTextWordSpacingOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            PdfNumber wordSpace = (PdfNumber) operands.get(0);
-            processor.getGraphicsState().setWordSpacing(wordSpace.floatValue());
+    private static class SetTextWordSpacingOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            processor.getGraphicsState().setWordSpacing(operands.getFloat(0));
         }
     }
 
     /**
      * A content operator implementation (gs).
      */
-    private static class ProcessGraphicsStateResourceOperator implements IContentOperator {
+    private static class ProcessGraphicsStateResourceOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfName dictionaryName = (PdfName) operands.get(0);
             PdfDictionary extGState = processor.getResources().getResource(PdfName.ExtGState);
             if (extGState == null)
@@ -828,8 +906,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (q).
      */
-    private static class PushGraphicsStateOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class PushGraphicsStateOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             ParserGraphicsState gs = processor.gsStack.peek();
             ParserGraphicsState copy = new ParserGraphicsState(gs);
             processor.gsStack.push(copy);
@@ -839,14 +917,14 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (cm).
      */
-    private static class ModifyCurrentTransformationMatrixOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float a = ((PdfNumber) operands.get(0)).floatValue();
-            float b = ((PdfNumber) operands.get(1)).floatValue();
-            float c = ((PdfNumber) operands.get(2)).floatValue();
-            float d = ((PdfNumber) operands.get(3)).floatValue();
-            float e = ((PdfNumber) operands.get(4)).floatValue();
-            float f = ((PdfNumber) operands.get(5)).floatValue();
+    private static class ModifyCurrentTransformationMatrixOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float a = operands.getFloat(0);
+            float b = operands.getFloat(1);
+            float c = operands.getFloat(2);
+            float d = operands.getFloat(3);
+            float e = operands.getFloat(4);
+            float f = operands.getFloat(5);
             Matrix matrix = new Matrix(a, b, c, d, e, f);
             processor.getGraphicsState().updateCtm(matrix);
         }
@@ -855,7 +933,7 @@ public class PdfCanvasProcessor {
     /**
      * Gets a color based on a list of operands and Color space.
      */
-    private static Color getColor(PdfColorSpace pdfColorSpace, List<PdfObject> operands, PdfResources resources) {
+    private static Color getColor(PdfColorSpace pdfColorSpace, PdfCanvasOperandStack operands, PdfResources resources) {
         PdfObject pdfObject;
         if (pdfColorSpace.getPdfObject().isIndirectReference()) {
             pdfObject = ((PdfIndirectReference) pdfColorSpace.getPdfObject()).getRefersTo();
@@ -868,7 +946,7 @@ public class PdfCanvasProcessor {
                 return new DeviceGray(getColorants(operands)[0]);
             } else if (PdfName.Pattern.equals(pdfObject)) {
                 PdfDictionary patterns = resources.getResource(PdfName.Pattern);
-                if (patterns != null && operands.get(0) instanceof PdfName) {
+                if (patterns != null && operands.size() > 0 && operands.get(0) instanceof PdfName) {
                     PdfObject pattern = patterns.get((PdfName) operands.get(0));
                     if (pattern instanceof PdfDictionary) {
                         return new PatternColor(PdfPattern.getPatternInstance((PdfDictionary) pattern));
@@ -905,27 +983,22 @@ public class PdfCanvasProcessor {
     /**
      * Gets a color based on a list of operands.
      */
-    private static Color getColor(int nOperands, List<PdfObject> operands) {
-        float[] c = new float[nOperands];
-        for (int i = 0; i < nOperands; i++) {
-            c[i] = ((PdfNumber) operands.get(i)).floatValue();
-        }
-
+    private static Color getColor(int nOperands, PdfCanvasOperandStack operands) {
         switch (nOperands) {
             case 1:
-                return new DeviceGray(c[0]);
+                return new DeviceGray(operands.getFloat(0));
             case 3:
-                return new DeviceRgb(c[0], c[1], c[2]);
+                return new DeviceRgb(operands.getFloat(0), operands.getFloat(1), operands.getFloat(2));
             case 4:
-                return new DeviceCmyk(c[0], c[1], c[2], c[3]);
+                return new DeviceCmyk(operands.getFloat(0), operands.getFloat(1), operands.getFloat(2), operands.getFloat(3));
         }
         return null;
     }
 
-    private static float[] getColorants(List<PdfObject> operands) {
-        float[] c = new float[operands.size() - 1];
-        for (int i = 0; i < operands.size() - 1; i++) {
-            c[i] = ((PdfNumber) operands.get(i)).floatValue();
+    private static float[] getColorants(PdfCanvasOperandStack operands) {
+        float[] c = new float[operands.size()];
+        for (int i = 0; i < operands.size(); i++) {
+            c[i] = operands.getFloat(i);
         }
         return c;
     }
@@ -944,8 +1017,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (g).
      */
-    private static class SetGrayFillOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetGrayFillOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setFillColor(getColor(1, operands));
         }
     }
@@ -953,8 +1026,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (G).
      */
-    private static class SetGrayStrokeOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetGrayStrokeOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setStrokeColor(getColor(1, operands));
         }
     }
@@ -962,8 +1035,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (rg).
      */
-    private static class SetRGBFillOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetRGBFillOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setFillColor(getColor(3, operands));
         }
     }
@@ -971,8 +1044,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (RG).
      */
-    private static class SetRGBStrokeOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetRGBStrokeOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setStrokeColor(getColor(3, operands));
         }
     }
@@ -980,8 +1053,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (k).
      */
-    private static class SetCMYKFillOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetCMYKFillOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setFillColor(getColor(4, operands));
         }
     }
@@ -989,8 +1062,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (K).
      */
-    private static class SetCMYKStrokeOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetCMYKStrokeOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setStrokeColor(getColor(4, operands));
         }
     }
@@ -999,8 +1072,8 @@ public class PdfCanvasProcessor {
      * A content operator implementation (CS).
      *
      */
-    private static class SetColorSpaceFillOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetColorSpaceFillOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfColorSpace pdfColorSpace = determineColorSpace((PdfName) operands.get(0), processor);
             processor.getGraphicsState().setFillColor(Color.makeColor(pdfColorSpace));
         }
@@ -1024,8 +1097,8 @@ public class PdfCanvasProcessor {
      * A content operator implementation (cs).
      *
      */
-    private static class SetColorSpaceStrokeOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetColorSpaceStrokeOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfColorSpace pdfColorSpace = SetColorSpaceFillOperator.determineColorSpace((PdfName) operands.get(0), processor);
             processor.getGraphicsState().setStrokeColor(Color.makeColor(pdfColorSpace));
         }
@@ -1034,8 +1107,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (sc / scn).
      */
-    private static class SetColorFillOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetColorFillOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setFillColor(getColor(processor.getGraphicsState().getFillColor().getColorSpace(), operands, processor.getResources()));
         }
     }
@@ -1043,8 +1116,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (SC / SCN).
      */
-    private static class SetColorStrokeOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class SetColorStrokeOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setStrokeColor(getColor(processor.getGraphicsState().getStrokeColor().getColorSpace(), operands, processor.getResources()));
         }
     }
@@ -1052,8 +1125,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (BT).
      */
-    private static class BeginTextOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class BeginTextOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.textMatrix = new Matrix();
             processor.textLineMatrix = processor.textMatrix;
             processor.beginText();
@@ -1063,8 +1136,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (ET).
      */
-    private static class EndTextOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class EndTextOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.textMatrix = null;
             processor.textLineMatrix = null;
             processor.endText();
@@ -1074,9 +1147,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (BMC).
      */
-    private static class BeginMarkedContentOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor,
-                           PdfLiteral operator, List<PdfObject> operands) {
+    private static class BeginMarkedContentOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.beginMarkedContent((PdfName) operands.get(0), new PdfDictionary());
         }
 
@@ -1085,10 +1157,9 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (BDC).
      */
-    private static class BeginMarkedContentDictionaryOperator implements IContentOperator {
+    private static class BeginMarkedContentDictionaryOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor,
-                           PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
 
             PdfObject properties = operands.get(1);
 
@@ -1107,9 +1178,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (EMC).
      */
-    private static class EndMarkedContentOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor,
-                           PdfLiteral operator, List<PdfObject> operands) {
+    private static class EndMarkedContentOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.endMarkedContent();
         }
     }
@@ -1117,8 +1187,8 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (Do).
      */
-    private static class DoOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class DoOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfName xobjectName = (PdfName) operands.get(0);
             processor.displayXObject(xobjectName);
         }
@@ -1129,8 +1199,8 @@ public class PdfCanvasProcessor {
      * This not a usual operator, it will have a single operand, which will be a PdfStream object which
      * encapsulates inline image dictionary and bytes
      */
-    private static class EndImageOperator implements IContentOperator {
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+    private static class EndImageOperator extends OperandStackOperator {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             PdfStream imageStream = (PdfStream) operands.get(0);
             processor.displayImage(imageStream, true);
         }
@@ -1139,10 +1209,10 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (w).
      */
-    private static class SetLineWidthOperator implements IContentOperator {
+    private static class SetLineWidthOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float lineWidth = ((PdfNumber) operands.get(0)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral oper, PdfCanvasOperandStack operands) {
+            float lineWidth = operands.getFloat(0);
             processor.getGraphicsState().setLineWidth(lineWidth);
         }
     }
@@ -1150,10 +1220,10 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (J).
      */
-    private class SetLineCapOperator implements IContentOperator {
+    private class SetLineCapOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            int lineCap = ((PdfNumber) operands.get(0)).intValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral oper, PdfCanvasOperandStack operands) {
+            int lineCap = operands.getInt(0);
             processor.getGraphicsState().setLineCapStyle(lineCap);
         }
     }
@@ -1161,10 +1231,10 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (j).
      */
-    private class SetLineJoinOperator implements IContentOperator {
+    private class SetLineJoinOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            int lineJoin = ((PdfNumber) operands.get(0)).intValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral oper, PdfCanvasOperandStack operands) {
+            int lineJoin = operands.getInt(0);
             processor.getGraphicsState().setLineJoinStyle(lineJoin);
         }
     }
@@ -1172,10 +1242,10 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (M).
      */
-    private class SetMiterLimitOperator implements IContentOperator {
+    private class SetMiterLimitOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
-            float miterLimit = ((PdfNumber) operands.get(0)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral oper, PdfCanvasOperandStack operands) {
+            float miterLimit = operands.getFloat(0);
             processor.getGraphicsState().setMiterLimit(miterLimit);
         }
     }
@@ -1183,9 +1253,9 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (d).
      */
-    private class SetLineDashPatternOperator implements IContentOperator {
+    private class SetLineDashPatternOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral oper, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral oper, PdfCanvasOperandStack operands) {
             processor.getGraphicsState().setDashPattern(new PdfArray(Arrays.asList(operands.get(0), operands.get(1))));
         }
     }
@@ -1211,7 +1281,7 @@ public class PdfCanvasProcessor {
             contentBytes = stream.getBytes();
             final PdfArray matrix = stream.getAsArray(PdfName.Matrix);
 
-            new PushGraphicsStateOperator().invoke(processor, null, null);
+            new PushGraphicsStateOperator().invoke(processor, null, (PdfCanvasOperandStack) null);
 
             if (matrix != null) {
                 float a = matrix.getAsNumber(0).floatValue();
@@ -1254,11 +1324,11 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (m).
      */
-    private static class MoveToOperator implements IContentOperator {
+    private static class MoveToOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float x = operands.getFloat(0);
+            float y = operands.getFloat(1);
             processor.currentPath.moveTo(x, y);
         }
     }
@@ -1266,11 +1336,11 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (l).
      */
-    private static class LineToOperator implements IContentOperator {
+    private static class LineToOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float x = operands.getFloat(0);
+            float y = operands.getFloat(1);
             processor.currentPath.lineTo(x, y);
         }
     }
@@ -1278,15 +1348,15 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (c).
      */
-    private static class CurveOperator implements IContentOperator {
+    private static class CurveOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x2 = ((PdfNumber) operands.get(2)).floatValue();
-            float y2 = ((PdfNumber) operands.get(3)).floatValue();
-            float x3 = ((PdfNumber) operands.get(4)).floatValue();
-            float y3 = ((PdfNumber) operands.get(5)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float x1 = operands.getFloat(0);
+            float y1 = operands.getFloat(1);
+            float x2 = operands.getFloat(2);
+            float y2 = operands.getFloat(3);
+            float x3 = operands.getFloat(4);
+            float y3 = operands.getFloat(5);
             processor.currentPath.curveTo(x1, y1, x2, y2, x3, y3);
         }
     }
@@ -1294,13 +1364,13 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (v).
      */
-    private static class CurveFirstPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFirstPointDuplicatedOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x2 = ((PdfNumber) operands.get(0)).floatValue();
-            float y2 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float x2 = operands.getFloat(0);
+            float y2 = operands.getFloat(1);
+            float x3 = operands.getFloat(2);
+            float y3 = operands.getFloat(3);
             processor.currentPath.curveTo(x2, y2, x3, y3);
         }
     }
@@ -1308,13 +1378,13 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (y).
      */
-    private static class CurveFourhPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFourhPointDuplicatedOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x1 = ((PdfNumber) operands.get(0)).floatValue();
-            float y1 = ((PdfNumber) operands.get(1)).floatValue();
-            float x3 = ((PdfNumber) operands.get(2)).floatValue();
-            float y3 = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float x1 = operands.getFloat(0);
+            float y1 = operands.getFloat(1);
+            float x3 = operands.getFloat(2);
+            float y3 = operands.getFloat(3);
             processor.currentPath.curveFromTo(x1, y1, x3, y3);
         }
     }
@@ -1322,9 +1392,9 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (h).
      */
-    private static class CloseSubpathOperator implements IContentOperator {
+    private static class CloseSubpathOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.currentPath.closeSubpath();
         }
     }
@@ -1332,13 +1402,13 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (re).
      */
-    private static class RectangleOperator implements IContentOperator {
+    private static class RectangleOperator extends OperandStackOperator {
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
-            float x = ((PdfNumber) operands.get(0)).floatValue();
-            float y = ((PdfNumber) operands.get(1)).floatValue();
-            float w = ((PdfNumber) operands.get(2)).floatValue();
-            float h = ((PdfNumber) operands.get(3)).floatValue();
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
+            float x = operands.getFloat(0);
+            float y = operands.getFloat(1);
+            float w = operands.getFloat(2);
+            float h = operands.getFloat(3);
             processor.currentPath.rectangle(x, y, w, h);
         }
     }
@@ -1346,7 +1416,7 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (S, s, f, F, f*, B, B*, b, b*).
      */
-    private static class PaintPathOperator implements IContentOperator {
+    private static class PaintPathOperator extends OperandStackOperator {
 
         private int operation;
         private int rule;
@@ -1368,7 +1438,7 @@ public class PdfCanvasProcessor {
             this.close = close;
         }
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             if (close) {
                 processor.currentPath.closeSubpath();
             }
@@ -1380,7 +1450,7 @@ public class PdfCanvasProcessor {
     /**
      * A content operator implementation (W, W*)
      */
-    private static class ClipPathOperator implements IContentOperator {
+    private static class ClipPathOperator extends OperandStackOperator {
 
         private int rule;
 
@@ -1388,7 +1458,7 @@ public class PdfCanvasProcessor {
             this.rule = rule;
         }
 
-        public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+        void invoke(PdfCanvasProcessor processor, PdfLiteral operator, PdfCanvasOperandStack operands) {
             processor.isClip = true;
             processor.clippingRule = rule;
         }
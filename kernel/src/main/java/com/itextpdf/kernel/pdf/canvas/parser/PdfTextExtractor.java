@@ -43,11 +43,24 @@
  */
 package com.itextpdf.kernel.pdf.canvas.parser;
 
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
 import com.itextpdf.kernel.pdf.PdfPage;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public final class PdfTextExtractor {
 
@@ -78,4 +91,79 @@ public final class PdfTextExtractor {
     public static String getTextFromPage(PdfPage page) throws IOException {
         return getTextFromPage(page, new LocationTextExtractionStrategy());
     }
+
+    /**
+     * Extract text from all pages of the document in parallel.
+     * Every page is processed by its own {@link PdfCanvasProcessor} and strategy, while fonts decoded
+     * by one of the processors are shared with the others.
+     * The document must be opened with {@link com.itextpdf.kernel.pdf.ReaderProperties#setConcurrentReading(boolean)}
+     * if it is read from a {@link PdfReader}, and it must not be modified until the extraction is finished.
+     *
+     * @param document        the document to extract text from
+     * @param strategyFactory the factory that creates a strategy for each page
+     * @param executorService the executor to process pages with
+     * @return the extracted text, one item per page in the order of pages
+     */
+    public static List<String> getTextFromPages(PdfDocument document, ITextExtractionStrategyFactory strategyFactory,
+                                                ExecutorService executorService) {
+        return getTextFromPages(document, 1, document.getNumberOfPages(), strategyFactory, executorService);
+    }
+
+    /**
+     * Extract text from the range of pages of the document in parallel.
+     * See {@link PdfTextExtractor#getTextFromPages(PdfDocument, ITextExtractionStrategyFactory, ExecutorService)}.
+     *
+     * @param document        the document to extract text from
+     * @param fromPage        the first page to extract text from, one-based
+     * @param toPage          the last page to extract text from, inclusive
+     * @param strategyFactory the factory that creates a strategy for each page
+     * @param executorService the executor to process pages with
+     * @return the extracted text, one item per page in the order of pages
+     */
+    public static List<String> getTextFromPages(final PdfDocument document, int fromPage, int toPage,
+                                                final ITextExtractionStrategyFactory strategyFactory,
+                                                ExecutorService executorService) {
+        PdfReader reader = document.getReader();
+        if (reader != null && !reader.isConcurrentReading()) {
+            throw new PdfException(PdfException.DocumentMustBeOpenedWithConcurrentReading);
+        }
+        final Map<Integer, PdfFont> cachedFonts = new ConcurrentHashMap<>();
+        List<Future<String>> results = new ArrayList<>(Math.max(toPage - fromPage + 1, 0));
+        for (int i = fromPage; i <= toPage; i++) {
+            final int pageNum = i;
+            results.add(executorService.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    ITextExtractionStrategy strategy = strategyFactory.createStrategy();
+                    PdfCanvasProcessor parser = new PdfCanvasProcessor(strategy, cachedFonts);
+                    parser.processPageContent(document.getPage(pageNum));
+                    return strategy.getResultantText();
+                }
+            }));
+        }
+
+        List<String> text = new ArrayList<>(results.size());
+        try {
+            for (Future<String> result : results) {
+                text.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(results);
+            throw new PdfException(PdfException.CannotParseContentStream, e);
+        } catch (ExecutionException e) {
+            cancel(results);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PdfException(PdfException.CannotParseContentStream, e.getCause());
+        }
+        return text;
+    }
+
+    private static void cancel(List<Future<String>> results) {
+        for (Future<String> result : results) {
+            result.cancel(true);
+        }
+    }
 }
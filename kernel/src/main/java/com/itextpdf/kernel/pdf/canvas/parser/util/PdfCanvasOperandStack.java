@@ -0,0 +1,376 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2016 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.util;
+
+import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holds the operands and the operator of a single content stream command.
+ * <br>
+ * Unlike the list filled by {@link PdfCanvasParser#parse(List)}, numeric operands are kept as primitive values
+ * and are only wrapped into {@link PdfNumber} objects on demand. Names and operators are interned, so that
+ * repeated commands of a content stream share the same {@link PdfName} and {@link PdfLiteral} instances.
+ * The stack is reused for every command, therefore the objects obtained from it must not be modified.
+ */
+public class PdfCanvasOperandStack {
+
+    private static final int INTERN_CACHE_SIZE = 64;
+
+    private static final int MAX_FAST_PARSED_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    /**
+     * Raw bytes of the tokens of the current command.
+     */
+    private final ByteBuffer tokenBytes = new ByteBuffer();
+
+    private double[] numbers = new double[8];
+    private int[] numberOffsets = new int[8];
+    private int[] numberLengths = new int[8];
+
+    /**
+     * Operand objects; {@code null} for the numeric operands which were not materialized yet.
+     */
+    private PdfObject[] objects = new PdfObject[8];
+    private int size;
+
+    private PdfLiteral operator;
+    private String operatorString;
+
+    private final List<PdfObject> operandList = new OperandList();
+
+    private final byte[][] nameKeys = new byte[INTERN_CACHE_SIZE][];
+    private final PdfName[] names = new PdfName[INTERN_CACHE_SIZE];
+
+    private final byte[][] operatorKeys = new byte[INTERN_CACHE_SIZE][];
+    private final PdfLiteral[] operators = new PdfLiteral[INTERN_CACHE_SIZE];
+    private final String[] operatorStrings = new String[INTERN_CACHE_SIZE];
+
+    /**
+     * Creates an empty operand stack, which is supposed to be filled by {@link PdfCanvasParser#parse(PdfCanvasOperandStack)}.
+     */
+    public PdfCanvasOperandStack() {
+    }
+
+    /**
+     * Creates an operand stack over the operands list in the format of {@link PdfCanvasParser#parse(List)}.
+     * If the last element of the list is a {@link PdfLiteral}, it is treated as the operator.
+     *
+     * @param operands the list of operands, may be {@code null}
+     */
+    public PdfCanvasOperandStack(List<PdfObject> operands) {
+        if (operands != null) {
+            int count = operands.size();
+            if (count > 0 && operands.get(count - 1) instanceof PdfLiteral) {
+                count--;
+                operator = (PdfLiteral) operands.get(count);
+                operatorString = operator.toString();
+            }
+            for (int i = 0; i < count; i++) {
+                push(operands.get(i));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of operands of the current command, the operator is not counted.
+     *
+     * @return the number of operands
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the operand is a number.
+     *
+     * @param index the index of the operand
+     * @return true if the operand is a number
+     */
+    public boolean isNumber(int index) {
+        checkIndex(index);
+        return objects[index] == null || objects[index].isNumber();
+    }
+
+    /**
+     * Gets the value of a numeric operand.
+     *
+     * @param index the index of the operand
+     * @return the value of the operand
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        PdfObject object = objects[index];
+        if (object == null) {
+            return numbers[index];
+        }
+        return ((PdfNumber) object).doubleValue();
+    }
+
+    /**
+     * Gets the value of a numeric operand.
+     *
+     * @param index the index of the operand
+     * @return the value of the operand
+     */
+    public float getFloat(int index) {
+        return (float) getDouble(index);
+    }
+
+    /**
+     * Gets the value of a numeric operand.
+     *
+     * @param index the index of the operand
+     * @return the value of the operand
+     */
+    public int getInt(int index) {
+        return (int) getDouble(index);
+    }
+
+    /**
+     * Gets the operand as {@link PdfObject}. Numeric operands are wrapped into {@link PdfNumber} on the first call.
+     *
+     * @param index the index of the operand
+     * @return the operand
+     */
+    public PdfObject get(int index) {
+        checkIndex(index);
+        if (objects[index] == null) {
+            objects[index] = new PdfNumber(tokenBytes.toByteArray(numberOffsets[index], numberLengths[index]));
+        }
+        return objects[index];
+    }
+
+    /**
+     * Gets the operator of the current command.
+     *
+     * @return the operator
+     */
+    public PdfLiteral getOperator() {
+        return operator;
+    }
+
+    /**
+     * Gets the operator of the current command as string.
+     *
+     * @return the operator string
+     */
+    public String getOperatorString() {
+        return operatorString;
+    }
+
+    /**
+     * Gets the current command as list of operands having the operator as the last element,
+     * i.e. in the same format as {@link PdfCanvasParser#parse(List)} returns. The list is a read-only view
+     * of the stack, numeric operands are wrapped into {@link PdfNumber} only when they are requested.
+     * The same list instance is returned for every command, it always reflects the current command.
+     *
+     * @return the list of operands
+     */
+    public List<PdfObject> toList() {
+        return operandList;
+    }
+
+    void clear() {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        operator = null;
+        operatorString = null;
+        tokenBytes.reset();
+    }
+
+    void push(PdfObject object) {
+        ensureCapacity();
+        objects[size++] = object;
+    }
+
+    void pushNumber(PdfTokenizer tokeniser) {
+        ensureCapacity();
+        int offset = tokenBytes.size();
+        tokeniser.appendTokenValue(tokenBytes);
+        int length = tokenBytes.size() - offset;
+        numberOffsets[size] = offset;
+        numberLengths[size] = length;
+        numbers[size] = parseNumber(tokenBytes.getInternalBuffer(), offset, length);
+        objects[size++] = null;
+    }
+
+    void pushName(PdfTokenizer tokeniser) {
+        int offset = tokenBytes.size();
+        tokeniser.appendTokenValue(tokenBytes);
+        int length = tokenBytes.size() - offset;
+        int slot = hash(offset, length);
+        if (!regionEquals(nameKeys[slot], offset, length)) {
+            nameKeys[slot] = tokenBytes.toByteArray(offset, length);
+            names[slot] = new PdfName(nameKeys[slot]);
+        }
+        push(names[slot]);
+    }
+
+    void setOperator(PdfTokenizer tokeniser) {
+        int offset = tokenBytes.size();
+        tokeniser.appendTokenValue(tokenBytes);
+        int length = tokenBytes.size() - offset;
+        int slot = hash(offset, length);
+        if (!regionEquals(operatorKeys[slot], offset, length)) {
+            operatorKeys[slot] = tokenBytes.toByteArray(offset, length);
+            operators[slot] = new PdfLiteral(operatorKeys[slot]);
+            operatorStrings[slot] = operators[slot].toString();
+        }
+        setOperator(operators[slot], operatorStrings[slot]);
+    }
+
+    void setOperator(PdfLiteral operator, String operatorString) {
+        this.operator = operator;
+        this.operatorString = operatorString;
+    }
+
+    private class OperandList extends AbstractList<PdfObject> {
+        @Override
+        public PdfObject get(int index) {
+            return index == size && operator != null ? operator : PdfCanvasOperandStack.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return operator != null ? size + 1 : size;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == objects.length) {
+            int newLength = size << 1;
+            objects = Arrays.copyOf(objects, newLength);
+            numbers = Arrays.copyOf(numbers, newLength);
+            numberOffsets = Arrays.copyOf(numberOffsets, newLength);
+            numberLengths = Arrays.copyOf(numberLengths, newLength);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private int hash(int offset, int length) {
+        byte[] buffer = tokenBytes.getInternalBuffer();
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        return (hash ^ (hash >>> 16)) & (INTERN_CACHE_SIZE - 1);
+    }
+
+    private boolean regionEquals(byte[] key, int offset, int length) {
+        if (key == null || key.length != length) {
+            return false;
+        }
+        byte[] buffer = tokenBytes.getInternalBuffer();
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a number token the same way as {@link PdfNumber#getValue()} does, but without creating strings
+     * for the common case of a plain decimal number with no more than 15 digits.
+     */
+    static double parseNumber(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            byte ch = buffer[i];
+            if (ch >= '0' && ch <= '9') {
+                if (++digits > MAX_FAST_PARSED_DIGITS) {
+                    return parseNumberSlow(buffer, offset, length);
+                }
+                mantissa = mantissa * 10 + ch - '0';
+                if (point) {
+                    fractionDigits++;
+                }
+            } else if (ch == '.' && !point) {
+                point = true;
+            } else {
+                return parseNumberSlow(buffer, offset, length);
+            }
+        }
+        if (digits == 0) {
+            return parseNumberSlow(buffer, offset, length);
+        }
+        // both operands are exact doubles, so the division is correctly rounded just like Double.parseDouble
+        double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double parseNumberSlow(byte[] buffer, int offset, int length) {
+        try {
+            return Double.parseDouble(new String(buffer, offset, length));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -127,6 +127,43 @@ public class PdfCanvasParser {
         return ls;
     }
 
+    /**
+     * Parses a single command from the content into the operand stack. Numbers, names and operators are
+     * not materialized as separate objects, see {@link PdfCanvasOperandStack}.
+     * <br>
+     * Inline images are handled in the same way as by {@link #parse(List)}: the stack will contain
+     * a single PdfStream operand and the EI operator.
+     * @param stack the operand stack to use. It will be cleared before using
+     * @return <CODE>true</CODE> if a command was read, <CODE>false</CODE> if the end of content was reached
+     * @throws IOException on error
+     */
+    public boolean parse(PdfCanvasOperandStack stack) throws IOException {
+        stack.clear();
+        while (nextValidToken()) {
+            switch (tokeniser.getTokenType()) {
+                case Number:
+                    stack.pushNumber(tokeniser);
+                    break;
+                case Name:
+                    stack.pushName(tokeniser);
+                    break;
+                case Other:
+                    stack.setOperator(tokeniser);
+                    if ("BI".equals(stack.getOperatorString())) {
+                        PdfStream inlineImageAsStream = InlineImageParsingUtils.parse(this, currentResources.getResource(PdfName.ColorSpace));
+                        stack.clear();
+                        stack.push(inlineImageAsStream);
+                        stack.setOperator(new PdfLiteral("EI"), "EI");
+                    }
+                    return true;
+                default:
+                    stack.push(readCurrentObject());
+                    break;
+            }
+        }
+        return false;
+    }
+
     /**
      * Gets the tokeniser.
      * @return the tokeniser.
@@ -190,6 +227,10 @@ public class PdfCanvasParser {
     public PdfObject readObject() throws IOException {
         if (!nextValidToken())
             return null;
+        return readCurrentObject();
+    }
+
+    private PdfObject readCurrentObject() throws IOException {
         final PdfTokenizer.TokenType type = tokeniser.getTokenType();
         switch (type) {
             case StartDic: {
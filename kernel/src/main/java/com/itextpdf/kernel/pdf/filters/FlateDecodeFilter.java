@@ -53,12 +53,18 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
  * Handles FlateDecode filter.
  */
-public class FlateDecodeFilter implements IFilterHandler {
+public class FlateDecodeFilter implements IByteBufferFilterHandler {
+
+    private static final int CHUNK_SIZE = 8192;
 
     @Override
     public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
@@ -69,6 +75,17 @@ public class FlateDecodeFilter implements IFilterHandler {
         return b;
     }
 
+    @Override
+    public void decode(ByteBuffer b, OutputStream output, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) throws IOException {
+        if (getPredictor(decodeParams) != 1) {
+            ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+            flateDecode(b, inflated);
+            output.write(decodePredictor(inflated.toByteArray(), decodeParams));
+        } else {
+            flateDecode(b, output);
+        }
+    }
+
     /**
      * A helper to flateDecode.
      *
@@ -97,6 +114,25 @@ public class FlateDecodeFilter implements IFilterHandler {
         }
     }
 
+    /**
+     * Inflates the remaining bytes of the buffer and writes the result to the output stream.
+     * Like {@link #decode(byte[], PdfName, PdfObject, PdfDictionary)}, treats corrupted data as the end of the stream
+     * and writes everything that was decoded before it.
+     *
+     * @param in the input data
+     * @param out the stream the decoded data is written to
+     * @throws IOException if the decoded data cannot be written to the output stream
+     */
+    public static void flateDecode(ByteBuffer in, OutputStream out) throws IOException {
+        int start = in.position();
+        long decoded = inflate(in, out, -1);
+        if (decoded < 0) {
+            // The data is corrupted. Decode it once again and write byte by byte what follows the already written part.
+            in.position(start);
+            inflate(in, out, -1 - decoded);
+        }
+    }
+
     /**
      * @param in Input byte array.
      * @param decodeParams PdfDictionary of decodeParams.
@@ -222,4 +258,68 @@ public class FlateDecodeFilter implements IFilterHandler {
             curr = tmp;
         }
     }
+
+    /**
+     * Inflates the remaining bytes of the buffer.
+     *
+     * @param in the input data
+     * @param out the stream the decoded data is written to
+     * @param skip -1 to read a correct stream, otherwise the number of leading decoded bytes that shall not be
+     *             written again when reading a corrupted stream
+     * @return the number of decoded bytes, or -1 minus the number of written bytes if a correct stream was expected
+     * but the data is corrupted
+     * @throws IOException if the decoded data cannot be written to the output stream
+     */
+    private static long inflate(ByteBuffer in, OutputStream out, long skip) throws IOException {
+        boolean strict = skip < 0;
+        Inflater inflater = new Inflater();
+        byte[] input = in.hasArray() ? null : new byte[CHUNK_SIZE];
+        byte[] output = new byte[CHUNK_SIZE];
+        long count = 0;
+        try {
+            while (!inflater.finished() && !inflater.needsDictionary()) {
+                if (inflater.needsInput()) {
+                    if (!in.hasRemaining()) {
+                        break;
+                    }
+                    if (input == null) {
+                        inflater.setInput(in.array(), in.arrayOffset() + in.position(), in.remaining());
+                        in.position(in.limit());
+                    } else {
+                        int len = Math.min(input.length, in.remaining());
+                        in.get(input, 0, len);
+                        inflater.setInput(input, 0, len);
+                    }
+                }
+                int len = output.length;
+                if (!strict) {
+                    // Corrupted data can only be decoded up to the damaged place if it is read byte by byte
+                    len = count < skip ? (int) Math.min(len, skip - count) : 1;
+                }
+                int n;
+                try {
+                    n = inflater.inflate(output, 0, len);
+                } catch (DataFormatException e) {
+                    return strict ? -1 - count : count;
+                }
+                if (strict || count >= skip) {
+                    out.write(output, 0, n);
+                }
+                count += n;
+            }
+            return count;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int getPredictor(PdfObject decodeParams) {
+        if (decodeParams == null || decodeParams.getType() != PdfObject.DICTIONARY)
+            return 1;
+        PdfObject obj = ((PdfDictionary)decodeParams).get(PdfName.Predictor);
+        if (obj == null || obj.getType() != PdfObject.NUMBER)
+            return 1;
+        int predictor = ((PdfNumber)obj).intValue();
+        return predictor < 10 && predictor != 2 ? 1 : predictor;
+    }
 }
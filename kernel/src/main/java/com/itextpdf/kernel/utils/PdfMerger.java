@@ -44,6 +44,7 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +56,7 @@ public class PdfMerger {
     private boolean closeSrcDocuments;
     private boolean mergeTags;
     private boolean mergeOutlines;
+    private boolean streamingMode;
 
     /**
      * This class is used to merge a number of existing documents into one. By default, if source document
@@ -93,6 +95,22 @@ public class PdfMerger {
         return this;
     }
 
+    /**
+     * If set to <i>true</i> then the memory used by the merger doesn't grow with the number of merged documents.
+     * The pages merged by the <i>{@code PdfMerger#merge}</i> method are flushed together with their resources
+     * right after they are copied, so they can't be modified afterwards. The information about the objects copied
+     * from the source document is discarded, so objects shared by pages merged by different calls are copied
+     * separately, unless the smart mode of the {@link com.itextpdf.kernel.pdf.PdfWriter} finds them.
+     * Only outlines and tag structure of the merged documents are kept till the current document is closed.
+     * Default value - <i>false</i>.
+     * @param streamingMode should be true to merge documents in the streaming mode.
+     * @return this {@code PdfMerger} instance.
+     */
+    public PdfMerger setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+        return this;
+    }
+
     /**
      * This method merges pages from the source document to the current one.
      * <br/><br/>
@@ -128,10 +146,18 @@ public class PdfMerger {
             pdfDocument.initializeOutlines();
         }
 
-        from.copyPagesTo(pages, pdfDocument);
+        List<PdfPage> copiedPages = from.copyPagesTo(pages, pdfDocument);
+        if (streamingMode) {
+            for (PdfPage page : copiedPages) {
+                page.flush(true);
+            }
+        }
         if (closeSrcDocuments) {
             from.close();
         }
+        if (streamingMode) {
+            pdfDocument.getWriter().clearCopiedObjects();
+        }
         return this;
     }
 
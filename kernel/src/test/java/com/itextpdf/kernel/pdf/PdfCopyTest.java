@@ -2,6 +2,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -12,7 +13,10 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -49,6 +53,116 @@ public class PdfCopyTest extends ExtendedITextTest {
         Assert.assertTrue(sigRef.get(PdfName.Data).isNull());
     }
 
+    @Test
+    public void rawStreamCopyingTest() throws IOException {
+        String srcFile = destinationFolder + "rawStreamCopyingSource.pdf";
+        String destFile = destinationFolder + "rawStreamCopying.pdf";
+        PdfDocument srcDoc = new PdfDocument(new PdfWriter(srcFile));
+        for (int i = 1; i <= 3; i++) {
+            PdfPage page = srcDoc.addNewPage();
+            if (i == 2) {
+                page.getFirstContentStream().setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+            }
+            new PdfCanvas(page).rectangle(100, 100, 100 * i, 100).fill();
+        }
+        srcDoc.close();
+
+        srcDoc = new PdfDocument(new PdfReader(srcFile));
+        PdfDocument destDoc = new PdfDocument(new PdfWriter(destFile, new WriterProperties().useRawStreamCopying()));
+        srcDoc.copyPagesTo(1, 3, destDoc);
+        srcDoc.copyPagesTo(1, 1, destDoc);
+        // the copied streams have been written already, so the source document can be closed before the resultant one
+        byte[][] srcContents = new byte[3][];
+        for (int i = 1; i <= 3; i++) {
+            srcContents[i - 1] = srcDoc.getPage(i).getFirstContentStream().getBytes(false);
+        }
+        srcDoc.close();
+        destDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(destFile));
+        assertEquals(4, resultDoc.getNumberOfPages());
+        for (int i = 1; i <= 4; i++) {
+            PdfStream content = resultDoc.getPage(i).getFirstContentStream();
+            Assert.assertArrayEquals(srcContents[(i - 1) % 3], content.getBytes(false));
+            assertEquals(srcContents[(i - 1) % 3].length, content.getAsNumber(PdfName.Length).intValue());
+        }
+        assertNull(resultDoc.getPage(2).getFirstContentStream().get(PdfName.Filter));
+        Assert.assertTrue(new String(resultDoc.getPage(2).getFirstContentStream().getBytes()).startsWith("100 100 200 100 re"));
+        resultDoc.close();
+    }
+
+    @Test
+    public void rawStreamCopyingIndirectLengthTest() throws IOException {
+        String srcFile = destinationFolder + "rawStreamCopyingIndirectLengthSource.pdf";
+        String destFile = destinationFolder + "rawStreamCopyingIndirectLength.pdf";
+        byte[] content = "100 100 200 100 re f".getBytes();
+        PdfDocument srcDoc = new PdfDocument(new PdfWriter(srcFile));
+        PdfPage page = srcDoc.addNewPage();
+        // a stream created from an input stream has an indirect length
+        page.getPdfObject().put(PdfName.Contents, new PdfStream(srcDoc, new ByteArrayInputStream(content)));
+        srcDoc.close();
+
+        srcDoc = new PdfDocument(new PdfReader(srcFile));
+        Assert.assertTrue(srcDoc.getPage(1).getFirstContentStream().get(PdfName.Length, false).isIndirectReference());
+        PdfDocument destDoc = new PdfDocument(new PdfWriter(destFile, new WriterProperties().useRawStreamCopying()));
+        destDoc.setFlushUnusedObjects(true);
+        PdfStream srcContent = srcDoc.getPage(1).getFirstContentStream();
+        List<PdfName> srcKeys = new ArrayList<>(srcContent.keySet());
+        srcDoc.copyPagesTo(1, 1, destDoc);
+        // the source stream is not changed by copying
+        Assert.assertEquals(srcKeys, new ArrayList<>(srcContent.keySet()));
+        Assert.assertTrue(srcContent.get(PdfName.Length, false).isIndirectReference());
+        srcDoc.close();
+        destDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(destFile));
+        PdfStream resultContent = resultDoc.getPage(1).getFirstContentStream();
+        Assert.assertArrayEquals(content, resultContent.getBytes());
+        Assert.assertFalse(resultContent.get(PdfName.Length, false).isIndirectReference());
+        // the indirect length of the source stream is not copied as an unreferenced object
+        for (int i = 1; i < resultDoc.getNumberOfPdfObjects(); i++) {
+            PdfObject object = resultDoc.getPdfObject(i);
+            Assert.assertFalse(object != null && object.isNumber());
+        }
+        resultDoc.close();
+    }
+
+    @Test
+    public void smartModeCopyingTest() throws IOException {
+        String srcFile = destinationFolder + "smartModeCopyingSource.pdf";
+        String destFile = destinationFolder + "smartModeCopying.pdf";
+        PdfDocument srcDoc = new PdfDocument(new PdfWriter(srcFile));
+        for (int i = 1; i <= 2; i++) {
+            new PdfCanvas(srcDoc.addNewPage()).rectangle(100, 100, 100 * i, 100).fill();
+        }
+        srcDoc.close();
+
+        PdfWriter writer = new PdfWriter(destFile, new WriterProperties().useSmartMode(100));
+        PdfDocument destDoc = new PdfDocument(writer);
+        for (int i = 0; i < 2; i++) {
+            srcDoc = new PdfDocument(new PdfReader(srcFile));
+            srcDoc.copyPagesTo(1, 2, destDoc);
+            srcDoc.close();
+        }
+        SmartModeStatistics statistics = writer.getSmartModeStatistics();
+        destDoc.close();
+
+        Assert.assertTrue(statistics.getHits() >= 2);
+        Assert.assertTrue(statistics.getMisses() >= 2);
+        Assert.assertTrue(statistics.getIndexedObjects() <= 100);
+        Assert.assertTrue(statistics.getEstimatedMemoryUsage() > 0);
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(destFile));
+        assertEquals(4, resultDoc.getNumberOfPages());
+        assertEquals(resultDoc.getPage(1).getFirstContentStream().getIndirectReference(),
+                resultDoc.getPage(3).getFirstContentStream().getIndirectReference());
+        assertEquals(resultDoc.getPage(2).getFirstContentStream().getIndirectReference(),
+                resultDoc.getPage(4).getFirstContentStream().getIndirectReference());
+        Assert.assertNotEquals(resultDoc.getPage(1).getFirstContentStream().getIndirectReference(),
+                resultDoc.getPage(2).getFirstContentStream().getIndirectReference());
+        resultDoc.close();
+    }
+
     @Test
     public void copying1() throws IOException {
         PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(destinationFolder + "copying1_1.pdf"));
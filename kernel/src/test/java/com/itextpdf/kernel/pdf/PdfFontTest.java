@@ -20,7 +20,12 @@ import org.junit.experimental.categories.Category;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Category(IntegrationTest.class)
 public class PdfFontTest extends ExtendedITextTest {
@@ -1288,6 +1293,54 @@ public class PdfFontTest extends ExtendedITextTest {
         pdfDoc.close();
     }
 
+    private static byte[] writeDocumentWithFonts(String[] fonts, WriterProperties properties) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, properties));
+        PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+        for (int i = 0; i < fonts.length; i++) {
+            String encoding = i % 2 == 0 ? PdfEncodings.IDENTITY_H : PdfEncodings.WINANSI;
+            canvas.beginText()
+                    .moveText(36, 700 - i * 30)
+                    .setFontAndSize(PdfFontFactory.createFont(fontsFolder + fonts[i], encoding, true), 20)
+                    .showText("Hello World " + fonts[i])
+                    .endText();
+        }
+        canvas.release();
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static Map<String, byte[]> getFontFiles(byte[] pdf) throws IOException {
+        return getFontFiles(new PdfReader(new java.io.ByteArrayInputStream(pdf)));
+    }
+
+    private static Map<String, byte[]> getFontFiles(PdfReader reader) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(reader);
+        Map<String, byte[]> fontFiles = new HashMap<>();
+        PdfDictionary fonts = pdfDoc.getFirstPage().getResources().getResource(PdfName.Font);
+        for (PdfName name : fonts.keySet()) {
+            PdfDictionary font = fonts.getAsDictionary(name);
+            String fontName = font.getAsName(PdfName.BaseFont).getValue();
+            // subset prefixes are random
+            fontName = fontName.substring(fontName.indexOf('+') + 1);
+            PdfDictionary descriptor;
+            if (PdfName.Type0.equals(font.getAsName(PdfName.Subtype))) {
+                PdfDictionary cidFont = font.getAsArray(PdfName.DescendantFonts).getAsDictionary(0);
+                descriptor = cidFont.getAsDictionary(PdfName.FontDescriptor);
+                fontFiles.put(fontName + " W", cidFont.getAsArray(PdfName.W).toString().getBytes());
+            } else {
+                descriptor = font.getAsDictionary(PdfName.FontDescriptor);
+            }
+            PdfStream fontFile = descriptor.getAsStream(PdfName.FontFile2);
+            if (fontFile == null) {
+                fontFile = descriptor.getAsStream(PdfName.FontFile3);
+            }
+            fontFiles.put(fontName, fontFile.getBytes());
+        }
+        pdfDoc.close();
+        return fontFiles;
+    }
+
     @Test
     public void testSplitString() throws IOException {
         PdfFont font = PdfFontFactory.createFont();
@@ -1298,5 +1351,111 @@ public class PdfFontTest extends ExtendedITextTest {
         Assert.assertTrue(list2.size() == 5);
     }
 
+    @Test
+    public void writeSubsetTest() throws IOException {
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", false);
+        Set<Integer> glyphs = new HashSet<>();
+        for (char ch : "Hello World".toCharArray()) {
+            glyphs.add(font.getGlyph(ch).getCode());
+        }
+        ByteArrayOutputStream subset = new ByteArrayOutputStream();
+        font.writeSubset(new HashSet<>(glyphs), true, subset);
+        Assert.assertArrayEquals(font.getSubset(new HashSet<>(glyphs), true), subset.toByteArray());
+
+        // checksums of the rebuilt glyf and loca tables are computed while the glyphs are streamed
+        ByteBuffer bytes = ByteBuffer.wrap(subset.toByteArray());
+        int checkedTables = 0;
+        for (int i = 0; i < bytes.getShort(4); i++) {
+            int entry = 12 + i * 16;
+            String tag = new String(subset.toByteArray(), entry, 4, "ISO-8859-1");
+            if ("glyf".equals(tag) || "loca".equals(tag)) {
+                int offset = bytes.getInt(entry + 8);
+                int length = bytes.getInt(entry + 12);
+                int checksum = 0;
+                for (int k = 0; k < length; k += 4) {
+                    checksum += bytes.getInt(offset + k);
+                }
+                Assert.assertEquals(tag, bytes.getInt(entry + 4), checksum);
+                checkedTables++;
+            }
+        }
+        Assert.assertEquals(2, checkedTables);
+    }
+
+    @Test
+    public void parallelFontSubsettingTest() throws IOException {
+        String[] fonts = {"NotoSerif-Regular.ttf", "Aller_Rg.ttf", "LobsterTwo-Regular.ttf", "abserif4_5.ttf", "Puritan2.otf", "arial.ttf"};
+        Map<String, byte[]> parallelFontFiles = getFontFiles(writeDocumentWithFonts(fonts, new WriterProperties().useParallelCompression(2)));
+        Map<String, byte[]> fontFiles = getFontFiles(writeDocumentWithFonts(fonts, new WriterProperties()));
+        // font files and W arrays of composite fonts
+        Assert.assertEquals(fonts.length + 3, fontFiles.size());
+        Assert.assertEquals(fontFiles.keySet(), parallelFontFiles.keySet());
+        for (Map.Entry<String, byte[]> entry : fontFiles.entrySet()) {
+            Assert.assertArrayEquals(entry.getKey(), entry.getValue(), parallelFontFiles.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void fontSubsetCacheTest() throws IOException {
+        String[] fonts = {"NotoSerif-Regular.ttf", "Aller_Rg.ttf", "Puritan2.otf", "abserif4_5.ttf"};
+        FontSubsetCache cache = new FontSubsetCache(10 * 1024 * 1024);
+        Map<String, byte[]> fontFiles = getFontFiles(writeDocumentWithFonts(fonts, new WriterProperties()));
+        Map<String, byte[]> cachedFontFiles = getFontFiles(writeDocumentWithFonts(fonts, new WriterProperties().useFontSubsetCache(cache)));
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(fonts.length, cache.getMissCount());
+        Assert.assertEquals(fonts.length, cache.size());
+        Assert.assertTrue(cache.getSizeInBytes() > 0);
+
+        byte[] password = "owner".getBytes();
+        WriterProperties properties = new WriterProperties().useFontSubsetCache(cache).useParallelCompression(2)
+                .setStandardEncryption(null, password, EncryptionConstants.ALLOW_PRINTING, EncryptionConstants.ENCRYPTION_AES_128);
+        PdfReader reader = new PdfReader(new java.io.ByteArrayInputStream(writeDocumentWithFonts(fonts, properties)),
+                new ReaderProperties().setPassword(password));
+        Map<String, byte[]> reusedFontFiles = getFontFiles(reader);
+        Assert.assertEquals(fonts.length, cache.getHitCount());
+        Assert.assertEquals(fonts.length, cache.getBuildCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+
+        // font files and W arrays of composite fonts
+        Assert.assertEquals(fonts.length + 2, fontFiles.size());
+        for (Map.Entry<String, byte[]> entry : fontFiles.entrySet()) {
+            Assert.assertArrayEquals(entry.getKey(), entry.getValue(), cachedFontFiles.get(entry.getKey()));
+            Assert.assertArrayEquals(entry.getKey(), entry.getValue(), reusedFontFiles.get(entry.getKey()));
+        }
+
+        // another font type and another compression level are different subsets
+        writeDocumentWithFonts(new String[] {"Aller_Rg.ttf"}, new WriterProperties().useFontSubsetCache(cache));
+        writeDocumentWithFonts(fonts, new WriterProperties().useFontSubsetCache(cache).setCompressionLevel(CompressionConstants.BEST_COMPRESSION));
+        Assert.assertEquals(fonts.length, cache.getHitCount());
+        Assert.assertEquals(2 * fonts.length + 1, cache.size());
+    }
+
+    @Test
+    public void fontSubsetCacheEvictionTest() throws IOException {
+        String[] fonts = {"NotoSerif-Regular.ttf", "Aller_Rg.ttf", "Puritan2.otf", "abserif4_5.ttf"};
+        FontSubsetCache cache = new FontSubsetCache(2, Long.MAX_VALUE);
+        WriterProperties properties = new WriterProperties().useFontSubsetCache(cache);
+        Map<String, byte[]> fontFiles = getFontFiles(writeDocumentWithFonts(fonts, properties));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(fonts.length - 2, cache.getEvictionCount());
+        Assert.assertEquals(fontFiles.keySet(), getFontFiles(writeDocumentWithFonts(fonts, properties)).keySet());
+        Assert.assertEquals(2, cache.size());
+
+        cache = new FontSubsetCache(1);
+        writeDocumentWithFonts(fonts, new WriterProperties().useFontSubsetCache(cache));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(fonts.length, cache.getBuildCount());
+    }
+
+    @Test
+    public void openTypeLayoutTablesTest() throws IOException {
+        TrueTypeFont font = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", false);
+        Assert.assertNotNull(font.getGsubTable());
+        Assert.assertFalse(font.getGsubTable().getFeatureRecords().isEmpty());
+        Assert.assertSame(font.getGsubTable(), font.getGsubTable());
+        Assert.assertNotNull(font.getGposTable());
+        Assert.assertFalse(font.getGposTable().getFeatureRecords().isEmpty());
+    }
+
 
 }
@@ -0,0 +1,107 @@
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+@Category(UnitTest.class)
+public class PdfNameMapTest extends ExtendedITextTest {
+
+    @Test
+    public void sameAsTreeMapTest() {
+        Random random = new Random(42);
+        for (int maxSize : new int[] {4, 8, 20, 200}) {
+            PdfNameMap map = new PdfNameMap();
+            TreeMap<PdfName, PdfObject> expected = new TreeMap<>();
+            for (int i = 0; i < 2000; i++) {
+                PdfName key = createKey(random, maxSize);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        Assert.assertEquals(expected.remove(key), map.remove(key));
+                        break;
+                    case 1:
+                        Assert.assertEquals(expected.get(key), map.get(key));
+                        Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+                        break;
+                    default:
+                        PdfNumber value = new PdfNumber(i);
+                        Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                        break;
+                }
+                Assert.assertEquals(expected.size(), map.size());
+            }
+            Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+            Assert.assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+            Assert.assertEquals(expected, map);
+            Assert.assertEquals(expected.hashCode(), map.hashCode());
+        }
+    }
+
+    @Test
+    public void lookupByEqualNameTest() {
+        PdfNameMap map = new PdfNameMap();
+        map.put(PdfName.Type, PdfName.Page);
+        map.put(new PdfName("Custom"), PdfBoolean.TRUE);
+        Assert.assertEquals(PdfName.Page, map.get(new PdfName("Type")));
+        Assert.assertEquals(PdfBoolean.TRUE, map.get(new PdfName("Custom")));
+        Assert.assertNull(map.get(PdfName.Subtype));
+        Assert.assertNull(map.get("Type"));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        PdfNameMap map = new PdfNameMap();
+        for (int i = 0; i < 20; i++) {
+            map.put(new PdfName("Key" + i), new PdfNumber(i));
+        }
+        Iterator<Map.Entry<PdfName, PdfObject>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (((PdfNumber) iterator.next().getValue()).intValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(10, map.size());
+        for (Map.Entry<PdfName, PdfObject> entry : map.entrySet()) {
+            Assert.assertEquals(1, ((PdfNumber) entry.getValue()).intValue() % 2);
+            entry.setValue(PdfNull.PDF_NULL);
+        }
+        for (PdfObject value : map.values()) {
+            Assert.assertEquals(PdfNull.PDF_NULL, value);
+        }
+    }
+
+    @Test
+    public void dictionaryKeyOrderTest() {
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.Type, PdfName.Font);
+        dictionary.put(PdfName.BaseFont, new PdfName("Helvetica"));
+        dictionary.put(PdfName.Subtype, PdfName.Type1);
+        dictionary.put(PdfName.Encoding, PdfName.WinAnsiEncoding);
+        List<PdfName> keys = new ArrayList<>(dictionary.keySet());
+        Assert.assertEquals(new ArrayList<>(new TreeMap<>(createMap(dictionary)).keySet()), keys);
+        Assert.assertEquals("<</BaseFont /Helvetica /Encoding /WinAnsiEncoding /Subtype /Type1 /Type /Font >>", dictionary.toString());
+    }
+
+    private static Map<PdfName, PdfObject> createMap(PdfDictionary dictionary) {
+        Map<PdfName, PdfObject> map = new TreeMap<>();
+        for (Map.Entry<PdfName, PdfObject> entry : dictionary.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    private static PdfName createKey(Random random, int maxSize) {
+        int key = random.nextInt(maxSize);
+        // predefined names are compared by identity, the other ones by value
+        return key == 0 ? PdfName.Type : new PdfName("Key" + key);
+    }
+}
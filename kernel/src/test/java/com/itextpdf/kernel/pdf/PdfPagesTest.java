@@ -329,6 +329,38 @@ public class PdfPagesTest extends ExtendedITextTest{
         pdfDoc.close();
     }
 
+    @Test
+    public void getPageNumberByDictionaryTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocument.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename), new PdfWriter(new ByteArrayOutputStream()));
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(filename));
+        int pageCount = pdfDoc.getNumberOfPages();
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            int pageNum = random.nextInt(pageCount) + 1;
+            PdfIndirectReference pageRef = expectedDoc.getPage(pageNum).getPdfObject().getIndirectReference();
+            PdfDictionary pageDictionary = (PdfDictionary) pdfDoc.getPdfObject(pageRef.getObjNumber());
+            Assert.assertEquals(pageNum, pdfDoc.getPageNumber(pageDictionary));
+            Assert.assertEquals(pageNum, pdfDoc.getPageNumber(pdfDoc.getPage(pageNum)));
+        }
+        Assert.assertEquals(0, pdfDoc.getPageNumber(new PdfDictionary()));
+
+        PdfPage removed = pdfDoc.removePage(10);
+        Assert.assertEquals(0, pdfDoc.getPageNumber(removed));
+        PdfPage last = pdfDoc.getLastPage();
+        Assert.assertEquals(pageCount - 1, pdfDoc.getPageNumber(last.getPdfObject()));
+        PdfPage inserted = pdfDoc.addNewPage(5);
+        Assert.assertEquals(5, pdfDoc.getPageNumber(inserted));
+        Assert.assertEquals(pageCount, pdfDoc.getPageNumber(last));
+        pdfDoc.removePage(pageCount);
+        Assert.assertEquals(0, pdfDoc.getPageNumber(last.getPdfObject()));
+        PdfPage appended = pdfDoc.addNewPage();
+        Assert.assertEquals(pageCount, pdfDoc.getPageNumber(appended));
+
+        expectedDoc.close();
+        pdfDoc.close();
+    }
+
     @Test
     public void removePageWithFormFieldsTest() throws IOException {
         String filename = sourceFolder + "docWithFields.pdf";
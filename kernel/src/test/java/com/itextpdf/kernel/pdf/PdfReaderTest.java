@@ -4,6 +4,7 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.filters.FlateDecodeFilter;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
@@ -14,12 +15,20 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Category(IntegrationTest.class)
 public class PdfReaderTest extends ExtendedITextTest{
@@ -1428,6 +1437,431 @@ public class PdfReaderTest extends ExtendedITextTest{
         pdfDoc.close();
     }
 
+    @Test
+    public void concurrentReadingTest() throws IOException, InterruptedException, ExecutionException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+
+        PdfReader reader = new PdfReader(filename, new ReaderProperties().setConcurrentReading(true));
+        final PdfDocument document = new PdfDocument(reader);
+        int pageCount = document.getNumberOfPages();
+        Assert.assertEquals(1000, pageCount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> contents = new ArrayList<>(pageCount);
+            for (int i = 1; i <= pageCount; i++) {
+                final int pageNum = i;
+                contents.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return new String(document.getPage(pageNum).getContentBytes());
+                    }
+                }));
+            }
+            for (int i = 1; i <= pageCount; i++) {
+                Assert.assertTrue(contents.get(i - 1).get().contains("(" + i + ")"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertFalse("No need in rebuildXref()", reader.hasRebuiltXref());
+        document.close();
+    }
+
+    @Test
+    public void concurrentReadingCloseTest() throws IOException, InterruptedException, ExecutionException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        final PdfReader reader = new PdfReader(filename, new ReaderProperties().setConcurrentReading(true));
+        final PdfDocument document = new PdfDocument(reader);
+        final PdfStream notReadContent = document.getPage(20).getFirstContentStream();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> content = executor.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return new String(document.getPage(10).getContentBytes());
+                }
+            });
+            Assert.assertTrue(content.get().contains("(10)"));
+            document.close();
+            // The source shared by the tokenizers of the pooled threads is closed together with the reader.
+            Future<byte[]> contentAfterClose = executor.submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    return reader.readStreamBytesRaw(notReadContent);
+                }
+            });
+            try {
+                contentAfterClose.get();
+                Assert.fail("The content was read after the reader had been closed");
+            } catch (ExecutionException expected) {
+                Assert.assertTrue(expected.getCause() instanceof IOException);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void streamByteBufferViewTest() throws IOException {
+        String filename = destinationFolder + "streamByteBufferView.pdf";
+        byte[] content = new byte[200000];
+        new Random(42).nextBytes(content);
+        for (int i = 0; i < content.length; i += 4) {
+            content[i] = 'a';
+        }
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        PdfStream stream = new PdfStream(content);
+        pdfDoc.getCatalog().put(new PdfName("TestStream"), stream.makeIndirect(pdfDoc));
+        int objNumber = stream.getIndirectReference().getObjNumber();
+        pdfDoc.addNewPage();
+        pdfDoc.close();
+
+        checkStreamByteBufferView(new PdfReader(filename), objNumber, content, true);
+        checkStreamByteBufferView(new PdfReader(new FileInputStream(filename)), objNumber, content, false);
+    }
+
+    @Test
+    public void flateDecodeCorruptedByteBufferTest() throws IOException {
+        byte[] content = new byte[100000];
+        new Random(42).nextBytes(content);
+        java.io.ByteArrayOutputStream compressed = new java.io.ByteArrayOutputStream();
+        java.util.zip.DeflaterOutputStream zip = new java.util.zip.DeflaterOutputStream(compressed);
+        zip.write(content);
+        zip.close();
+        byte[] corrupted = compressed.toByteArray();
+        for (int i = corrupted.length / 2; i < corrupted.length / 2 + 100; i++) {
+            corrupted[i] = (byte) 0xff;
+        }
+
+        byte[] expected = new FlateDecodeFilter().decode(corrupted, PdfName.FlateDecode, null, new PdfDictionary());
+        Assert.assertTrue(expected.length > 0);
+        java.io.ByteArrayOutputStream decoded = new java.io.ByteArrayOutputStream();
+        FlateDecodeFilter.flateDecode(java.nio.ByteBuffer.wrap(corrupted).asReadOnlyBuffer(), decoded);
+        Assert.assertArrayEquals(expected, decoded.toByteArray());
+
+        byte[] truncated = Arrays.copyOf(compressed.toByteArray(), compressed.size() / 2);
+        expected = new FlateDecodeFilter().decode(truncated, PdfName.FlateDecode, null, new PdfDictionary());
+        decoded.reset();
+        FlateDecodeFilter.flateDecode(java.nio.ByteBuffer.wrap(truncated), decoded);
+        Assert.assertArrayEquals(expected, decoded.toByteArray());
+    }
+
+    @Test
+    public void lazyXrefEntriesTest() throws IOException {
+        checkLazyXrefEntries(destinationFolder + "lazyXrefEntries.pdf", false);
+        checkLazyXrefEntries(destinationFolder + "lazyXrefEntriesFullCompression.pdf", true);
+    }
+
+    private void checkLazyXrefEntries(String filename, boolean fullCompression) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename, new WriterProperties().setFullCompressionMode(fullCompression)));
+        pdfDoc.addNewPage();
+        PdfArray numbers = new PdfArray();
+        int firstNumber = 0;
+        for (int i = 0; i < 100; i++) {
+            PdfNumber number = (PdfNumber) new PdfNumber(i).makeIndirect(pdfDoc);
+            if (i == 0) {
+                firstNumber = number.getIndirectReference().getObjNumber();
+            }
+            numbers.add(number);
+        }
+        pdfDoc.getCatalog().put(new PdfName("Numbers"), numbers.makeIndirect(pdfDoc));
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(filename));
+        PdfXrefTable xref = pdfDoc.getXref();
+        // with full compression the catalog and the numbers share an object stream, so their references are created at once
+        if (!fullCompression) {
+            Assert.assertNull(xref.getCreatedReference(firstNumber + 50));
+            Assert.assertNull(xref.getCreatedReference(firstNumber + 99));
+        }
+        Assert.assertTrue(xref.hasEntry(firstNumber + 50));
+        Assert.assertEquals(50, ((PdfNumber) pdfDoc.getPdfObject(firstNumber + 50)).intValue());
+        PdfIndirectReference reference = xref.getCreatedReference(firstNumber + 50);
+        Assert.assertNotNull(reference);
+        Assert.assertSame(reference, xref.get(firstNumber + 50));
+
+        PdfArray readNumbers = pdfDoc.getCatalog().getPdfObject().getAsArray(new PdfName("Numbers"));
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, readNumbers.getAsNumber(i).intValue());
+        }
+        Assert.assertSame(reference, readNumbers.get(50, false));
+        Assert.assertFalse(xref.hasEntry(xref.size()));
+        pdfDoc.close();
+    }
+
+    @Test
+    public void lazyXrefReadingTest() throws IOException {
+        checkLazyXrefReading(destinationFolder + "lazyXrefReading", false);
+        checkLazyXrefReading(destinationFolder + "lazyXrefReadingFullCompression", true);
+    }
+
+    @Test
+    public void lazyXrefReadingLinearizedTest() throws IOException {
+        String filename = "./src/test/resources/com/itextpdf/kernel/parser/PdfImageXObjectTest/jbig2decode.pdf";
+        PdfDocument eagerDoc = new PdfDocument(new PdfReader(filename));
+        PdfDocument lazyDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setLazyXrefReading(true)));
+        Assert.assertNotNull(lazyDoc.getReader().getLinearizedFirstPage());
+        Assert.assertNull(eagerDoc.getReader().getLinearizedFirstPage());
+        Assert.assertEquals(eagerDoc.getNumberOfPages(), lazyDoc.getNumberOfPages());
+        Assert.assertEquals(lazyDoc.getReader().getLinearizedFirstPage(), lazyDoc.getPage(1).getPdfObject());
+        for (int i = 1; i <= eagerDoc.getNumberOfPages(); i++) {
+            Assert.assertArrayEquals(eagerDoc.getPage(i).getContentBytes(), lazyDoc.getPage(i).getContentBytes());
+        }
+        eagerDoc.close();
+        lazyDoc.close();
+    }
+
+    @Test
+    public void objectCacheTest() throws IOException {
+        checkObjectCache(sourceFolder + "1000PagesDocument.pdf");
+        checkObjectCache(sourceFolder + "1000PagesDocumentWithFullCompression.pdf");
+    }
+
+    @Test
+    public void xrefTableEntriesOfDifferentWidthTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        for (int i = 1; i <= 20; i++) {
+            pdfDoc.addNewPage().getFirstContentStream().getOutputStream().writeString("%page " + i + "\n");
+        }
+        pdfDoc.close();
+        String document = new String(baos.toByteArray(), "ISO-8859-1");
+        int xrefStart = document.lastIndexOf("\nxref\n") + 1;
+        int xrefEnd = document.indexOf("trailer", xrefStart);
+        String xrefSection = document.substring(xrefStart, xrefEnd);
+        // 20 bytes entries of the first half of the table followed by 19 bytes entries with single byte end of line
+        int middle = xrefSection.length() / 2;
+        String modified = document.substring(0, xrefStart) + xrefSection.substring(0, middle)
+                + xrefSection.substring(middle).replace(" \n", "\n") + document.substring(xrefEnd);
+
+        PdfReader reader = new PdfReader(new java.io.ByteArrayInputStream(ByteUtils.getIsoBytes(modified)));
+        PdfDocument document2 = new PdfDocument(reader);
+        Assert.assertFalse(reader.hasRebuiltXref());
+        Assert.assertFalse(reader.hasFixedXref());
+        Assert.assertEquals(20, document2.getNumberOfPages());
+        for (int i = 1; i <= 20; i++) {
+            Assert.assertEquals("%page " + i + "\n", new String(document2.getPage(i).getContentBytes(), "ISO-8859-1"));
+        }
+        document2.close();
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR, count = 1))
+    public void rebuiltXrefWithFreeEntriesTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        pdfDoc.addNewPage();
+        PdfDictionary marker = new PdfDictionary();
+        marker.put(new PdfName("Marker"), new PdfString("in use"));
+        int markerNumber = marker.makeIndirect(pdfDoc).getIndirectReference().getObjNumber();
+        pdfDoc.getCatalog().put(new PdfName("Marker"), marker);
+        pdfDoc.close();
+
+        // the object in use is listed as free and the broken previous section makes the reader rebuild the table
+        String document = new String(baos.toByteArray(), "ISO-8859-1");
+        int xrefStart = document.lastIndexOf("\nxref\n") + 1;
+        int entriesStart = document.indexOf('\n', document.indexOf('\n', xrefStart) + 1) + 1;
+        int markerEntry = entriesStart + 20 * markerNumber;
+        String modified = document.substring(0, markerEntry) + "0000000000 00000 f \n" + document.substring(markerEntry + 20);
+        modified = modified.replace("trailer\n<<", "trailer\n<</Prev 1000000");
+
+        PdfReader reader = new PdfReader(new java.io.ByteArrayInputStream(ByteUtils.getIsoBytes(modified)));
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        PdfDocument stampingDoc = new PdfDocument(reader, new PdfWriter(result));
+        Assert.assertTrue(reader.hasRebuiltXref());
+        for (int i = 0; i < 5; i++) {
+            PdfObject newObject = new PdfDictionary().makeIndirect(stampingDoc);
+            Assert.assertNotEquals(markerNumber, newObject.getIndirectReference().getObjNumber());
+        }
+        stampingDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(new java.io.ByteArrayInputStream(result.toByteArray())));
+        PdfDictionary resultMarker = resultDoc.getCatalog().getPdfObject().getAsDictionary(new PdfName("Marker"));
+        Assert.assertEquals(markerNumber, resultMarker.getIndirectReference().getObjNumber());
+        Assert.assertEquals("in use", resultMarker.getAsString(new PdfName("Marker")).getValue());
+        resultDoc.close();
+    }
+
+    @Test
+    public void objectStreamCacheTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setObjectStreamCacheSize(1 << 20)));
+        PdfReader reader = pdfDoc.getReader();
+        List<Integer> compressedObjects = new ArrayList<>();
+        for (int i = 1; i < pdfDoc.getXref().size(); i++) {
+            PdfIndirectReference reference = pdfDoc.getXref().get(i);
+            if (reference != null && reference.getObjStreamNumber() > 0 && reference.refersTo == null) {
+                compressedObjects.add(i);
+            }
+        }
+        Assert.assertTrue(compressedObjects.size() > 100);
+        Map<Integer, String> expected = new HashMap<>();
+        for (int objNumber : compressedObjects) {
+            expected.put(objNumber, pdfDoc.getPdfObject(objNumber).toString());
+        }
+        long misses = reader.getObjectStreamCacheMisses();
+        Assert.assertTrue(misses > 0);
+
+        // the objects of the recently read object streams are parsed again without decoding the streams
+        int lastStream = pdfDoc.getXref().get(compressedObjects.get(compressedObjects.size() - 1)).getObjStreamNumber();
+        int released = 0;
+        for (int objNumber : compressedObjects) {
+            if (pdfDoc.getXref().get(objNumber).getObjStreamNumber() == lastStream) {
+                pdfDoc.getPdfObject(objNumber).release();
+                released++;
+            }
+        }
+        long hits = reader.getObjectStreamCacheHits();
+        for (int objNumber : compressedObjects) {
+            Assert.assertEquals(expected.get(objNumber), pdfDoc.getPdfObject(objNumber).toString());
+        }
+        Assert.assertEquals(hits + released, reader.getObjectStreamCacheHits());
+        Assert.assertEquals(misses, reader.getObjectStreamCacheMisses());
+
+        // all the released objects are read again, either from the cached or from the decoded again streams
+        for (int objNumber : compressedObjects) {
+            pdfDoc.getPdfObject(objNumber).release();
+        }
+        hits = reader.getObjectStreamCacheHits();
+        for (int objNumber : compressedObjects) {
+            Assert.assertEquals(expected.get(objNumber), pdfDoc.getPdfObject(objNumber).toString());
+        }
+        Assert.assertTrue(reader.getObjectStreamCacheHits() > hits);
+        pdfDoc.close();
+    }
+
+    @Test
+    public void objectStreamCacheDisabledByDefaultTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename));
+        int released = 0;
+        for (int i = 1; i < pdfDoc.getXref().size(); i++) {
+            PdfIndirectReference reference = pdfDoc.getXref().get(i);
+            if (reference != null && reference.getObjStreamNumber() > 0 && reference.refersTo == null) {
+                String expected = pdfDoc.getPdfObject(i).toString();
+                pdfDoc.getPdfObject(i).release();
+                Assert.assertEquals(expected, pdfDoc.getPdfObject(i).toString());
+                released++;
+            }
+        }
+        Assert.assertTrue(released > 0);
+        Assert.assertEquals(0, pdfDoc.getReader().getObjectStreamCacheHits());
+        Assert.assertEquals(0, pdfDoc.getReader().getObjectStreamCacheMisses());
+        pdfDoc.close();
+    }
+
+    private void checkObjectCache(String filename) throws IOException {
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(filename));
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setObjectCacheSize(20000)));
+        Assert.assertNull(expectedDoc.getReader().getObjectCache());
+        PdfObjectCache objectCache = pdfDoc.getReader().getObjectCache();
+        Assert.assertNotNull(objectCache);
+        Assert.assertEquals(expectedDoc.getNumberOfPages(), pdfDoc.getNumberOfPages());
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 1; i <= expectedDoc.getNumberOfPages(); i++) {
+                Assert.assertArrayEquals(expectedDoc.getPage(i).getContentBytes(), pdfDoc.getPage(i).getContentBytes());
+                Assert.assertEquals(expectedDoc.getPage(i).getResources().getResourceNames(),
+                        pdfDoc.getPage(i).getResources().getResourceNames());
+            }
+        }
+        Assert.assertTrue(objectCache.getReleasedCount() > 0);
+        Assert.assertTrue(objectCache.getSize() <= 20000);
+        Assert.assertTrue(countReadObjects(pdfDoc) < countReadObjects(expectedDoc));
+        expectedDoc.close();
+        pdfDoc.close();
+
+        // objects are not released in stamping mode
+        pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setObjectCacheSize(20000)),
+                new PdfWriter(new ByteArrayOutputStream()));
+        Assert.assertNull(pdfDoc.getReader().getObjectCache());
+        pdfDoc.close();
+    }
+
+    private static int countReadObjects(PdfDocument pdfDoc) {
+        int count = 0;
+        for (int i = 1; i < pdfDoc.getXref().size(); i++) {
+            PdfIndirectReference reference = pdfDoc.getXref().get(i);
+            if (reference != null && reference.refersTo != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void checkLazyXrefReading(String filenamePrefix, boolean fullCompression) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filenamePrefix + "1.pdf",
+                new WriterProperties().setFullCompressionMode(fullCompression)));
+        int firstPage = pdfDoc.addNewPage().getPdfObject().getIndirectReference().getObjNumber();
+        pdfDoc.close();
+        for (int revision = 1; revision <= 3; revision++) {
+            pdfDoc = new PdfDocument(new PdfReader(filenamePrefix + revision + ".pdf"),
+                    new PdfWriter(filenamePrefix + (revision + 1) + ".pdf"),
+                    new StampingProperties().useAppendMode());
+            pdfDoc.addNewPage();
+            new PdfNumber(revision).makeIndirect(pdfDoc);
+            // the catalog and the info are updated in every revision, so opening doesn't require the previous sections
+            pdfDoc.getCatalog().put(new PdfName("Revision"), new PdfNumber(revision));
+            pdfDoc.getCatalog().setModified();
+            pdfDoc.getDocumentInfo().getPdfObject().setModified();
+            pdfDoc.close();
+        }
+        String lastRevision = filenamePrefix + "4.pdf";
+
+        PdfDocument eagerDoc = new PdfDocument(new PdfReader(lastRevision));
+        PdfDocument lazyDoc = new PdfDocument(new PdfReader(lastRevision, new ReaderProperties().setLazyXrefReading(true)));
+        // the entry of the page created in the first revision is read only when the page is requested
+        Assert.assertTrue(lazyDoc.getXref().getCreatedReference(firstPage).checkState(PdfObject.READING));
+        Assert.assertEquals(PdfName.Page, ((PdfDictionary) lazyDoc.getPdfObject(firstPage)).getAsName(PdfName.Type));
+        Assert.assertFalse(lazyDoc.getXref().getCreatedReference(firstPage).checkState(PdfObject.READING));
+
+        Assert.assertEquals(4, lazyDoc.getNumberOfPages());
+        for (int i = 1; i <= eagerDoc.getNumberOfPdfObjects(); i++) {
+            PdfObject eagerObject = eagerDoc.getPdfObject(i);
+            PdfObject lazyObject = lazyDoc.getPdfObject(i);
+            if (eagerObject == null) {
+                Assert.assertNull(lazyObject);
+            } else {
+                Assert.assertEquals(eagerObject.getType(), lazyObject.getType());
+                Assert.assertEquals(eagerObject.getIndirectReference().getGenNumber(), lazyObject.getIndirectReference().getGenNumber());
+            }
+        }
+        eagerDoc.close();
+        lazyDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(lastRevision, new ReaderProperties().setLazyXrefReading(true)),
+                new PdfWriter(filenamePrefix + "Stamped.pdf"));
+        pdfDoc.close();
+        pdfDoc = new PdfDocument(new PdfReader(filenamePrefix + "Stamped.pdf"));
+        Assert.assertFalse(pdfDoc.getReader().hasRebuiltXref());
+        Assert.assertEquals(4, pdfDoc.getNumberOfPages());
+        pdfDoc.close();
+    }
+
+    private void checkStreamByteBufferView(PdfReader reader, int objNumber, byte[] content, boolean mapped) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(reader);
+        PdfStream stream = (PdfStream) pdfDoc.getPdfObject(objNumber);
+        Assert.assertEquals(PdfName.FlateDecode, stream.get(PdfName.Filter));
+
+        byte[] raw = reader.readStreamBytesRaw(stream);
+        java.nio.ByteBuffer view = reader.readStreamByteBufferRaw(stream);
+        Assert.assertTrue(view.isReadOnly());
+        Assert.assertEquals(mapped, view.isDirect());
+        byte[] viewBytes = new byte[view.remaining()];
+        view.get(viewBytes);
+        Assert.assertArrayEquals(raw, viewBytes);
+
+        Assert.assertArrayEquals(content, reader.readStreamBytes(stream, true));
+        java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream();
+        reader.readStreamBytes(stream, true, output);
+        Assert.assertArrayEquals(content, output.toByteArray());
+        output.reset();
+        reader.readStreamBytes(stream, false, output);
+        Assert.assertArrayEquals(raw, output.toByteArray());
+        pdfDoc.close();
+    }
 
     private boolean objectTypeEqualTo(PdfObject object, PdfName type) {
         PdfName objectType = ((PdfDictionary)object).getAsName(PdfName.Type);
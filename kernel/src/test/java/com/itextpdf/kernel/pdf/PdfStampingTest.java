@@ -1,6 +1,7 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.FileChannelOutputStream;
 import com.itextpdf.io.util.DateTimeUtil;
 import com.itextpdf.kernel.xmp.XMPException;
 import com.itextpdf.kernel.xmp.XMPMetaFactory;
@@ -13,6 +14,8 @@ import org.junit.experimental.categories.Category;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Calendar;
 
 import static org.junit.Assert.*;
@@ -1225,6 +1228,78 @@ public class PdfStampingTest extends ExtendedITextTest {
         assertTrue(coef < 0.01);
     }
 
+    @Test
+    public void stampingUntouchedStreamsTest() throws IOException {
+        String filename1 = destinationFolder + "stampingUntouchedStreams1.pdf";
+        String filename2 = destinationFolder + "stampingUntouchedStreams2.pdf";
+
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(filename1));
+        for (int i = 1; i <= 3; i++) {
+            PdfPage page = pdfDoc1.addNewPage();
+            if (i == 3) {
+                page.getFirstContentStream().setCompressionLevel(CompressionConstants.NO_COMPRESSION);
+            }
+            StringBuilder content = new StringBuilder();
+            for (int j = 0; j < 5000; j++) {
+                content.append(i).append(' ').append(j).append(" m ").append(j).append(' ').append(i).append(" l S\n");
+            }
+            page.getFirstContentStream().getOutputStream().writeString(content.toString());
+        }
+        pdfDoc1.close();
+
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(filename1), new PdfWriter(filename2));
+        pdfDoc2.getPage(2).getFirstContentStream().setData(ByteUtils.getIsoBytes("%modified\n"), true);
+        pdfDoc2.close();
+
+        PdfDocument source = new PdfDocument(new PdfReader(filename1));
+        PdfDocument result = new PdfDocument(new PdfReader(filename2));
+        // untouched compressed content is copied byte for byte
+        assertArrayEquals(source.getPage(1).getFirstContentStream().getBytes(false),
+                result.getPage(1).getFirstContentStream().getBytes(false));
+        byte[] modified = result.getPage(2).getFirstContentStream().getBytes();
+        assertEquals("%modified\n", new String(modified, modified.length - 10, 10, "ISO-8859-1"));
+        // untouched content without filters is compressed with the default compression of the writer
+        assertNull(source.getPage(3).getFirstContentStream().get(PdfName.Filter));
+        assertEquals(PdfName.FlateDecode, result.getPage(3).getFirstContentStream().get(PdfName.Filter));
+        assertArrayEquals(source.getPage(3).getFirstContentStream().getBytes(), result.getPage(3).getFirstContentStream().getBytes());
+        source.close();
+        result.close();
+    }
+
+    @Test
+    public void stampingAppendModeModifiedObjectsOnlyTest() throws IOException {
+        String filename1 = destinationFolder + "stampingAppendModeModifiedObjectsOnly1.pdf";
+        String filename2 = destinationFolder + "stampingAppendModeModifiedObjectsOnly2.pdf";
+
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(filename1));
+        for (int i = 1; i <= 300; i++) {
+            pdfDoc1.addNewPage().getFirstContentStream().getOutputStream().writeString("%page " + i + "\n");
+        }
+        pdfDoc1.close();
+
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(filename1), new PdfWriter(new FileChannelOutputStream(filename2)),
+                new StampingProperties().useAppendMode());
+        PdfPage page = pdfDoc2.getPage(150);
+        page.getPdfObject().put(new PdfName("Stamped"), PdfBoolean.TRUE);
+        page.setModified();
+        pdfDoc2.close();
+
+        byte[] original = Files.readAllBytes(new File(filename1).toPath());
+        byte[] appended = Files.readAllBytes(new File(filename2).toPath());
+        assertArrayEquals(original, Arrays.copyOf(appended, original.length));
+        // only the stamped page is written to the incremental update
+        String update = new String(appended, original.length, appended.length - original.length, "ISO-8859-1");
+        assertEquals(1, update.split(" obj\n").length - 1);
+
+        PdfReader reader3 = new PdfReader(filename2);
+        PdfDocument pdfDoc3 = new PdfDocument(reader3);
+        assertEquals("Rebuilt", false, reader3.hasRebuiltXref());
+        assertEquals(300, pdfDoc3.getNumberOfPages());
+        assertEquals(PdfBoolean.TRUE, pdfDoc3.getPage(150).getPdfObject().get(new PdfName("Stamped")));
+        assertNull(pdfDoc3.getPage(149).getPdfObject().get(new PdfName("Stamped")));
+        pdfDoc3.close();
+    }
+
     static void verifyPdfPagesCount(PdfObject root) {
         if (root.getType() == PdfObject.INDIRECT_REFERENCE)
             root = ((PdfIndirectReference) root).getRefersTo();
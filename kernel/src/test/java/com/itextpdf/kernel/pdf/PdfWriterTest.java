@@ -1,6 +1,8 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.DirectBufferOutputStream;
+import com.itextpdf.io.source.FileChannelOutputStream;
 import com.itextpdf.io.util.DateTimeUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.test.ExtendedITextTest;
@@ -9,6 +11,8 @@ import com.itextpdf.test.annotations.type.IntegrationTest;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.TreeMap;
@@ -588,4 +592,101 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void parallelCompressionTest() throws IOException {
+        checkParallelCompression(destinationFolder + "parallelCompression.pdf", new WriterProperties().useParallelCompression(3));
+    }
+
+    @Test
+    public void parallelCompressionFullCompressionTest() throws IOException {
+        checkParallelCompression(destinationFolder + "parallelCompressionFullCompression.pdf",
+                new WriterProperties().useParallelCompression(3).setFullCompressionMode(true));
+    }
+
+    @Test
+    public void parallelCompressionEncryptionTest() throws IOException {
+        checkParallelCompression(destinationFolder + "parallelCompressionEncryption.pdf",
+                new WriterProperties().useParallelCompression(2)
+                        .setStandardEncryption(null, "owner".getBytes(), EncryptionConstants.ALLOW_PRINTING, EncryptionConstants.ENCRYPTION_AES_128));
+    }
+
+    @Test
+    public void fileChannelTest() throws IOException {
+        String filename = destinationFolder + "fileChannel.pdf";
+        FileChannel channel = new RandomAccessFile(filename, "rw").getChannel();
+        channel.truncate(0);
+        writeDocument(new PdfWriter(channel, new WriterProperties().setFullCompressionMode(true)), 20);
+        Assert.assertFalse(channel.isOpen());
+        checkDocument(new PdfReader(filename), 20);
+    }
+
+    @Test
+    public void fileChannelUncompressedObjectStreamsTest() throws IOException {
+        String filename = destinationFolder + "fileChannelUncompressedObjectStreams.pdf";
+        PdfWriter writer = new PdfWriter(new FileChannelOutputStream(filename),
+                new WriterProperties().setFullCompressionMode(true).setCompressionLevel(CompressionConstants.NO_COMPRESSION));
+        writeDocument(writer, 20);
+        checkDocument(new PdfReader(filename), 20);
+    }
+
+    @Test
+    public void directBufferTest() throws IOException {
+        DirectBufferOutputStream output = new DirectBufferOutputStream(1024);
+        writeDocument(new PdfWriter(output), 20);
+        java.nio.ByteBuffer buffer = output.getBuffer();
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(output.size(), buffer.remaining());
+        checkDocument(new PdfReader(new ByteArrayInputStream(output.toByteArray())), 20);
+    }
+
+    private static void writeDocument(PdfWriter writer, int pageCount) {
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        for (int i = 1; i <= pageCount; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getFirstContentStream().getOutputStream().writeBytes(getPageContent(i));
+            page.flush();
+        }
+        pdfDoc.close();
+    }
+
+    private static void checkDocument(PdfReader reader, int pageCount) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(reader);
+        Assert.assertEquals("Rebuilt", false, reader.hasRebuiltXref());
+        Assert.assertEquals("Page count", pageCount, pdfDocument.getNumberOfPages());
+        for (int i = 1; i <= pageCount; i++) {
+            Assert.assertArrayEquals("Page " + i, getPageContent(i), pdfDocument.getPage(i).getFirstContentStream().getBytes());
+        }
+        pdfDocument.close();
+    }
+
+    private void checkParallelCompression(String filename, WriterProperties properties) throws IOException {
+        int pageCount = 50;
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename, properties));
+        for (int i = 1; i <= pageCount; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getFirstContentStream().getOutputStream().writeBytes(getPageContent(i));
+            page.flush();
+        }
+        pdfDoc.close();
+
+        PdfReader reader = new PdfReader(filename);
+        PdfDocument pdfDocument = new PdfDocument(reader);
+        Assert.assertEquals("Rebuilt", false, reader.hasRebuiltXref());
+        Assert.assertEquals("Page count", pageCount, pdfDocument.getNumberOfPages());
+        for (int i = 1; i <= pageCount; i++) {
+            PdfStream contentStream = pdfDocument.getPage(i).getFirstContentStream();
+            Assert.assertEquals(PdfName.FlateDecode, contentStream.get(PdfName.Filter));
+            Assert.assertArrayEquals("Page " + i, getPageContent(i), contentStream.getBytes());
+        }
+        pdfDocument.close();
+    }
+
+    private static byte[] getPageContent(int pageNumber) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(pageNumber).append(' ').append(i).append(" m ").append(i).append(' ').append(pageNumber).append(" l S\n");
+        }
+        return ByteUtils.getIsoBytes(content.toString());
+    }
 }
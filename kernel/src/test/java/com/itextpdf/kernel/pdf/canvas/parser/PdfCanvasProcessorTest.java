@@ -1,6 +1,8 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.FontConstants;
+import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
@@ -8,18 +10,30 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Matrix;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import com.itextpdf.test.ExtendedITextTest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -98,4 +112,135 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    public void customOperatorOperandsTest() {
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new IEventListener() {
+            public void eventOccurred(IEventData data, EventType type) {
+            }
+
+            public Set<EventType> getSupportedEvents() {
+                return null;
+            }
+        });
+        final List<PdfObject> recordedOperands = new ArrayList<>();
+        final IContentOperator[] builtInOperator = new IContentOperator[1];
+        builtInOperator[0] = processor.registerContentOperator("cm", new IContentOperator() {
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+                recordedOperands.addAll(operands);
+                builtInOperator[0].invoke(processor, operator, operands);
+            }
+        });
+        processor.processContent("2 0 0 -.5 10.25 -20 cm".getBytes(), new PdfResources());
+
+        Assert.assertEquals(7, recordedOperands.size());
+        Assert.assertEquals("-.5", recordedOperands.get(3).toString());
+        Assert.assertEquals(10.25, ((PdfNumber) recordedOperands.get(4)).doubleValue(), 0);
+        Assert.assertEquals("cm", recordedOperands.get(6).toString());
+        Assert.assertEquals(new Matrix(2, 0, 0, -.5f, 10.25f, -20), processor.getGraphicsState().getCtm());
+    }
+
+    @Test
+    public void overriddenOperatorsTest() {
+        final List<String> invokedOperators = new ArrayList<>();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new IEventListener() {
+            public void eventOccurred(IEventData data, EventType type) {
+            }
+
+            public Set<EventType> getSupportedEvents() {
+                return null;
+            }
+        }) {
+            @Override
+            protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
+                invokedOperators.add(operator.toString() + operands.size());
+                super.invokeOperator(operator, operands);
+            }
+        };
+        final int[] popCount = new int[1];
+        processor.registerContentOperator("Q", new PdfCanvasProcessor.PopGraphicsStateOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+                popCount[0]++;
+                super.invoke(processor, operator, operands);
+            }
+        });
+        processor.processContent("q 2 0 0 2 0 0 cm Q q Q".getBytes(), new PdfResources());
+
+        Assert.assertEquals(2, popCount[0]);
+        Assert.assertEquals(java.util.Arrays.asList("q1", "cm7", "Q1", "q1", "Q1"), invokedOperators);
+        Assert.assertEquals(new Matrix(), processor.getGraphicsState().getCtm());
+    }
+
+    @Test
+    public void streamedPageContentTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        PdfPage page = pdfDoc.addNewPage();
+        PdfFont font = PdfFontFactory.createFont(FontConstants.HELVETICA);
+        new PdfCanvas(page).beginText().setFontAndSize(font, 12).moveText(36, 700).showText("Hello").endText()
+                .rectangle(10, 10, 50, 50).stroke().release();
+        String fontName = page.getResources().addFont(pdfDoc, font).toString();
+        // commands and the inline image dictionary are split between the content streams
+        page.newContentStreamAfter().getOutputStream().writeBytes("q 20 0 0 20 100 100".getBytes());
+        page.newContentStreamAfter().getOutputStream().writeBytes(" cm BI /W 2 /H 2".getBytes());
+        page.newContentStreamAfter().getOutputStream().writeBytes(ByteUtils.getIsoBytes(" /CS /G /BPC 8 ID \u0000\u00ffEI\u0000 EI Q BT"));
+        page.newContentStreamAfter().getOutputStream().writeBytes((" " + fontName + " 10 Tf 36 600 Td (World) Tj ET").getBytes());
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(new java.io.ByteArrayInputStream(baos.toByteArray())));
+        page = pdfDoc.getFirstPage();
+        Assert.assertEquals(5, page.getContentStreamCount());
+
+        EventRecorder streamedEvents = new EventRecorder();
+        new PdfCanvasProcessor(streamedEvents).processPageContent(page);
+
+        EventRecorder events = new EventRecorder();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(events);
+        processor.processContent(page.getContentBytes(), page.getResources());
+
+        final List<byte[]> processedContent = new ArrayList<>();
+        EventRecorder interceptedEvents = new EventRecorder();
+        new PdfCanvasProcessor(interceptedEvents) {
+            @Override
+            public void processContent(byte[] contentBytes, PdfResources resources) {
+                processedContent.add(contentBytes);
+                super.processContent(contentBytes, resources);
+            }
+        }.processPageContent(page);
+        pdfDoc.close();
+
+        Assert.assertTrue(events.events.contains("text World"));
+        Assert.assertTrue(events.events.contains("inline image"));
+        // the page processing starts with the clipping path of the page
+        Assert.assertEquals(events.events, streamedEvents.events.subList(1, streamedEvents.events.size()));
+        Assert.assertEquals(streamedEvents.events, interceptedEvents.events);
+        Assert.assertEquals(1, processedContent.size());
+    }
+
+    private static class EventRecorder implements IEventListener {
+        final List<String> events = new ArrayList<>();
+
+        public void eventOccurred(IEventData data, EventType type) {
+            if (data instanceof TextRenderInfo) {
+                TextRenderInfo renderInfo = (TextRenderInfo) data;
+                events.add("text " + renderInfo.getText());
+                events.add(renderInfo.getBaseline().getStartPoint().toString());
+            } else if (data instanceof ImageRenderInfo) {
+                ImageRenderInfo renderInfo = (ImageRenderInfo) data;
+                events.add(renderInfo.isInline() ? "inline image" : "image");
+                events.add(Arrays.toString(renderInfo.getImage().getImageBytes()));
+                events.add(renderInfo.getImageCtm().toString());
+            } else if (data instanceof PathRenderInfo) {
+                events.add("path " + ((PathRenderInfo) data).getCtm());
+            } else if (data instanceof ClippingPathInfo) {
+                events.add("clip " + ((ClippingPathInfo) data).getCtm());
+            } else {
+                events.add(type.toString());
+            }
+        }
+
+        public Set<EventType> getSupportedEvents() {
+            return null;
+        }
+    }
 }
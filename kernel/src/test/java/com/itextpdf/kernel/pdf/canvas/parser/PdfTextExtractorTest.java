@@ -0,0 +1,97 @@
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.font.FontConstants;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategyFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class PdfTextExtractorTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/kernel/parser/PdfTextExtractorTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void parallelTextExtractionTest() throws IOException {
+        String filename = destinationFolder + "parallelTextExtraction.pdf";
+        createDocument(filename, 200, 40);
+
+        PdfDocument sequentialDoc = new PdfDocument(new PdfReader(filename));
+        PdfDocument parallelDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setConcurrentReading(true)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> text = PdfTextExtractor.getTextFromPages(parallelDoc, new LocationStrategyFactory(), executor);
+            Assert.assertEquals(sequentialDoc.getNumberOfPages(), text.size());
+            for (int i = 1; i <= sequentialDoc.getNumberOfPages(); i++) {
+                String expected = PdfTextExtractor.getTextFromPage(sequentialDoc.getPage(i), new LocationTextExtractionStrategy());
+                Assert.assertEquals(expected, text.get(i - 1));
+                Assert.assertTrue(text.get(i - 1).startsWith("Page " + i + " line 0"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        sequentialDoc.close();
+        parallelDoc.close();
+    }
+
+    @Test(expected = PdfException.class)
+    public void parallelTextExtractionWithoutConcurrentReadingTest() throws IOException {
+        String filename = destinationFolder + "parallelTextExtractionWithoutConcurrentReading.pdf";
+        createDocument(filename, 2, 1);
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PdfTextExtractor.getTextFromPages(pdfDoc, new LocationStrategyFactory(), executor);
+        } finally {
+            executor.shutdown();
+            pdfDoc.close();
+        }
+    }
+
+    static void createDocument(String filename, int pages, int linesPerPage) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename, new WriterProperties().setFullCompressionMode(true)));
+        PdfFont font = PdfFontFactory.createFont(FontConstants.HELVETICA);
+        for (int i = 1; i <= pages; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+            canvas.beginText().setFontAndSize(font, 10).moveText(36, 800);
+            for (int j = 0; j < linesPerPage; j++) {
+                canvas.showText("Page " + i + " line " + j + " of the text extraction test document").moveText(0, -15);
+            }
+            canvas.endText();
+            canvas.release();
+        }
+        pdfDoc.close();
+    }
+
+    static class LocationStrategyFactory implements ITextExtractionStrategyFactory {
+        @Override
+        public ITextExtractionStrategy createStrategy() {
+            return new LocationTextExtractionStrategy();
+        }
+    }
+}
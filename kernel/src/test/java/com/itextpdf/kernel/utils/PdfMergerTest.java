@@ -1,14 +1,25 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.FontConstants;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.action.PdfAction;
+import com.itextpdf.kernel.pdf.annot.PdfLinkAnnotation;
+import com.itextpdf.kernel.pdf.navigation.PdfExplicitDestination;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -178,4 +189,93 @@ public class PdfMergerTest extends ExtendedITextTest {
             Assert.fail(errorMessage);
         }
     }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY)
+    })
+    public void mergeDocumentStreamingTest01() throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+        String filename = sourceFolder + "pdf_open_parameters.pdf";
+        String filename1 = sourceFolder + "iphone_user_guide.pdf";
+        String resultFile = destinationFolder + "mergedStreamingResult01.pdf";
+
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfWriter(resultFile));
+        pdfDoc3.setTagged();
+
+        PdfMerger merger = new PdfMerger(pdfDoc3).setCloseSourceDocuments(true).setStreamingMode(true);
+        List<Integer> pages = new ArrayList<>();
+        pages.add(3);
+        pages.add(2);
+        pages.add(1);
+        merger.merge(new PdfDocument(new PdfReader(filename)), pages);
+        Assert.assertTrue(pdfDoc3.getPage(1).isFlushed());
+
+        List<Integer> pages1 = new ArrayList<>();
+        pages1.add(5);
+        pages1.add(9);
+        pages1.add(4);
+        pages1.add(3);
+        merger.merge(new PdfDocument(new PdfReader(filename1)), pages1);
+
+        merger.close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = "";
+        String contentErrorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergedResult04.pdf", destinationFolder, "diff_");
+        String tagStructErrorMessage = compareTool.compareTagStructures(resultFile, sourceFolder + "cmp_mergedResult04.pdf");
+
+        errorMessage += tagStructErrorMessage == null ? "" : tagStructErrorMessage + "\n";
+        errorMessage += contentErrorMessage == null ? "" : contentErrorMessage;
+        if (!errorMessage.isEmpty()) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    public void mergeDocumentStreamingSmartModeTest() throws IOException {
+        ByteArrayOutputStream source = new ByteArrayOutputStream();
+        PdfDocument sourceDoc = new PdfDocument(new PdfWriter(source));
+        PdfDictionary font = new PdfDictionary();
+        font.put(PdfName.Type, PdfName.Font);
+        font.put(PdfName.Subtype, PdfName.Type1);
+        font.put(PdfName.BaseFont, new PdfName(FontConstants.HELVETICA));
+        PdfDictionary fonts = new PdfDictionary();
+        fonts.put(new PdfName("F1"), font.makeIndirect(sourceDoc));
+        PdfDictionary resources = new PdfDictionary();
+        resources.put(PdfName.Font, fonts);
+        resources.makeIndirect(sourceDoc);
+        for (int i = 1; i <= 2; i++) {
+            PdfPage page = sourceDoc.addNewPage();
+            page.getPdfObject().put(PdfName.Resources, resources);
+            page.getFirstContentStream().setData(("BT /F1 12 Tf 36 780 Td (Page " + i + ") Tj ET").getBytes());
+        }
+        PdfLinkAnnotation link = new PdfLinkAnnotation(new Rectangle(36, 700, 100, 20))
+                .setAction(PdfAction.createGoTo(PdfExplicitDestination.createFit(sourceDoc.getPage(1))));
+        sourceDoc.getPage(2).addAnnotation(link);
+        sourceDoc.close();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        PdfDocument resultDoc = new PdfDocument(new PdfWriter(result, new WriterProperties().useSmartMode()));
+        PdfMerger merger = new PdfMerger(resultDoc).setCloseSourceDocuments(true).setStreamingMode(true);
+        // the shared resources are flushed with the first page, the next copies refer to the flushed copy
+        PdfDocument from = new PdfDocument(new PdfReader(new ByteArrayInputStream(source.toByteArray())));
+        merger.merge(from, 1, 1);
+        from = new PdfDocument(new PdfReader(new ByteArrayInputStream(source.toByteArray())));
+        merger.merge(from, 2, 2);
+        from = new PdfDocument(new PdfReader(new ByteArrayInputStream(source.toByteArray())));
+        merger.merge(from, 1, 2);
+        merger.close();
+
+        PdfDocument mergedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(result.toByteArray())));
+        Assert.assertEquals(4, mergedDoc.getNumberOfPages());
+        PdfDictionary mergedResources = mergedDoc.getPage(1).getPdfObject().getAsDictionary(PdfName.Resources);
+        for (int i = 1; i <= 4; i++) {
+            PdfDictionary pageResources = mergedDoc.getPage(i).getPdfObject().getAsDictionary(PdfName.Resources);
+            Assert.assertEquals(mergedResources.getIndirectReference(), pageResources.getIndirectReference());
+            Assert.assertEquals(FontConstants.HELVETICA, pageResources.getAsDictionary(PdfName.Font)
+                    .getAsDictionary(new PdfName("F1")).getAsName(PdfName.BaseFont).getValue());
+        }
+        Assert.assertEquals(1, mergedDoc.getPage(4).getAnnotations().size());
+        mergedDoc.close();
+    }
 }
@@ -72,6 +72,12 @@ public class Document extends RootElement<Document> {
     protected float topMargin = 36;
     protected float bottomMargin = 36;
 
+    /**
+     * Maximum number of completed pages which may wait to be drawn and flushed in background,
+     * zero if the content is drawn by the thread adding the elements.
+     */
+    protected int maxPendingPages;
+
     /**
      * Creates a document from a {@link PdfDocument}. Initializes the first page
      * with the {@link PdfDocument}'s current default {@link PageSize}.
@@ -134,6 +140,10 @@ public class Document extends RootElement<Document> {
         super.add(element);
         if (element instanceof ILargeElement) {
             ((ILargeElement) element).setDocument(this);
+            if (maxPendingPages > 0) {
+                // the element is modified after it is added, so it can't be drawn in background at the same time
+                rootRenderer.flush();
+            }
             ((ILargeElement) element).flushContent();
         }
         return this;
@@ -165,6 +175,47 @@ public class Document extends RootElement<Document> {
         rootRenderer.flush();
     }
 
+    /**
+     * Enables drawing of the laid out content in background. Elements are still laid out by the thread adding them,
+     * while a single background thread draws the laid out content to the pages and flushes the completed pages.
+     * The content is drawn in the same order as in the default mode, so the page order and the tag structure
+     * of a tagged document are preserved. Adding of the elements is suspended when more than
+     * {@code maxPendingPages} completed pages wait to be drawn and flushed. Compression of the flushed content
+     * may additionally be spread over several threads with
+     * {@link com.itextpdf.kernel.pdf.WriterProperties#useParallelCompression(int)}.
+     * <p>
+     * The added elements and the {@link PdfDocument} shall not be changed directly until {@link #flush()}
+     * or {@link #close()} is called. Note that {@link com.itextpdf.kernel.events.PdfDocumentEvent#END_PAGE}
+     * events are dispatched by the background thread.
+     * <p>
+     * Shall be called before the first element is added. Not supported without immediate flush.
+     *
+     * @param maxPendingPages maximum number of completed pages waiting to be drawn and flushed, must be positive
+     * @return this element
+     */
+    public Document useDrawingPipeline(int maxPendingPages) {
+        if (!immediateFlush) {
+            throw new IllegalStateException("Operation not supported without immediate flush");
+        }
+        if (rootRenderer != null) {
+            throw new IllegalStateException("The drawing pipeline shall be set up before the first element is added");
+        }
+        if (maxPendingPages < 1) {
+            throw new IllegalArgumentException("The maximum number of pending pages must be greater than zero");
+        }
+        this.maxPendingPages = maxPendingPages;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of completed pages which may wait to be drawn and flushed in background.
+     * @return the number of pages set with {@link #useDrawingPipeline(int)}, or zero if the content is drawn
+     * by the thread adding the elements
+     */
+    public int getMaxPendingPages() {
+        return maxPendingPages;
+    }
+
     /**
      * Performs an entire recalculation of the document flow, taking into
      * account all its current child elements. May become very
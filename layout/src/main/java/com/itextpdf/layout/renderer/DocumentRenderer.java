@@ -43,6 +43,7 @@
  */
 package com.itextpdf.layout.renderer;
 
+import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfPage;
@@ -53,14 +54,41 @@ import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutResult;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class DocumentRenderer extends RootRenderer {
 
     protected Document document;
     protected List<Integer> wrappedContentPage = new ArrayList<>();
 
+    /**
+     * Single thread drawing the laid out content and flushing the completed pages in the order they were laid out,
+     * {@code null} if the content is drawn by the thread adding it.
+     */
+    private ThreadPoolExecutor drawingExecutor;
+
+    /**
+     * Flushes of the completed pages which are submitted to the drawing thread, in the page order.
+     */
+    private ArrayDeque<Future<?>> pendingPages;
+
+    private Future<?> lastDrawingTask;
+
+    private volatile Throwable drawingError;
+
+    /**
+     * Guards the {@link PdfDocument} which is changed by both the layout and the drawing threads.
+     */
+    private final Object documentLock = new Object();
+
     public DocumentRenderer(Document document) {
         this(document, true);
     }
@@ -69,6 +97,17 @@ public class DocumentRenderer extends RootRenderer {
         this.document = document;
         this.immediateFlush = immediateFlush;
         this.modelElement = document;
+        if (immediateFlush && document.getMaxPendingPages() > 0) {
+            drawingExecutor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "Document drawing");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            drawingExecutor.allowCoreThreadTimeOut(true);
+            pendingPages = new ArrayDeque<>();
+        }
     }
 
     @Override
@@ -84,21 +123,67 @@ public class DocumentRenderer extends RootRenderer {
     protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
         AreaBreak areaBreak = overflowResult != null && overflowResult.getAreaBreak() != null ? overflowResult.getAreaBreak() : null;
         moveToNextPage();
-        while (areaBreak != null && areaBreak.getType() == AreaBreakType.LAST_PAGE && currentPageNumber < document.getPdfDocument().getNumberOfPages()) {
+        while (areaBreak != null && areaBreak.getType() == AreaBreakType.LAST_PAGE && currentPageNumber < getNumberOfPages()) {
             moveToNextPage();
         }
         PageSize customPageSize = areaBreak != null ? areaBreak.getPageSize() : null;
-        while (document.getPdfDocument().getNumberOfPages() >= currentPageNumber && document.getPdfDocument().getPage(currentPageNumber).isFlushed()) {
-            currentPageNumber++;
-        }
-        PageSize lastPageSize = ensureDocumentHasNPages(currentPageNumber, customPageSize);
-        if (lastPageSize == null) {
-            lastPageSize = new PageSize(document.getPdfDocument().getPage(currentPageNumber).getPageSize());
+        PageSize lastPageSize;
+        synchronized (documentLock) {
+            while (document.getPdfDocument().getNumberOfPages() >= currentPageNumber && document.getPdfDocument().getPage(currentPageNumber).isFlushed()) {
+                currentPageNumber++;
+            }
+            lastPageSize = ensureDocumentHasNPages(currentPageNumber, customPageSize);
+            if (lastPageSize == null) {
+                lastPageSize = new PageSize(document.getPdfDocument().getPage(currentPageNumber).getPageSize());
+            }
         }
         return (currentArea = new LayoutArea(currentPageNumber, document.getPageEffectiveArea(lastPageSize)));
     }
 
-    protected void flushSingleRenderer(IRenderer resultRenderer) {
+    /**
+     * Flushes the content and, if the laid out content is drawn in background, waits until it is drawn.
+     */
+    @Override
+    public void flush() {
+        super.flush();
+        waitForDrawing();
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+            waitForDrawing();
+        } finally {
+            if (drawingExecutor != null) {
+                drawingExecutor.shutdown();
+                drawingExecutor = null;
+            }
+        }
+    }
+
+    protected void flushSingleRenderer(final IRenderer resultRenderer) {
+        if (drawingExecutor != null) {
+            submitDrawing(new Runnable() {
+                public void run() {
+                    drawSingleRenderer(resultRenderer);
+                }
+            });
+        } else {
+            drawSingleRenderer(resultRenderer);
+        }
+    }
+
+    protected PageSize addNewPage(PageSize customPageSize) {
+        if (customPageSize != null) {
+            document.getPdfDocument().addNewPage(customPageSize);
+        } else {
+            document.getPdfDocument().addNewPage();
+        }
+        return customPageSize != null ? customPageSize : document.getPdfDocument().getDefaultPageSize();
+    }
+
+    private void drawSingleRenderer(IRenderer resultRenderer) {
         if (!resultRenderer.isFlushed()) {
             int pageNum = resultRenderer.getOccupiedArea().getPageNumber();
 
@@ -118,15 +203,6 @@ public class DocumentRenderer extends RootRenderer {
         }
     }
 
-    protected PageSize addNewPage(PageSize customPageSize) {
-        if (customPageSize != null) {
-            document.getPdfDocument().addNewPage(customPageSize);
-        } else {
-            document.getPdfDocument().addNewPage();
-        }
-        return customPageSize != null ? customPageSize : document.getPdfDocument().getDefaultPageSize();
-    }
-
     /**
      * Adds some pages so that the overall number is at least n.
      * Returns the page size of the n'th page.
@@ -143,8 +219,79 @@ public class DocumentRenderer extends RootRenderer {
         // We don't flush this page immediately, but only flush previous one because of manipulations with areas in case
         // of keepTogether property.
         if (immediateFlush && currentPageNumber > 1) {
-            document.getPdfDocument().getPage(currentPageNumber - 1).flush();
+            flushPage(currentPageNumber - 1);
         }
         currentPageNumber++;
     }
+
+    private void flushPage(final int pageNum) {
+        if (drawingExecutor != null) {
+            pendingPages.add(submitDrawing(new Runnable() {
+                public void run() {
+                    document.getPdfDocument().getPage(pageNum).flush();
+                }
+            }));
+            while (pendingPages.size() > document.getMaxPendingPages()) {
+                waitForDrawingTask(pendingPages.poll());
+            }
+        } else {
+            document.getPdfDocument().getPage(pageNum).flush();
+        }
+    }
+
+    private int getNumberOfPages() {
+        synchronized (documentLock) {
+            return document.getPdfDocument().getNumberOfPages();
+        }
+    }
+
+    private Future<?> submitDrawing(final Runnable task) {
+        checkDrawingError();
+        return lastDrawingTask = drawingExecutor.submit(new Runnable() {
+            public void run() {
+                if (drawingError == null) {
+                    try {
+                        synchronized (documentLock) {
+                            task.run();
+                        }
+                    } catch (Throwable e) {
+                        drawingError = e;
+                    }
+                }
+            }
+        });
+    }
+
+    private void waitForDrawing() {
+        if (lastDrawingTask != null) {
+            waitForDrawingTask(lastDrawingTask);
+            lastDrawingTask = null;
+            pendingPages.clear();
+        }
+    }
+
+    private void waitForDrawingTask(Future<?> task) {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        } catch (ExecutionException e) {
+            // not thrown, the drawing tasks keep their exceptions in drawingError
+            throw new PdfException(e);
+        }
+        checkDrawingError();
+    }
+
+    /**
+     * Rethrows an exception thrown by the drawing thread, so that it is reported to the thread adding the elements.
+     */
+    private void checkDrawingError() {
+        Throwable error = drawingError;
+        if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw (RuntimeException) error;
+        }
+    }
 }
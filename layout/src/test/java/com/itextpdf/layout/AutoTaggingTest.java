@@ -459,6 +459,65 @@ public class AutoTaggingTest extends ExtendedITextTest {
 
 
 
+    /**
+     * Document generation and result is the same in this test as in the textInParagraphTest01, except that the pages
+     * are drawn and flushed in background.
+     */
+    @Test
+    public void drawingPipelineTest01() throws IOException, ParserConfigurationException, SAXException, InterruptedException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(destinationFolder + "drawingPipelineTest01.pdf"));
+        pdfDocument.setTagged();
+
+        Document document = new Document(pdfDocument).useDrawingPipeline(1);
+
+        Paragraph p = createParagraph1();
+        document.add(p);
+
+        for (int i = 0; i < 26; ++i) {
+            document.add(createParagraph2());
+        }
+
+        document.close();
+
+        compareResult("drawingPipelineTest01.pdf", "cmp_textInParagraphTest01.pdf");
+    }
+
+    /**
+     * Document generation and result is the same in this test as in the flushingTest02, except that the pages
+     * are drawn and flushed in background.
+     */
+    @Test
+    public void drawingPipelineTest02() throws IOException, ParserConfigurationException, SAXException, InterruptedException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(destinationFolder + "drawingPipelineTest02.pdf"));
+        pdfDocument.setTagged();
+
+        Document doc = new Document(pdfDocument).useDrawingPipeline(2);
+
+        Table table = new Table(5, true);
+        doc.add(table);
+
+        Cell cell = new Cell(1, 5).add(new Paragraph("Table XYZ (Continued)"));
+        table.addHeaderCell(cell);
+        for (int i = 0; i < 5; ++i) {
+            table.addHeaderCell(new Cell().add("Header " + (i + 1)));
+        }
+        cell = new Cell(1, 5).add(new Paragraph("Continue on next page"));
+        table.addFooterCell(cell);
+        table.setSkipFirstHeader(true);
+        table.setSkipLastFooter(true);
+
+        for (int i = 0; i < 350; i++) {
+            table.addCell(new Cell().add(new Paragraph(String.valueOf(i+1))));
+            table.flush();
+        }
+
+        table.complete();
+
+        doc.close();
+
+        compareResult("drawingPipelineTest02.pdf", "cmp_flushingTest02.pdf");
+    }
+
     private void compareResult(String outFileName, String cmpFileName)
             throws IOException, InterruptedException, ParserConfigurationException, SAXException {
         CompareTool compareTool = new CompareTool();
@@ -4,7 +4,9 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.kernel.color.Color;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.layout.border.SolidBorder;
 import com.itextpdf.layout.element.AreaBreak;
@@ -19,6 +21,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 @Category(IntegrationTest.class)
@@ -67,6 +70,51 @@ public class DefaultLayoutTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
 
+    @Test
+    public void drawingPipelineTest() throws IOException {
+        String outFileName = destinationFolder + "drawingPipelineTest.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+
+        Document document = new Document(pdfDocument).useDrawingPipeline(1);
+        String str = "Hello. I am a fairly long paragraph. I really want you to process me correctly. You heard that? Correctly!!! Even if you will have to wrap me.";
+        for (int i = 1; i <= 100; i++) {
+            document.add(new Paragraph("Page " + i).setBackgroundColor(Color.GREEN));
+            for (int j = 0; j < i % 10; j++) {
+                document.add(new Paragraph(str));
+            }
+            if (i < 100) {
+                document.add(new AreaBreak());
+            }
+        }
+        document.flush();
+        Assert.assertEquals(100, pdfDocument.getNumberOfPages());
+        Assert.assertTrue(pdfDocument.getPage(98).isFlushed());
+        document.close();
+
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(outFileName));
+        Assert.assertEquals(100, resultDocument.getNumberOfPages());
+        for (int i = 1; i <= 100; i++) {
+            String text = PdfTextExtractor.getTextFromPage(resultDocument.getPage(i));
+            Assert.assertEquals("Page " + i, text.split("\n")[0]);
+            Assert.assertEquals(i % 10, text.split("Hello\\.", -1).length - 1);
+        }
+        resultDocument.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void drawingPipelineWithoutImmediateFlushTest() {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        new Document(pdfDocument, PageSize.Default, false).useDrawingPipeline(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void drawingPipelineAfterFirstElementTest() {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Document document = new Document(pdfDocument);
+        document.add(new Paragraph("Hello"));
+        document.useDrawingPipeline(1);
+    }
+
     @Test
     @LogMessages(messages = {
             @LogMessage(messageTemplate = LogMessageConstant.RECTANGLE_HAS_NEGATIVE_OR_ZERO_SIZES)